@@ -0,0 +1,39 @@
+package com.quantcrux.marketdata.config;
+
+import com.quantcrux.marketdata.store.BarStore;
+import com.quantcrux.marketdata.store.MappedBarSeries;
+import com.quantcrux.marketdata.store.OffHeapBarSeries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Configuration
+public class MarketDataConfig {
+    
+    @Bean
+    public BarStore barStore(@Value("${market-data.store.type:mapped}") String type,
+                             @Value("${market-data.store.directory:data/bars}") String directory,
+                             @Value("${market-data.store.initial-capacity:2560}") int initialCapacity) {
+        // Capacity is doubled when full (2560 weekday bars is about ten years)
+        switch (type) {
+            case "mapped":
+                // One file per symbol; symbols such as EUR/USD are URL-encoded into the file name
+                Path root = Path.of(directory);
+                return new BarStore(symbol -> new MappedBarSeries(barFile(root, symbol), initialCapacity),
+                        symbol -> Files.exists(barFile(root, symbol)));
+            case "off-heap":
+                return new BarStore(symbol -> new OffHeapBarSeries(initialCapacity));
+            default:
+                throw new IllegalArgumentException("Unknown market data store type: " + type);
+        }
+    }
+    
+    private static Path barFile(Path root, String symbol) {
+        return root.resolve(URLEncoder.encode(symbol, StandardCharsets.UTF_8) + ".bars");
+    }
+}
\ No newline at end of file
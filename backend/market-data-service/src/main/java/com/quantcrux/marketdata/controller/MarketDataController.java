@@ -2,10 +2,13 @@ package com.quantcrux.marketdata.controller;
 
 import com.quantcrux.marketdata.dto.MarketDataPoint;
 import com.quantcrux.marketdata.service.MarketDataService;
+import com.quantcrux.marketdata.store.BarSlice;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,12 +19,31 @@ public class MarketDataController {
     @Autowired
     private MarketDataService marketDataService;
     
+    // The last `days` bars, or the bars between `from` and `to` (inclusive) when both are given
     @GetMapping("/{symbol}")
-    public ResponseEntity<List<MarketDataPoint>> getMarketData(
+    public ResponseEntity<BarSlice> getMarketData(
             @PathVariable String symbol,
-            @RequestParam(defaultValue = "252") int days) {
-        
-        List<MarketDataPoint> data = marketDataService.getMarketData(symbol, days);
-        return ResponseEntity.ok(data);
+            @RequestParam(defaultValue = "252") int days,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            BarSlice data = from != null && to != null
+                    ? marketDataService.getMarketData(symbol, from, to)
+                    : marketDataService.getMarketData(symbol, days);
+            return ResponseEntity.ok(data);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Appends bars after the symbol's last stored bar
+    @PostMapping("/{symbol}/bars")
+    public ResponseEntity<String> ingest(@PathVariable String symbol, @RequestBody List<MarketDataPoint> bars) {
+        try {
+            int stored = marketDataService.ingest(symbol, bars);
+            return ResponseEntity.ok("Stored " + stored + " bars");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Failed to store bars: " + e.getMessage());
+        }
     }
 }
\ No newline at end of file
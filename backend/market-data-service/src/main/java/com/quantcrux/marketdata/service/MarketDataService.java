@@ -1,43 +1,145 @@
 package com.quantcrux.marketdata.service;
 
 import com.quantcrux.marketdata.dto.MarketDataPoint;
+import com.quantcrux.marketdata.store.BarSeries;
+import com.quantcrux.marketdata.store.BarSlice;
+import com.quantcrux.marketdata.store.BarStore;
+import com.quantcrux.marketdata.store.OffHeapBarSeries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 @Service
 public class MarketDataService {
     
-    private final Random random = new Random();
-    
-    public List<MarketDataPoint> getMarketData(String symbol, int days) {
-        List<MarketDataPoint> data = new ArrayList<>();
-        double price = getInitialPrice(symbol);
-        LocalDate startDate = LocalDate.now().minusDays(days);
-        
-        for (int i = 0; i < days; i++) {
-            LocalDate date = startDate.plusDays(i);
-            
-            // Generate realistic OHLCV data
-            double volatility = 0.02;
-            double drift = 0.0002;
-            double randomFactor = (random.nextGaussian()) * volatility;
-            
-            price = price * (1 + drift + randomFactor);
-            
-            double open = price * (1 + (random.nextGaussian() - 0.5) * 0.01);
-            double high = price * (1 + random.nextDouble() * 0.02);
-            double low = price * (1 - random.nextDouble() * 0.02);
-            double close = price;
-            long volume = (long) (random.nextDouble() * 1000000 + 100000);
-            
-            data.add(new MarketDataPoint(date, open, high, low, close, volume));
-        }
-        
-        return data;
+    @Autowired
+    private BarStore barStore;
+    
+    // Weekday bars of the synthetic walk kept per symbol (2520 is about ten years); 0 serves ingested bars only
+    @Value("${market-data.synthetic-history:2520}")
+    private int syntheticHistory;
+    
+    // Symbols the synthetic walk is served for; any other symbol needs ingested bars
+    @Value("${market-data.synthetic-symbols:SPY,AAPL,GOOGL,MSFT,EUR/USD,GBP/USD,USD/JPY}")
+    private Set<String> syntheticSymbols;
+    
+    // Synthetic walks of symbols without ingested bars, in process only; never mixed with ingested bars
+    private final BarStore syntheticBars = new BarStore(symbol -> new OffHeapBarSeries(syntheticHistory + 64));
+    
+    // The last `days` bars before today
+    public BarSlice getMarketData(String symbol, int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days must not be negative");
+        }
+        return history(symbol).tail(days);
+    }
+    
+    // Bars from `from` up to and including `to`
+    public BarSlice getMarketData(String symbol, LocalDate from, LocalDate to) {
+        return history(symbol).slice((int) from.toEpochDay(), (int) to.toEpochDay() + 1);
+    }
+    
+    // Appends bars after the symbol's last stored bar, in date order, all or none; returns the number stored.
+    // The series (a bar file with the mapped store) is only created once there is a valid bar to append.
+    public int ingest(String symbol, List<MarketDataPoint> bars) {
+        long previous = Long.MIN_VALUE;
+        for (MarketDataPoint bar : bars) {
+            if (bar.getDate() == null || bar.getDate().toEpochDay() <= previous) {
+                throw new IllegalArgumentException("Bars must be dated and in date order");
+            }
+            previous = bar.getDate().toEpochDay();
+        }
+        if (bars.isEmpty()) {
+            return 0;
+        }
+        BarSeries series = barStore.getOrCreate(symbol);
+        synchronized (series) {
+            if (bars.get(0).getDate().toEpochDay() <= series.lastDay()) {
+                throw new IllegalArgumentException("Bars must start after the last stored bar");
+            }
+            for (MarketDataPoint bar : bars) {
+                series.append((int) bar.getDate().toEpochDay(), bar.getOpen(), bar.getHigh(), bar.getLow(),
+                        bar.getClose(), bar.getVolume());
+            }
+            series.flush();
+        }
+        return bars.size();
+    }
+    
+    // Ingested bars of the symbol if there are any, otherwise the synthetic walk of a known symbol up to the last
+    // weekday before today
+    private BarSeries history(String symbol) {
+        BarSeries ingested = barStore.find(symbol);
+        // An empty series (e.g. a bar file left by an older build) holds no ingested bars
+        if (ingested != null && ingested.size() > 0) {
+            return ingested;
+        }
+        if (syntheticHistory == 0 || !syntheticSymbols.contains(symbol.toUpperCase())) {
+            throw new IllegalArgumentException("No market data for " + symbol);
+        }
+        BarSeries series = syntheticBars.getOrCreate(symbol);
+        int lastWeekday = previousWeekday((int) LocalDate.now().toEpochDay());
+        if (series.lastDay() >= lastWeekday) {
+            return series;
+        }
+        synchronized (series) {
+            int day = series.lastDay();
+            double price = series.lastClose();
+            if (series.size() == 0) {
+                day = lastWeekday;
+                for (int i = 0; i < syntheticHistory; i++) {
+                    day = previousWeekday(day);
+                }
+                price = getInitialPrice(symbol);
+            }
+            long seed = symbol.toUpperCase().hashCode();
+            for (day = nextWeekday(day); day <= lastWeekday; day = nextWeekday(day)) {
+                // Each bar depends only on the symbol, the day and the previous close
+                SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + day);
+                
+                // Generate realistic OHLCV data
+                double volatility = 0.02;
+                double drift = 0.0002;
+                double randomFactor = (random.nextGaussian()) * volatility;
+                
+                price = price * (1 + drift + randomFactor);
+                
+                double open = price * (1 + (random.nextGaussian() - 0.5) * 0.01);
+                double high = price * (1 + random.nextDouble() * 0.02);
+                double low = price * (1 - random.nextDouble() * 0.02);
+                double close = price;
+                long volume = (long) (random.nextDouble() * 1000000 + 100000);
+                
+                series.append(day, open, high, low, close, volume);
+            }
+        }
+        return series;
+    }
+    
+    // Epoch day 0 (1970-01-01) was a Thursday
+    private static boolean isWeekday(int epochDay) {
+        return Math.floorMod(epochDay + 3, 7) < 5;
+    }
+    
+    private static int previousWeekday(int epochDay) {
+        int day = epochDay - 1;
+        while (!isWeekday(day)) {
+            day--;
+        }
+        return day;
+    }
+    
+    private static int nextWeekday(int epochDay) {
+        int day = epochDay + 1;
+        while (!isWeekday(day)) {
+            day++;
+        }
+        return day;
     }
     
     private double getInitialPrice(String symbol) {
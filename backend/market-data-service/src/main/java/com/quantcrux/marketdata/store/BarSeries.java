@@ -0,0 +1,31 @@
+package com.quantcrux.marketdata.store;
+
+/**
+ * Daily OHLCV bars of one symbol in ascending date order. Appends come from one writer at a time;
+ * reads need no locking and never see a partially written bar.
+ */
+public interface BarSeries {
+    
+    // Adds the bar after the last one; epochDay must be later than the last bar's
+    void append(int epochDay, double open, double high, double low, double close, long volume);
+    
+    int size();
+    
+    // Epoch day of the last bar, Integer.MIN_VALUE when empty
+    int lastDay();
+    
+    // Close of the last bar, NaN when empty
+    double lastClose();
+    
+    // Bars with fromDay <= epochDay < toDay, found by binary search
+    BarSlice slice(int fromDay, int toDay);
+    
+    // The last count bars (all of them if there are fewer)
+    BarSlice tail(int count);
+    
+    // Memory held for the bars, including spare capacity
+    long memoryBytes();
+    
+    // Makes appended bars durable, for stores that persist them
+    default void flush() {}
+}
\ No newline at end of file
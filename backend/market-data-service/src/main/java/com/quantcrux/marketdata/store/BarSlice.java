@@ -0,0 +1,26 @@
+package com.quantcrux.marketdata.store;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Read-only view of consecutive daily bars of one symbol, straight over the store's memory. Nothing is
+ * copied or allocated per bar; the JSON form is the same array of OHLCV objects as MarketDataPoint.
+ */
+@JsonSerialize(using = BarSliceSerializer.class)
+public abstract class BarSlice {
+    
+    public abstract int size();
+    
+    // Days since 1970-01-01 (LocalDate.toEpochDay)
+    public abstract int epochDay(int index);
+    
+    public abstract double open(int index);
+    
+    public abstract double high(int index);
+    
+    public abstract double low(int index);
+    
+    public abstract double close(int index);
+    
+    public abstract long volume(int index);
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.quantcrux.marketdata.store;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a slice as [{"date": "yyyy-MM-dd", "open": ..., "volume": ...}, ...], the MarketDataPoint
+ * layout, reading the bars in place. Dates are formatted from the epoch day without a LocalDate.
+ */
+public class BarSliceSerializer extends StdSerializer<BarSlice> {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public BarSliceSerializer() {
+        super(BarSlice.class);
+    }
+    
+    @Override
+    public void serialize(BarSlice slice, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        char[] date = new char[10];
+        int size = slice.size();
+        gen.writeStartArray(slice, size);
+        for (int i = 0; i < size; i++) {
+            gen.writeStartObject();
+            formatDate(slice.epochDay(i), date);
+            gen.writeFieldName("date");
+            gen.writeString(date, 0, date.length);
+            gen.writeNumberField("open", slice.open(i));
+            gen.writeNumberField("high", slice.high(i));
+            gen.writeNumberField("low", slice.low(i));
+            gen.writeNumberField("close", slice.close(i));
+            gen.writeNumberField("volume", slice.volume(i));
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+    
+    // ISO date of an epoch day in years 0000-9999 (civil-from-days, proleptic Gregorian like LocalDate)
+    static void formatDate(int epochDay, char[] out) {
+        long z = epochDay + 719468L;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        out[0] = (char) ('0' + year / 1000 % 10);
+        out[1] = (char) ('0' + year / 100 % 10);
+        out[2] = (char) ('0' + year / 10 % 10);
+        out[3] = (char) ('0' + year % 10);
+        out[4] = '-';
+        out[5] = (char) ('0' + month / 10);
+        out[6] = (char) ('0' + month % 10);
+        out[7] = '-';
+        out[8] = (char) ('0' + day / 10);
+        out[9] = (char) ('0' + day % 10);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.quantcrux.marketdata.store;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Daily bar series by symbol (upper case), created on first write. Series kept outside the process
+ * (e.g. bar files) are opened on first access, not at start-up.
+ */
+public class BarStore {
+    
+    private final Map<String, BarSeries> series = new ConcurrentHashMap<>();
+    private final Function<String, BarSeries> factory;
+    private final Predicate<String> persisted;
+    
+    public BarStore(Function<String, BarSeries> factory) {
+        this(factory, symbol -> false);
+    }
+    
+    // persisted tells whether the factory would open existing bars for an (upper case) symbol
+    public BarStore(Function<String, BarSeries> factory, Predicate<String> persisted) {
+        this.factory = factory;
+        this.persisted = persisted;
+    }
+    
+    // Series of the symbol, null if nothing was stored for it
+    public BarSeries find(String symbol) {
+        BarSeries found = series.get(symbol.toUpperCase());
+        if (found == null && persisted.test(symbol.toUpperCase())) {
+            found = getOrCreate(symbol);
+        }
+        return found;
+    }
+    
+    public BarSeries getOrCreate(String symbol) {
+        return series.computeIfAbsent(symbol.toUpperCase(), factory);
+    }
+    
+    public int getNumSymbols() {
+        return series.size();
+    }
+    
+    public long getMemoryBytes() {
+        long total = 0;
+        for (BarSeries s : series.values()) {
+            total += s.memoryBytes();
+        }
+        return total;
+    }
+}
\ No newline at end of file
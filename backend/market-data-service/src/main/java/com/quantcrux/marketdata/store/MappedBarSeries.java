@@ -0,0 +1,244 @@
+package com.quantcrux.marketdata.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bars of one symbol in a memory-mapped file of fixed-width little-endian records, read in place by
+ * slices, so nothing is loaded into the heap on start-up and the OS page cache decides what stays in
+ * memory.
+ * <p>
+ * Layout: a 16-byte header (magic "QXBR", format version, bar count, reserved) followed by 44-byte
+ * records of epoch day (int), open, high, low and close (double) and volume (long). The file is
+ * preallocated and remapped at twice the size when full. A bar is written before the count in memory
+ * is raised, so readers never see a partial bar. The count in the header only moves in {@link #flush()},
+ * after the new records have been forced to disk, so a file reopened after a crash holds the bars of
+ * the last completed flush and nothing written after it.
+ */
+public class MappedBarSeries implements BarSeries {
+    
+    static final int MAGIC = 0x52425851; // "QXBR" in little-endian byte order
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = Integer.BYTES + 4 * Double.BYTES + Long.BYTES;
+    
+    private static final int COUNT_OFFSET = 8;
+    private static final int OPEN = Integer.BYTES;
+    private static final int HIGH = OPEN + Double.BYTES;
+    private static final int LOW = HIGH + Double.BYTES;
+    private static final int CLOSE = LOW + Double.BYTES;
+    private static final int VOLUME = CLOSE + Double.BYTES;
+    
+    private final Path file;
+    private volatile MappedByteBuffer buffer;
+    private volatile int capacity;
+    private volatile int size;
+    // Bars counted in the header, all forced to disk
+    private int durable;
+    
+    /**
+     * Opens the symbol's file, creating it with room for initialCapacity bars if it does not exist.
+     * The mapping is all that is read, however many bars the file holds.
+     */
+    public MappedBarSeries(Path file, int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be positive");
+        }
+        this.file = file;
+        try {
+            boolean exists = Files.exists(file) && Files.size(file) > 0;
+            if (exists) {
+                long length = Files.size(file);
+                if (length < HEADER_BYTES) {
+                    throw new IllegalStateException("Bar file " + file + " is truncated");
+                }
+                map((int) Math.min((length - HEADER_BYTES) / RECORD_BYTES, maxCapacity()));
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                    throw new IllegalStateException(file + " is not a version " + VERSION + " bar file");
+                }
+                int count = buffer.getInt(COUNT_OFFSET);
+                if (count < 0 || count > capacity) {
+                    throw new IllegalStateException("Bar file " + file + " claims " + count + " bars but holds "
+                            + capacity);
+                }
+                this.size = count;
+                this.durable = count;
+            } else {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                map(initialCapacity);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(COUNT_OFFSET, 0);
+                buffer.force(0, HEADER_BYTES);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open bar file " + file, e);
+        }
+    }
+    
+    @Override
+    public synchronized void append(int epochDay, double open, double high, double low, double close, long volume) {
+        int n = size;
+        MappedByteBuffer b = buffer;
+        if (n > 0 && epochDay <= b.getInt(offset(n - 1))) {
+            throw new IllegalArgumentException("Bars must be appended in date order: day " + epochDay
+                    + " is not after " + b.getInt(offset(n - 1)));
+        }
+        if (n == capacity) {
+            if (capacity == maxCapacity()) {
+                throw new IllegalStateException("Bar file " + file + " is full at " + capacity + " bars");
+            }
+            try {
+                map((int) Math.min(2L * capacity, maxCapacity()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot grow bar file " + file, e);
+            }
+            b = buffer;
+        }
+        int at = offset(n);
+        b.putInt(at, epochDay);
+        b.putDouble(at + OPEN, open);
+        b.putDouble(at + HIGH, high);
+        b.putDouble(at + LOW, low);
+        b.putDouble(at + CLOSE, close);
+        b.putLong(at + VOLUME, volume);
+        size = n + 1;
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public int lastDay() {
+        int n = size;
+        return n > 0 ? buffer.getInt(offset(n - 1)) : Integer.MIN_VALUE;
+    }
+    
+    @Override
+    public double lastClose() {
+        int n = size;
+        return n > 0 ? buffer.getDouble(offset(n - 1) + CLOSE) : Double.NaN;
+    }
+    
+    @Override
+    public BarSlice slice(int fromDay, int toDay) {
+        int n = size;
+        MappedByteBuffer b = buffer;
+        int from = lowerBound(b, n, fromDay);
+        int to = Math.max(from, lowerBound(b, n, toDay));
+        return new RecordSlice(b, from, to - from);
+    }
+    
+    @Override
+    public BarSlice tail(int count) {
+        int n = size;
+        int length = Math.max(0, Math.min(count, n));
+        return new RecordSlice(buffer, n - length, length);
+    }
+    
+    // Bytes mapped, resident or not; the page cache holds only what is read
+    @Override
+    public long memoryBytes() {
+        return HEADER_BYTES + (long) capacity * RECORD_BYTES;
+    }
+    
+    // Forces the bars appended since the last flush to disk, then counts them in the header and forces
+    // that, so the header never counts a record that may not have been written back
+    @Override
+    public synchronized void flush() {
+        int n = size;
+        if (n == durable) {
+            return;
+        }
+        MappedByteBuffer b = buffer;
+        b.force(offset(durable), (n - durable) * RECORD_BYTES);
+        b.putInt(COUNT_OFFSET, n);
+        b.force(0, HEADER_BYTES);
+        durable = n;
+    }
+    
+    // Maps the header and newCapacity records, extending the file as needed. Bars written to an earlier
+    // mapping are in the file, so the new mapping sees them; slices keep their own mapping.
+    private void map(int newCapacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) newCapacity * RECORD_BYTES);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            buffer = mapped;
+            capacity = newCapacity;
+        }
+    }
+    
+    private static int maxCapacity() {
+        return (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES;
+    }
+    
+    private static int offset(int index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+    
+    // First index in [0, n) whose day is at least the given day, n if none
+    private static int lowerBound(MappedByteBuffer b, int n, int day) {
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (b.getInt(offset(mid)) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private static final class RecordSlice extends BarSlice {
+        
+        private final MappedByteBuffer buffer;
+        private final int offset;
+        private final int size;
+        
+        RecordSlice(MappedByteBuffer buffer, int offset, int size) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.size = size;
+        }
+        
+        @Override
+        public int size() { return size; }
+        
+        @Override
+        public int epochDay(int index) { return buffer.getInt(at(index)); }
+        
+        @Override
+        public double open(int index) { return buffer.getDouble(at(index) + OPEN); }
+        
+        @Override
+        public double high(int index) { return buffer.getDouble(at(index) + HIGH); }
+        
+        @Override
+        public double low(int index) { return buffer.getDouble(at(index) + LOW); }
+        
+        @Override
+        public double close(int index) { return buffer.getDouble(at(index) + CLOSE); }
+        
+        @Override
+        public long volume(int index) { return buffer.getLong(at(index) + VOLUME); }
+        
+        private int at(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Bar " + index + " of a slice of " + size);
+            }
+            return MappedBarSeries.offset(offset + index);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.quantcrux.marketdata.store;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Bars held column by column in direct (off-heap) buffers: epoch day as int, open, high, low and close
+ * as double, volume as long, 44 bytes per bar and no objects per bar, so ten years of daily bars for
+ * 5,000 symbols take about 550 MB outside the Java heap. Full columns are copied into buffers of twice
+ * the capacity. The bar count is published after the bar, and a grown copy before the count, so a
+ * reader that reads the count first only sees complete bars.
+ */
+public class OffHeapBarSeries implements BarSeries {
+    
+    static final int BYTES_PER_BAR = Integer.BYTES + 4 * Double.BYTES + Long.BYTES;
+    
+    private volatile Columns columns;
+    private volatile int size;
+    
+    public OffHeapBarSeries(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be positive");
+        }
+        this.columns = new Columns(initialCapacity);
+    }
+    
+    @Override
+    public synchronized void append(int epochDay, double open, double high, double low, double close, long volume) {
+        int n = size;
+        Columns c = columns;
+        if (n > 0 && epochDay <= c.days.get(n - 1)) {
+            throw new IllegalArgumentException("Bars must be appended in date order: day " + epochDay
+                    + " is not after " + c.days.get(n - 1));
+        }
+        if (n == c.capacity) {
+            c = c.grow(n);
+            columns = c;
+        }
+        c.days.put(n, epochDay);
+        c.open.put(n, open);
+        c.high.put(n, high);
+        c.low.put(n, low);
+        c.close.put(n, close);
+        c.volume.put(n, volume);
+        size = n + 1;
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public int lastDay() {
+        int n = size;
+        return n > 0 ? columns.days.get(n - 1) : Integer.MIN_VALUE;
+    }
+    
+    @Override
+    public double lastClose() {
+        int n = size;
+        return n > 0 ? columns.close.get(n - 1) : Double.NaN;
+    }
+    
+    @Override
+    public BarSlice slice(int fromDay, int toDay) {
+        int n = size;
+        Columns c = columns;
+        int from = lowerBound(c.days, n, fromDay);
+        int to = Math.max(from, lowerBound(c.days, n, toDay));
+        return new ColumnSlice(c, from, to - from);
+    }
+    
+    @Override
+    public BarSlice tail(int count) {
+        int n = size;
+        int length = Math.max(0, Math.min(count, n));
+        return new ColumnSlice(columns, n - length, length);
+    }
+    
+    @Override
+    public long memoryBytes() {
+        return (long) columns.capacity * BYTES_PER_BAR;
+    }
+    
+    // First index in [0, n) whose day is at least the given day, n if none
+    static int lowerBound(IntBuffer days, int n, int day) {
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days.get(mid) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private static final class Columns {
+        
+        final int capacity;
+        final IntBuffer days;
+        final DoubleBuffer open;
+        final DoubleBuffer high;
+        final DoubleBuffer low;
+        final DoubleBuffer close;
+        final LongBuffer volume;
+        
+        Columns(int capacity) {
+            this.capacity = capacity;
+            this.days = allocate(capacity, Integer.BYTES).asIntBuffer();
+            this.open = allocate(capacity, Double.BYTES).asDoubleBuffer();
+            this.high = allocate(capacity, Double.BYTES).asDoubleBuffer();
+            this.low = allocate(capacity, Double.BYTES).asDoubleBuffer();
+            this.close = allocate(capacity, Double.BYTES).asDoubleBuffer();
+            this.volume = allocate(capacity, Long.BYTES).asLongBuffer();
+        }
+        
+        // Copy of the first n bars with twice the capacity (absolute puts leave every position at 0)
+        Columns grow(int n) {
+            if (capacity > Integer.MAX_VALUE / 2 / Double.BYTES) {
+                throw new IllegalStateException("Bar series is full at " + capacity + " bars");
+            }
+            Columns grown = new Columns(capacity * 2);
+            grown.days.put(0, days, 0, n);
+            grown.open.put(0, open, 0, n);
+            grown.high.put(0, high, 0, n);
+            grown.low.put(0, low, 0, n);
+            grown.close.put(0, close, 0, n);
+            grown.volume.put(0, volume, 0, n);
+            return grown;
+        }
+        
+        private static ByteBuffer allocate(int capacity, int width) {
+            return ByteBuffer.allocateDirect(capacity * width).order(ByteOrder.nativeOrder());
+        }
+    }
+    
+    private static final class ColumnSlice extends BarSlice {
+        
+        private final Columns columns;
+        private final int offset;
+        private final int size;
+        
+        ColumnSlice(Columns columns, int offset, int size) {
+            this.columns = columns;
+            this.offset = offset;
+            this.size = size;
+        }
+        
+        @Override
+        public int size() { return size; }
+        
+        @Override
+        public int epochDay(int index) { return columns.days.get(offset + check(index)); }
+        
+        @Override
+        public double open(int index) { return columns.open.get(offset + check(index)); }
+        
+        @Override
+        public double high(int index) { return columns.high.get(offset + check(index)); }
+        
+        @Override
+        public double low(int index) { return columns.low.get(offset + check(index)); }
+        
+        @Override
+        public double close(int index) { return columns.close.get(offset + check(index)); }
+        
+        @Override
+        public long volume(int index) { return columns.volume.get(offset + check(index)); }
+        
+        private int check(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Bar " + index + " of a slice of " + size);
+            }
+            return index;
+        }
+    }
+}
\ No newline at end of file
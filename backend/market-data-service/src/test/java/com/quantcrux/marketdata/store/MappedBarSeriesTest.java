@@ -0,0 +1,112 @@
+package com.quantcrux.marketdata.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedBarSeriesTest {
+    
+    @TempDir
+    Path directory;
+    
+    // Bar i is on day 100 + 2i with every price and the volume derived from i
+    private static void append(MappedBarSeries series, int from, int to) {
+        for (int i = from; i < to; i++) {
+            series.append(100 + 2 * i, i + 0.1, i + 0.2, i + 0.3, i + 0.4, 1000L + i);
+        }
+    }
+    
+    private static void assertBars(BarSeries series, int numBars) {
+        assertEquals(numBars, series.size());
+        BarSlice all = series.tail(numBars);
+        for (int i = 0; i < numBars; i++) {
+            assertEquals(100 + 2 * i, all.epochDay(i));
+            assertEquals(i + 0.1, all.open(i));
+            assertEquals(i + 0.2, all.high(i));
+            assertEquals(i + 0.3, all.low(i));
+            assertEquals(i + 0.4, all.close(i));
+            assertEquals(1000L + i, all.volume(i));
+        }
+    }
+    
+    @Test
+    void keepsEveryBarAcrossRepeatedRemaps() throws IOException {
+        // Capacity 2 is remapped at 4, 8, 16 and 32
+        Path file = directory.resolve("SPY.bars");
+        MappedBarSeries series = new MappedBarSeries(file, 2);
+        append(series, 0, 20);
+        assertBars(series, 20);
+        assertEquals(MappedBarSeries.HEADER_BYTES + 32L * MappedBarSeries.RECORD_BYTES, series.memoryBytes());
+        assertEquals(series.memoryBytes(), Files.size(file));
+        
+        // Slices taken before a remap keep reading their own mapping
+        BarSlice before = series.tail(3);
+        append(series, 20, 40);
+        assertEquals(138, before.epochDay(2));
+        assertBars(series, 40);
+    }
+    
+    @Test
+    void reopensWithTheFlushedBars() {
+        Path file = directory.resolve("SPY.bars");
+        MappedBarSeries series = new MappedBarSeries(file, 2);
+        append(series, 0, 7);
+        series.flush();
+        
+        MappedBarSeries reopened = new MappedBarSeries(file, 2);
+        assertBars(reopened, 7);
+        append(reopened, 7, 9);
+        assertBars(reopened, 9);
+    }
+    
+    @Test
+    void reopensWithTheDurableCountOnly() {
+        Path file = directory.resolve("SPY.bars");
+        MappedBarSeries series = new MappedBarSeries(file, 2);
+        append(series, 0, 5);
+        series.flush();
+        // Appended but never flushed, as after a crash: the header still counts 5 bars
+        append(series, 5, 12);
+        assertEquals(12, series.size());
+        
+        MappedBarSeries reopened = new MappedBarSeries(file, 2);
+        assertBars(reopened, 5);
+        append(reopened, 5, 6);
+        assertBars(reopened, 6);
+    }
+    
+    @Test
+    void rejectsFilesThatAreNotBarFiles() throws IOException {
+        Path other = directory.resolve("other.bars");
+        Files.write(other, new byte[64]);
+        assertThrows(IllegalStateException.class, () -> new MappedBarSeries(other, 2));
+        
+        Path truncated = directory.resolve("truncated.bars");
+        Files.write(truncated, new byte[8]);
+        assertThrows(IllegalStateException.class, () -> new MappedBarSeries(truncated, 2));
+        
+        // A header counting more bars than the file holds
+        Path overcounted = directory.resolve("overcounted.bars");
+        ByteBuffer header = ByteBuffer.allocate(MappedBarSeries.HEADER_BYTES + MappedBarSeries.RECORD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MappedBarSeries.MAGIC).putInt(4, MappedBarSeries.VERSION).putInt(8, 2);
+        Files.write(overcounted, header.array());
+        assertThrows(IllegalStateException.class, () -> new MappedBarSeries(overcounted, 2));
+    }
+    
+    @Test
+    void rejectsBarsOutOfDateOrder() {
+        MappedBarSeries series = new MappedBarSeries(directory.resolve("SPY.bars"), 2);
+        append(series, 0, 3);
+        assertThrows(IllegalArgumentException.class, () -> series.append(104, 1, 1, 1, 1, 1));
+        assertEquals(3, series.size());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.quantcrux.marketdata.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OffHeapBarSeriesTest {
+    
+    // Bar i is on day 100 + 2i with every price and the volume derived from i
+    private static OffHeapBarSeries series(int initialCapacity, int numBars) {
+        OffHeapBarSeries series = new OffHeapBarSeries(initialCapacity);
+        for (int i = 0; i < numBars; i++) {
+            series.append(100 + 2 * i, i + 0.1, i + 0.2, i + 0.3, i + 0.4, 1000L + i);
+        }
+        return series;
+    }
+    
+    @Test
+    void keepsEveryBarAcrossRepeatedGrowth() {
+        // Capacity 2 grows to 4, 8 and 16
+        OffHeapBarSeries series = series(2, 10);
+        assertEquals(10, series.size());
+        assertEquals(16L * OffHeapBarSeries.BYTES_PER_BAR, series.memoryBytes());
+        BarSlice all = series.tail(10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(100 + 2 * i, all.epochDay(i));
+            assertEquals(i + 0.1, all.open(i));
+            assertEquals(i + 0.2, all.high(i));
+            assertEquals(i + 0.3, all.low(i));
+            assertEquals(i + 0.4, all.close(i));
+            assertEquals(1000L + i, all.volume(i));
+        }
+        assertEquals(118, series.lastDay());
+        assertEquals(9.4, series.lastClose());
+    }
+    
+    @Test
+    void slicesByDateRange() {
+        OffHeapBarSeries series = series(2, 10);
+        // Days 103 to 110 exclusive hold bars 2 (day 104), 3 and 4 (day 108)
+        BarSlice slice = series.slice(103, 110);
+        assertEquals(3, slice.size());
+        assertEquals(104, slice.epochDay(0));
+        assertEquals(108, slice.epochDay(2));
+        assertEquals(0, series.slice(200, 300).size());
+        assertEquals(0, series.slice(110, 103).size());
+        assertEquals(4, series.tail(4).size());
+        assertEquals(112, series.tail(4).epochDay(0));
+    }
+    
+    @Test
+    void rejectsBarsOutOfDateOrder() {
+        OffHeapBarSeries series = series(2, 3);
+        assertThrows(IllegalArgumentException.class, () -> series.append(104, 1, 1, 1, 1, 1));
+        assertEquals(3, series.size());
+    }
+}
@@ -0,0 +1,60 @@
+package com.quantcrux.pricing.benchmark;
+
+import com.quantcrux.pricing.dto.PricingRequest;
+import com.quantcrux.pricing.service.PricingResult;
+import com.quantcrux.pricing.service.PricingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /calculate without HTTP or the result cache: one price with Greeks per product type. Closed-form
+ * products cost a handful of kernel calls; the autocallable falls through to Monte Carlo at the
+ * default path count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculatePriceBenchmark {
+    
+    @Param({"vanilla_option", "digital_option", "barrier_option", "down_and_out_call", "autocallable"})
+    public String instrument;
+    
+    private AnnotationConfigApplicationContext context;
+    private PricingService pricingService;
+    private PricingRequest request;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = PricingBenchmarkConfig.open(Map.of());
+        pricingService = context.getBean(PricingService.class);
+        request = PricingBenchmarkConfig.request(instrument, 10000);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public PricingResult calculatePrice() {
+        return pricingService.calculatePrice(request);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.quantcrux.pricing.benchmark;
+
+import com.quantcrux.pricing.dto.PricingRequest;
+import com.quantcrux.pricing.service.PricingResult;
+import com.quantcrux.pricing.service.PricingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quote throughput as concurrent /calculate callers are added, all sharing one PricingService like
+ * request threads do. Total ops/s should scale with the thread count up to the core count; a flat
+ * line means callers contend on shared state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentQuoteBenchmark {
+    
+    private AnnotationConfigApplicationContext context;
+    private PricingService pricingService;
+    private PricingRequest request;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = PricingBenchmarkConfig.open(Map.of());
+        pricingService = context.getBean(PricingService.class);
+        request = PricingBenchmarkConfig.request("down_and_out_call", 10000);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public PricingResult threads1() {
+        return pricingService.calculatePrice(request);
+    }
+    
+    @Benchmark
+    @Threads(2)
+    public PricingResult threads2() {
+        return pricingService.calculatePrice(request);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public PricingResult threads4() {
+        return pricingService.calculatePrice(request);
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public PricingResult threadsMax() {
+        return pricingService.calculatePrice(request);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.quantcrux.pricing.benchmark;
+
+import com.quantcrux.pricing.engine.AnalyticPricer;
+import com.quantcrux.pricing.engine.AnalyticResult;
+import com.quantcrux.pricing.engine.BarrierType;
+import com.quantcrux.pricing.engine.BlackScholes;
+import com.quantcrux.pricing.engine.PricingKernel;
+import com.quantcrux.pricing.engine.PricingParameters;
+import com.quantcrux.pricing.engine.ProductType;
+import com.quantcrux.pricing.engine.RiskEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Greeks of the closed-form pricers: analytic vanilla and digital Greeks against bump-and-revalue
+ * on the Reiner-Rubinstein barrier, with a single barrier price as the per-evaluation baseline.
+ * Spot moves every call so nothing is constant-folded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GreeksBenchmark {
+    
+    private RiskEngine riskEngine;
+    private PricingParameters barrier;
+    private PricingKernel barrierKernel;
+    private double spot;
+    
+    @Setup
+    public void setUp() {
+        riskEngine = new RiskEngine(1e-4, 1e-4, 1e-4);
+        barrier = new PricingParameters(ProductType.BARRIER_OPTION, 100.0, 100.0, 90.0, 0.1, 0.2, 0.05, 1.0, true,
+                BarrierType.DOWN_AND_OUT, 2.0);
+        barrierKernel = AnalyticPricer.kernel(barrier);
+        spot = 100.0;
+    }
+    
+    private double nextSpot() {
+        spot = spot < 110.0 ? spot + 0.01 : 100.0;
+        return spot;
+    }
+    
+    @Benchmark
+    public AnalyticResult vanillaAnalytic() {
+        return BlackScholes.vanilla(true, nextSpot(), 100.0, 0.05, 0.2, 1.0);
+    }
+    
+    @Benchmark
+    public AnalyticResult digitalAnalytic() {
+        return BlackScholes.cashOrNothing(true, 100.0, nextSpot(), 100.0, 0.05, 0.2, 1.0);
+    }
+    
+    @Benchmark
+    public double barrierPrice() {
+        return barrierKernel.price(nextSpot(), 0.2, 1.0);
+    }
+    
+    @Benchmark
+    public AnalyticResult barrierBumped() {
+        return riskEngine.evaluate(barrierKernel, nextSpot(), 0.2, 1.0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.quantcrux.pricing.benchmark;
+
+import com.quantcrux.pricing.dto.PricingRequest;
+import com.quantcrux.pricing.service.PricingResult;
+import com.quantcrux.pricing.service.PricingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One large Monte Carlo price as pricing.monte-carlo.parallelism grows (0 = every core). Latency
+ * should fall roughly as 1/threads until the cores run out; results are identical at every setting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonteCarloParallelismBenchmark {
+    
+    @Param({"1", "2", "4", "0"})
+    public int parallelism;
+    
+    private AnnotationConfigApplicationContext context;
+    private PricingService pricingService;
+    private PricingRequest request;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = PricingBenchmarkConfig.open(Map.of("pricing.monte-carlo.parallelism", parallelism));
+        pricingService = context.getBean(PricingService.class);
+        request = PricingBenchmarkConfig.request("barrier_option", 500000);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public PricingResult monteCarloPrice() {
+        return pricingService.monteCarloPrice(request);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.quantcrux.pricing.benchmark;
+
+import com.quantcrux.pricing.dto.PricingRequest;
+import com.quantcrux.pricing.service.PricingResult;
+import com.quantcrux.pricing.service.PricingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /monte-carlo at several path counts. Each call simulates the base and bumped scenarios, so the
+ * timings include the Monte Carlo Greeks. Time per call should grow linearly with the path count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonteCarloPriceBenchmark {
+    
+    @Param({"vanilla_option", "barrier_option", "autocallable"})
+    public String instrument;
+    
+    @Param({"10000", "100000", "1000000"})
+    public int numSimulations;
+    
+    private AnnotationConfigApplicationContext context;
+    private PricingService pricingService;
+    private PricingRequest request;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = PricingBenchmarkConfig.open(Map.of());
+        pricingService = context.getBean(PricingService.class);
+        request = PricingBenchmarkConfig.request(instrument, numSimulations);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public PricingResult monteCarloPrice() {
+        return pricingService.monteCarloPrice(request);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.quantcrux.pricing.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantcrux.pricing.config.PricingEngineConfig;
+import com.quantcrux.pricing.dto.PricingRequest;
+import com.quantcrux.pricing.service.PricingService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The production pricing beans without the web, JPA and discovery layers, plus the benchmark
+ * instruments. Everything runs in-process, so the suite needs no database, registry or network.
+ */
+@Configuration
+@Import({PricingEngineConfig.class, PricingService.class})
+public class PricingBenchmarkConfig {
+    
+    @Bean
+    public ObjectMapper objectMapper() {
+        return new ObjectMapper();
+    }
+    
+    // Context with pricing.* overrides applied on top of the defaults in PricingEngineConfig
+    public static AnnotationConfigApplicationContext open(Map<String, Object> properties) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.register(PricingBenchmarkConfig.class);
+        context.refresh();
+        return context;
+    }
+    
+    // At-the-money, one year, 20% vol, 5% rate; fixed seed so every iteration prices the same paths
+    public static PricingRequest request(String instrument, int numSimulations) {
+        PricingRequest request = new PricingRequest();
+        request.setSpotPrice(100.0);
+        request.setStrike(100.0);
+        request.setVolatility(0.2);
+        request.setRiskFreeRate(0.05);
+        request.setTimeToMaturity(1.0);
+        request.setNumSimulations(numSimulations);
+        request.setSeed(42L);
+        switch (instrument) {
+            case "vanilla_option":
+                request.setProductType("vanilla_option");
+                break;
+            case "digital_option":
+                request.setProductType("digital_option");
+                break;
+            case "barrier_option":
+                // Knock-out digital, the barrier flavour Monte Carlo also prices
+                request.setProductType("barrier_option");
+                request.setBarrier(80.0);
+                request.setCoupon(0.1);
+                break;
+            case "down_and_out_call":
+                request.setProductType("barrier_option");
+                request.setBarrierType("down_and_out");
+                request.setOptionType("call");
+                request.setBarrier(90.0);
+                request.setRebate(2.0);
+                break;
+            case "autocallable":
+                request.setProductType("autocallable");
+                request.setBarrier(70.0);
+                request.setCoupon(0.08);
+                request.setObservationTimes(List.of(0.25, 0.5, 0.75, 1.0));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown benchmark instrument: " + instrument);
+        }
+        return request;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.quantcrux.pricing.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantcrux.pricing.engine.GbmKernel;
+import com.quantcrux.pricing.engine.LongstaffSchwartz;
+import com.quantcrux.pricing.engine.MonteCarloEngine;
+import com.quantcrux.pricing.engine.PdeEngine;
+import com.quantcrux.pricing.engine.RiskEngine;
+import com.quantcrux.pricing.service.PricingCache;
+import com.quantcrux.pricing.service.PricingJobService;
+import com.quantcrux.pricing.service.PricingService;
+import com.quantcrux.pricing.service.VolSurfaceService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class PricingEngineConfig {
+    
+    @Bean(destroyMethod = "close")
+    public MonteCarloEngine monteCarloEngine(@Value("${pricing.monte-carlo.parallelism:0}") int parallelism) {
+        // 0 uses every available core
+        return new MonteCarloEngine(parallelism);
+    }
+    
+    @Bean
+    public GbmKernel gbmKernel(@Value("${pricing.monte-carlo.vector-kernel:false}") boolean vectorKernel) {
+        // Falls back to the scalar kernel unless the JVM runs with --add-modules jdk.incubator.vector
+        return GbmKernel.create(vectorKernel);
+    }
+    
+    @Bean
+    public RiskEngine riskEngine(@Value("${pricing.risk.spot-bump:0.0001}") double relativeSpotBump,
+                                 @Value("${pricing.risk.vol-bump:0.0001}") double volBump,
+                                 @Value("${pricing.risk.time-bump:0.0001}") double timeBump) {
+        // Bump sizes for closed-form pricers; the spot bump is relative to spot
+        return new RiskEngine(relativeSpotBump, volBump, timeBump);
+    }
+    
+    @Bean
+    public PdeEngine pdeEngine(@Value("${pricing.pde.space-steps:400}") int spaceSteps,
+                               @Value("${pricing.pde.time-steps:200}") int timeSteps) {
+        return new PdeEngine(spaceSteps, timeSteps);
+    }
+    
+    @Bean
+    public LongstaffSchwartz longstaffSchwartz(MonteCarloEngine monteCarloEngine,
+                                               @Value("${pricing.lsm.max-stored-values:25000000}") long maxStoredValues,
+                                               @Value("${pricing.lsm.basis-degree:3}") int basisDegree) {
+        return new LongstaffSchwartz(monteCarloEngine, maxStoredValues, basisDegree);
+    }
+    
+    @Bean
+    public VolSurfaceService volSurfaceService() {
+        return new VolSurfaceService();
+    }
+    
+    @Bean
+    public PricingCache pricingCache(ObjectMapper objectMapper,
+                                     @Value("${pricing.cache.max-size:10000}") long maxSize,
+                                     @Value("${pricing.cache.ttl-seconds:60}") long ttlSeconds,
+                                     @Value("${pricing.cache.spot-tick:0.01}") double spotTick,
+                                     @Value("${pricing.cache.vol-tick:0.0001}") double volTick) {
+        // max-size 0 disables caching
+        return new PricingCache(objectMapper, maxSize, Duration.ofSeconds(ttlSeconds), spotTick, volTick);
+    }
+    
+    @Bean(destroyMethod = "close")
+    public PricingJobService pricingJobService(PricingService pricingService,
+                                               @Value("${pricing.jobs.workers:2}") int workers,
+                                               @Value("${pricing.jobs.queue-size:32}") int queueSize,
+                                               @Value("${pricing.jobs.event-threads:2}") int eventThreads,
+                                               @Value("${pricing.jobs.retention-seconds:600}") long retentionSeconds) {
+        // Jobs beyond workers + queue-size are rejected; the paths run on the Monte Carlo pool and
+        // progress events are pushed to clients on the event threads
+        return new PricingJobService(pricingService, workers, queueSize, eventThreads,
+                Duration.ofSeconds(retentionSeconds));
+    }
+}
\ No newline at end of file
@@ -1,24 +1,68 @@
 package com.quantcrux.pricing.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantcrux.pricing.dto.PricingJobStatus;
 import com.quantcrux.pricing.dto.PricingRequest;
 import com.quantcrux.pricing.dto.PricingResponse;
+import com.quantcrux.pricing.dto.ScenarioGridRequest;
+import com.quantcrux.pricing.dto.ScenarioGridResponse;
+import com.quantcrux.pricing.dto.VolSurfaceRequest;
+import com.quantcrux.pricing.engine.VolSurface;
+import com.quantcrux.pricing.service.PricingCache;
+import com.quantcrux.pricing.service.PricingJob;
+import com.quantcrux.pricing.service.PricingJobService;
+import com.quantcrux.pricing.service.PricingResult;
 import com.quantcrux.pricing.service.PricingService;
+import com.quantcrux.pricing.service.ScenarioGridResult;
+import com.quantcrux.pricing.service.VolSurfaceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/pricing")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
 public class PricingController {
     
+    private static final long JOB_EVENTS_TIMEOUT_MILLIS = 10 * 60 * 1000L;
+    
     @Autowired
     private PricingService pricingService;
     
+    @Autowired
+    private PricingJobService pricingJobService;
+    
+    @Autowired
+    private PricingCache pricingCache;
+    
+    @Autowired
+    private VolSurfaceService volSurfaceService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     @PostMapping("/calculate")
     public ResponseEntity<PricingResponse> calculatePrice(@RequestBody PricingRequest request) {
         try {
-            PricingResponse response = pricingService.calculatePrice(request);
+            PricingResponse response = toResponse(pricingCache.get("calculate", withSurfaceVolatility(request), pricingService::calculatePrice));
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             System.err.println("Pricing calculation failed: " + e.getMessage());
@@ -29,7 +73,7 @@ public class PricingController {
     @PostMapping("/monte-carlo")
     public ResponseEntity<PricingResponse> monteCarloPrice(@RequestBody PricingRequest request) {
         try {
-            PricingResponse response = pricingService.monteCarloPrice(request);
+            PricingResponse response = toResponse(pricingCache.get("monte-carlo", withSurfaceVolatility(request), pricingService::monteCarloPrice));
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             System.err.println("Monte Carlo pricing failed: " + e.getMessage());
@@ -37,6 +81,283 @@ public class PricingController {
         }
     }
     
+    // Monte Carlo prices for a list of requests, streamed back in request order as one JSON object per line;
+    // a request that cannot be priced gets a line with only its error, and the rest of the batch still runs
+    @PostMapping(value = "/batch", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> batchPrice(@RequestBody List<PricingRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            try {
+                pricingService.monteCarloBatch(requests, (result, error) ->
+                        writeLine(outputStream, result != null ? toResponse(result) : errorResponse(error)));
+            } catch (RuntimeException e) {
+                System.err.println("Batch pricing failed: " + e.getMessage());
+                throw e;
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+    
+    // Queues a Monte Carlo price and returns its job id at once; 503 when the job queue is full
+    @PostMapping("/jobs")
+    public ResponseEntity<PricingJobStatus> submitJob(@RequestBody PricingRequest request) {
+        try {
+            PricingJob job = pricingJobService.submit(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(toJobStatus(job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<PricingJobStatus> getJob(@PathVariable String jobId) {
+        PricingJob job = pricingJobService.get(jobId);
+        return job != null ? ResponseEntity.ok(toJobStatus(job)) : ResponseEntity.notFound().build();
+    }
+    
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<PricingJobStatus> cancelJob(@PathVariable String jobId) {
+        PricingJob job = pricingJobService.cancel(jobId);
+        return job != null ? ResponseEntity.ok(toJobStatus(job)) : ResponseEntity.notFound().build();
+    }
+    
+    // Server-Sent Events: "progress" with the running estimate after every batch of paths (the latest one
+    // only when the client falls behind), then one "completed", "failed" or "cancelled" event with the
+    // final state, after which the stream closes. Events are sent from the job event threads.
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> jobEvents(@PathVariable String jobId) {
+        PricingJob job = pricingJobService.get(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = new SseEmitter(JOB_EVENTS_TIMEOUT_MILLIS);
+        Consumer<PricingJob> listener = new Consumer<>() {
+            @Override
+            public void accept(PricingJob changed) {
+                PricingJobStatus status = toJobStatus(changed);
+                boolean done = changed.getStatus().isDone();
+                try {
+                    emitter.send(SseEmitter.event().name(done ? status.getStatus() : "progress").data(status));
+                    if (done) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client gone or stream already closed
+                    changed.unsubscribe(this);
+                }
+            }
+        };
+        emitter.onCompletion(() -> job.unsubscribe(listener));
+        emitter.onTimeout(() -> job.unsubscribe(listener));
+        emitter.onError(e -> job.unsubscribe(listener));
+        job.subscribe(listener);
+        return ResponseEntity.ok(emitter);
+    }
+    
+    private PricingJobStatus toJobStatus(PricingJob job) {
+        PricingJobStatus status = new PricingJobStatus();
+        status.setJobId(job.getId());
+        synchronized (job) {
+            status.setStatus(job.getStatus().name().toLowerCase());
+            if (!Double.isNaN(job.getPrice())) {
+                status.setPrice(BigDecimal.valueOf(job.getPrice()).setScale(4, RoundingMode.HALF_UP));
+            }
+            if (!Double.isNaN(job.getConfidenceInterval())) {
+                status.setConfidenceInterval(BigDecimal.valueOf(job.getConfidenceInterval()).setScale(4, RoundingMode.HALF_UP));
+            }
+            if (job.getNumSimulations() > 0) {
+                status.setNumSimulations(job.getNumSimulations());
+            }
+            if (job.getResult() != null) {
+                status.setResult(toResponse(job.getResult()));
+            }
+            status.setError(job.getError());
+        }
+        return status;
+    }
+    
+    private void writeLine(OutputStream outputStream, PricingResponse response) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(response));
+            outputStream.write('\n');
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static PricingResponse errorResponse(String error) {
+        PricingResponse response = new PricingResponse();
+        response.setError(error);
+        return response;
+    }
+    
+    // The only place results are rounded and converted to BigDecimal
+    private PricingResponse toResponse(PricingResult result) {
+        PricingResponse response = new PricingResponse();
+        response.setPrice(BigDecimal.valueOf(result.getPrice()).setScale(4, RoundingMode.HALF_UP));
+        response.setPricingMethod(result.getPricingMethod());
+        response.setEvaluations(result.getEvaluations());
+        
+        Map<String, BigDecimal> greeks = new HashMap<>();
+        greeks.put("delta", BigDecimal.valueOf(result.getDelta()).setScale(6, RoundingMode.HALF_UP));
+        greeks.put("gamma", BigDecimal.valueOf(result.getGamma()).setScale(6, RoundingMode.HALF_UP));
+        greeks.put("vega", BigDecimal.valueOf(result.getVega()).setScale(6, RoundingMode.HALF_UP));
+        greeks.put("theta", BigDecimal.valueOf(result.getTheta()).setScale(6, RoundingMode.HALF_UP));
+        if (!Double.isNaN(result.getRho())) {
+            greeks.put("rho", BigDecimal.valueOf(result.getRho()).setScale(6, RoundingMode.HALF_UP));
+        }
+        // Per-underlying sensitivities of multi-asset products, numbered from 1 in request order
+        if (result.getAssetDeltas() != null) {
+            for (int a = 0; a < result.getAssetDeltas().length; a++) {
+                greeks.put("delta_" + (a + 1), BigDecimal.valueOf(result.getAssetDeltas()[a]).setScale(6, RoundingMode.HALF_UP));
+                greeks.put("vega_" + (a + 1), BigDecimal.valueOf(result.getAssetVegas()[a]).setScale(6, RoundingMode.HALF_UP));
+            }
+        }
+        response.setGreeks(greeks);
+        
+        if (!Double.isNaN(result.getConfidenceInterval())) {
+            response.setConfidenceInterval(BigDecimal.valueOf(result.getConfidenceInterval()).setScale(4, RoundingMode.HALF_UP));
+        }
+        if (result.getNumSimulations() > 0) {
+            response.setNumSimulations((int) result.getNumSimulations());
+        }
+        response.setVarianceReduction(result.getVarianceReduction());
+        if (!Double.isNaN(result.getVarianceReductionFactor())) {
+            response.setVarianceReductionFactor(BigDecimal.valueOf(result.getVarianceReductionFactor()).setScale(4, RoundingMode.HALF_UP));
+        }
+        response.setConverged(result.getConverged());
+        return response;
+    }
+    
+    // Price matrix of one product over spot x volatility shifts; without shifts the ladders are spot -20%..+20%
+    // in 2% steps and volatility -5..+5 points in 1-point steps
+    @PostMapping("/scenario-grid")
+    public ResponseEntity<ScenarioGridResponse> scenarioGrid(@RequestBody ScenarioGridRequest request) {
+        try {
+            double[] spotShifts = request.getSpotShifts() != null ? toArray(request.getSpotShifts()) : ladder(-0.20, 0.02, 21);
+            double[] volShifts = request.getVolShifts() != null ? toArray(request.getVolShifts()) : ladder(-0.05, 0.01, 11);
+            ScenarioGridResult result = pricingService.scenarioGrid(withSurfaceVolatility(request.getProduct()), spotShifts, volShifts);
+            
+            ScenarioGridResponse response = new ScenarioGridResponse();
+            response.setSpotShifts(request.getSpotShifts() != null ? request.getSpotShifts() : toList(spotShifts));
+            response.setVolShifts(request.getVolShifts() != null ? request.getVolShifts() : toList(volShifts));
+            response.setPrices(toMatrix(result.getPrices()));
+            if (result.getConfidenceIntervals() != null) {
+                response.setConfidenceIntervals(toMatrix(result.getConfidenceIntervals()));
+            }
+            response.setPricingMethod(result.getPricingMethod());
+            if (result.getNumSimulations() > 0) {
+                response.setNumSimulations(result.getNumSimulations());
+            }
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            System.err.println("Scenario grid pricing failed: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    private static double[] ladder(double first, double step, int size) {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.round((first + i * step) * 1e10) / 1e10;
+        }
+        return values;
+    }
+    
+    private static double[] toArray(List<Double> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+    
+    private static List<Double> toList(double[] values) {
+        List<Double> list = new ArrayList<>(values.length);
+        for (double value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+    
+    private static List<List<BigDecimal>> toMatrix(double[][] values) {
+        List<List<BigDecimal>> rows = new ArrayList<>(values.length);
+        for (double[] row : values) {
+            List<BigDecimal> cells = new ArrayList<>(row.length);
+            for (double value : row) {
+                cells.add(BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP));
+            }
+            rows.add(cells);
+        }
+        return rows;
+    }
+    
+    // Replaces the underlying's volatility surface; prices already running keep the surface they started with
+    @PutMapping("/vol-surfaces/{underlying}")
+    public ResponseEntity<Map<String, Object>> updateVolSurface(@PathVariable String underlying,
+                                                                @RequestBody VolSurfaceRequest quotes) {
+        try {
+            VolSurface surface = volSurfaceService.update(underlying, quotes);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("underlying", underlying);
+            summary.put("model", surface.isSvi() ? "svi" : "grid");
+            summary.put("maturities", surface.getNumMaturities());
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            System.err.println("Volatility surface update failed: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/vol-surfaces")
+    public ResponseEntity<Set<String>> volSurfaces() {
+        return ResponseEntity.ok(volSurfaceService.getUnderlyings());
+    }
+    
+    @GetMapping("/vol-surfaces/{underlying}/volatility")
+    public ResponseEntity<Map<String, Object>> surfaceVolatility(@PathVariable String underlying,
+                                                                 @RequestParam double strike,
+                                                                 @RequestParam double maturity) {
+        VolSurface surface = volSurfaceService.get(underlying);
+        if (surface == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("underlying", underlying);
+            result.put("strike", strike);
+            result.put("maturity", maturity);
+            result.put("volatility", BigDecimal.valueOf(surface.volatility(strike, maturity)).setScale(6, RoundingMode.HALF_UP));
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @DeleteMapping("/vol-surfaces/{underlying}")
+    public ResponseEntity<Void> deleteVolSurface(@PathVariable String underlying) {
+        return volSurfaceService.remove(underlying) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+    
+    // Requests quoted on an underlying without a volatility are cached at the surface volatility they
+    // price at, so a surface update reaches the next quote instead of waiting out the cache
+    private PricingRequest withSurfaceVolatility(PricingRequest request) {
+        if (request.getVolatility() != null || request.getUnderlying() == null) {
+            return request;
+        }
+        PricingRequest resolved = objectMapper.convertValue(request, PricingRequest.class);
+        resolved.setVolatility(pricingService.volatility(request));
+        return resolved;
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(pricingCache.getStats());
+    }
+    
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Pricing engine is running");
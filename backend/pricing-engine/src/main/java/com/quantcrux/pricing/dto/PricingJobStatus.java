@@ -0,0 +1,38 @@
+package com.quantcrux.pricing.dto;
+
+import java.math.BigDecimal;
+
+public class PricingJobStatus {
+    private String jobId;
+    private String status;
+    private BigDecimal price;
+    private BigDecimal confidenceInterval;
+    private Long numSimulations;
+    private PricingResponse result;
+    private String error;
+    
+    // Constructors
+    public PricingJobStatus() {}
+    
+    // Getters and Setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+    
+    public BigDecimal getConfidenceInterval() { return confidenceInterval; }
+    public void setConfidenceInterval(BigDecimal confidenceInterval) { this.confidenceInterval = confidenceInterval; }
+    
+    public Long getNumSimulations() { return numSimulations; }
+    public void setNumSimulations(Long numSimulations) { this.numSimulations = numSimulations; }
+    
+    public PricingResponse getResult() { return result; }
+    public void setResult(PricingResponse result) { this.result = result; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.quantcrux.pricing.dto;
 
+import java.util.List;
+
 public class PricingRequest {
     private String productType;
     private Double spotPrice;
@@ -10,6 +12,44 @@ public class PricingRequest {
     private Double riskFreeRate;
     private Double timeToMaturity;
     private Integer numSimulations;
+    private Long seed;
+    private String varianceReduction;
+    private String sequenceType;
+    private Integer numRandomizations;
+    private Double targetAbsoluteError;
+    private Double targetRelativeError;
+    private Integer maxSimulations;
+    private Long maxTimeMillis;
+    private List<Double> monitoringTimes;
+    private Integer numTimeSteps;
+    private String barrierMonitoring;
+    private List<Double> observationTimes;
+    private Double autocallTrigger;
+    private List<Double> autocallTriggers;
+    private Double couponBarrier;
+    private Double knockInBarrier;
+    private Boolean memoryCoupon;
+    private String optionType;
+    private String barrierType;
+    private Double rebate;
+    private List<Double> spotPrices;
+    private List<Double> volatilities;
+    private List<Double> dividendYields;
+    private List<List<Double>> correlationMatrix;
+    private List<Double> initialLevels;
+    private String basketType;
+    private List<Double> basketWeights;
+    private String pricingMethod;
+    private String sensitivityMethod;
+    private String underlying;
+    private String model;
+    private Double initialVariance;
+    private Double longRunVariance;
+    private Double meanReversion;
+    private Double volOfVol;
+    private Double spotVolCorrelation;
+    private String exerciseStyle;
+    private Integer regressionPaths;
     
     // Constructors
     public PricingRequest() {}
@@ -41,4 +81,118 @@ public class PricingRequest {
     
     public Integer getNumSimulations() { return numSimulations; }
     public void setNumSimulations(Integer numSimulations) { this.numSimulations = numSimulations; }
+    
+    public Long getSeed() { return seed; }
+    public void setSeed(Long seed) { this.seed = seed; }
+    
+    public String getVarianceReduction() { return varianceReduction; }
+    public void setVarianceReduction(String varianceReduction) { this.varianceReduction = varianceReduction; }
+    
+    public String getSequenceType() { return sequenceType; }
+    public void setSequenceType(String sequenceType) { this.sequenceType = sequenceType; }
+    
+    public Integer getNumRandomizations() { return numRandomizations; }
+    public void setNumRandomizations(Integer numRandomizations) { this.numRandomizations = numRandomizations; }
+    
+    public Double getTargetAbsoluteError() { return targetAbsoluteError; }
+    public void setTargetAbsoluteError(Double targetAbsoluteError) { this.targetAbsoluteError = targetAbsoluteError; }
+    
+    public Double getTargetRelativeError() { return targetRelativeError; }
+    public void setTargetRelativeError(Double targetRelativeError) { this.targetRelativeError = targetRelativeError; }
+    
+    public Integer getMaxSimulations() { return maxSimulations; }
+    public void setMaxSimulations(Integer maxSimulations) { this.maxSimulations = maxSimulations; }
+    
+    public Long getMaxTimeMillis() { return maxTimeMillis; }
+    public void setMaxTimeMillis(Long maxTimeMillis) { this.maxTimeMillis = maxTimeMillis; }
+    
+    public List<Double> getMonitoringTimes() { return monitoringTimes; }
+    public void setMonitoringTimes(List<Double> monitoringTimes) { this.monitoringTimes = monitoringTimes; }
+    
+    public Integer getNumTimeSteps() { return numTimeSteps; }
+    public void setNumTimeSteps(Integer numTimeSteps) { this.numTimeSteps = numTimeSteps; }
+    
+    public String getBarrierMonitoring() { return barrierMonitoring; }
+    public void setBarrierMonitoring(String barrierMonitoring) { this.barrierMonitoring = barrierMonitoring; }
+    
+    public List<Double> getObservationTimes() { return observationTimes; }
+    public void setObservationTimes(List<Double> observationTimes) { this.observationTimes = observationTimes; }
+    
+    public Double getAutocallTrigger() { return autocallTrigger; }
+    public void setAutocallTrigger(Double autocallTrigger) { this.autocallTrigger = autocallTrigger; }
+    
+    public List<Double> getAutocallTriggers() { return autocallTriggers; }
+    public void setAutocallTriggers(List<Double> autocallTriggers) { this.autocallTriggers = autocallTriggers; }
+    
+    public Double getCouponBarrier() { return couponBarrier; }
+    public void setCouponBarrier(Double couponBarrier) { this.couponBarrier = couponBarrier; }
+    
+    public Double getKnockInBarrier() { return knockInBarrier; }
+    public void setKnockInBarrier(Double knockInBarrier) { this.knockInBarrier = knockInBarrier; }
+    
+    public Boolean getMemoryCoupon() { return memoryCoupon; }
+    public void setMemoryCoupon(Boolean memoryCoupon) { this.memoryCoupon = memoryCoupon; }
+    
+    public String getOptionType() { return optionType; }
+    public void setOptionType(String optionType) { this.optionType = optionType; }
+    
+    public String getBarrierType() { return barrierType; }
+    public void setBarrierType(String barrierType) { this.barrierType = barrierType; }
+    
+    public Double getRebate() { return rebate; }
+    public void setRebate(Double rebate) { this.rebate = rebate; }
+    
+    public List<Double> getSpotPrices() { return spotPrices; }
+    public void setSpotPrices(List<Double> spotPrices) { this.spotPrices = spotPrices; }
+    
+    public List<Double> getVolatilities() { return volatilities; }
+    public void setVolatilities(List<Double> volatilities) { this.volatilities = volatilities; }
+    
+    public List<Double> getDividendYields() { return dividendYields; }
+    public void setDividendYields(List<Double> dividendYields) { this.dividendYields = dividendYields; }
+    
+    public List<List<Double>> getCorrelationMatrix() { return correlationMatrix; }
+    public void setCorrelationMatrix(List<List<Double>> correlationMatrix) { this.correlationMatrix = correlationMatrix; }
+    
+    public List<Double> getInitialLevels() { return initialLevels; }
+    public void setInitialLevels(List<Double> initialLevels) { this.initialLevels = initialLevels; }
+    
+    public String getBasketType() { return basketType; }
+    public void setBasketType(String basketType) { this.basketType = basketType; }
+    
+    public List<Double> getBasketWeights() { return basketWeights; }
+    public void setBasketWeights(List<Double> basketWeights) { this.basketWeights = basketWeights; }
+    
+    public String getPricingMethod() { return pricingMethod; }
+    public void setPricingMethod(String pricingMethod) { this.pricingMethod = pricingMethod; }
+    
+    public String getSensitivityMethod() { return sensitivityMethod; }
+    public void setSensitivityMethod(String sensitivityMethod) { this.sensitivityMethod = sensitivityMethod; }
+    
+    public String getUnderlying() { return underlying; }
+    public void setUnderlying(String underlying) { this.underlying = underlying; }
+    
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+    
+    public Double getInitialVariance() { return initialVariance; }
+    public void setInitialVariance(Double initialVariance) { this.initialVariance = initialVariance; }
+    
+    public Double getLongRunVariance() { return longRunVariance; }
+    public void setLongRunVariance(Double longRunVariance) { this.longRunVariance = longRunVariance; }
+    
+    public Double getMeanReversion() { return meanReversion; }
+    public void setMeanReversion(Double meanReversion) { this.meanReversion = meanReversion; }
+    
+    public Double getVolOfVol() { return volOfVol; }
+    public void setVolOfVol(Double volOfVol) { this.volOfVol = volOfVol; }
+    
+    public Double getSpotVolCorrelation() { return spotVolCorrelation; }
+    public void setSpotVolCorrelation(Double spotVolCorrelation) { this.spotVolCorrelation = spotVolCorrelation; }
+    
+    public String getExerciseStyle() { return exerciseStyle; }
+    public void setExerciseStyle(String exerciseStyle) { this.exerciseStyle = exerciseStyle; }
+    
+    public Integer getRegressionPaths() { return regressionPaths; }
+    public void setRegressionPaths(Integer regressionPaths) { this.regressionPaths = regressionPaths; }
 }
\ No newline at end of file
@@ -9,6 +9,11 @@ public class PricingResponse {
     private BigDecimal confidenceInterval;
     private Integer numSimulations;
     private String pricingMethod;
+    private String varianceReduction;
+    private BigDecimal varianceReductionFactor;
+    private Boolean converged;
+    private Integer evaluations;
+    private String error;
     
     // Constructors
     public PricingResponse() {}
@@ -28,4 +33,19 @@ public class PricingResponse {
     
     public String getPricingMethod() { return pricingMethod; }
     public void setPricingMethod(String pricingMethod) { this.pricingMethod = pricingMethod; }
+    
+    public String getVarianceReduction() { return varianceReduction; }
+    public void setVarianceReduction(String varianceReduction) { this.varianceReduction = varianceReduction; }
+    
+    public BigDecimal getVarianceReductionFactor() { return varianceReductionFactor; }
+    public void setVarianceReductionFactor(BigDecimal varianceReductionFactor) { this.varianceReductionFactor = varianceReductionFactor; }
+    
+    public Boolean getConverged() { return converged; }
+    public void setConverged(Boolean converged) { this.converged = converged; }
+    
+    public Integer getEvaluations() { return evaluations; }
+    public void setEvaluations(Integer evaluations) { this.evaluations = evaluations; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
 }
\ No newline at end of file
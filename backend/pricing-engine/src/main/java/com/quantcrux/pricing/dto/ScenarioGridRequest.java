@@ -0,0 +1,22 @@
+package com.quantcrux.pricing.dto;
+
+import java.util.List;
+
+public class ScenarioGridRequest {
+    private PricingRequest product;
+    private List<Double> spotShifts;
+    private List<Double> volShifts;
+    
+    // Constructors
+    public ScenarioGridRequest() {}
+    
+    // Getters and Setters
+    public PricingRequest getProduct() { return product; }
+    public void setProduct(PricingRequest product) { this.product = product; }
+    
+    public List<Double> getSpotShifts() { return spotShifts; }
+    public void setSpotShifts(List<Double> spotShifts) { this.spotShifts = spotShifts; }
+    
+    public List<Double> getVolShifts() { return volShifts; }
+    public void setVolShifts(List<Double> volShifts) { this.volShifts = volShifts; }
+}
\ No newline at end of file
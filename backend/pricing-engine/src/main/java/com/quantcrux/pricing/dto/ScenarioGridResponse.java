@@ -0,0 +1,35 @@
+package com.quantcrux.pricing.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class ScenarioGridResponse {
+    private List<Double> spotShifts;
+    private List<Double> volShifts;
+    private List<List<BigDecimal>> prices;
+    private List<List<BigDecimal>> confidenceIntervals;
+    private String pricingMethod;
+    private Long numSimulations;
+    
+    // Constructors
+    public ScenarioGridResponse() {}
+    
+    // Getters and Setters
+    public List<Double> getSpotShifts() { return spotShifts; }
+    public void setSpotShifts(List<Double> spotShifts) { this.spotShifts = spotShifts; }
+    
+    public List<Double> getVolShifts() { return volShifts; }
+    public void setVolShifts(List<Double> volShifts) { this.volShifts = volShifts; }
+    
+    public List<List<BigDecimal>> getPrices() { return prices; }
+    public void setPrices(List<List<BigDecimal>> prices) { this.prices = prices; }
+    
+    public List<List<BigDecimal>> getConfidenceIntervals() { return confidenceIntervals; }
+    public void setConfidenceIntervals(List<List<BigDecimal>> confidenceIntervals) { this.confidenceIntervals = confidenceIntervals; }
+    
+    public String getPricingMethod() { return pricingMethod; }
+    public void setPricingMethod(String pricingMethod) { this.pricingMethod = pricingMethod; }
+    
+    public Long getNumSimulations() { return numSimulations; }
+    public void setNumSimulations(Long numSimulations) { this.numSimulations = numSimulations; }
+}
\ No newline at end of file
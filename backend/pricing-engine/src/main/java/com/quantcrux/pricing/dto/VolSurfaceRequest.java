@@ -0,0 +1,34 @@
+package com.quantcrux.pricing.dto;
+
+import java.util.List;
+
+public class VolSurfaceRequest {
+    private String model;
+    private List<Double> maturities;
+    private List<Double> strikes;
+    private List<List<Double>> volatilities;
+    private Double referenceLevel;
+    private List<List<Double>> sviParameters;
+    
+    // Constructors
+    public VolSurfaceRequest() {}
+    
+    // Getters and Setters
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+    
+    public List<Double> getMaturities() { return maturities; }
+    public void setMaturities(List<Double> maturities) { this.maturities = maturities; }
+    
+    public List<Double> getStrikes() { return strikes; }
+    public void setStrikes(List<Double> strikes) { this.strikes = strikes; }
+    
+    public List<List<Double>> getVolatilities() { return volatilities; }
+    public void setVolatilities(List<List<Double>> volatilities) { this.volatilities = volatilities; }
+    
+    public Double getReferenceLevel() { return referenceLevel; }
+    public void setReferenceLevel(Double referenceLevel) { this.referenceLevel = referenceLevel; }
+    
+    public List<List<Double>> getSviParameters() { return sviParameters; }
+    public void setSviParameters(List<List<Double>> sviParameters) { this.sviParameters = sviParameters; }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Partial simulation result produced by one chunk of paths. Chunks are merged
+ * in chunk order, so implementations only need to be associative.
+ */
+public interface Accumulator<A extends Accumulator<A>> {
+    
+    void merge(A other);
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.quantcrux.pricing.engine;
+
+import java.util.Arrays;
+
+/**
+ * Adjoint sensitivities of vanilla, digital and knock-out digital payoffs on a basket level (a single
+ * underlying being a one-asset basket). Each instrument gets its base and spot-shifted payoffs, for the
+ * price and gamma, then the pathwise gradient of its smoothed payoff from one reverse sweep of the base
+ * path, at the same cost for any number of assets. Per instrument the scenarios are
+ * {@link GreekScenarios#BASE}, {@link GreekScenarios#SPOT_UP}, {@link GreekScenarios#SPOT_DOWN} and then
+ * the gradient in the {@link BasketPaths} layout, from {@link #GRADIENT}.
+ */
+public class AdjointEvaluator implements PathGroupEvaluator {
+    
+    // Scenario at which each instrument's gradient starts
+    public static final int GRADIENT = 3;
+    
+    private final BasketPaths paths;
+    private final int numDates;
+    private final LogPathPayoff[] values;
+    private final LogPathAdjoint[] adjoints;
+    private final double[] logStrikes;
+    
+    /**
+     * @param continuous checks barriers continuously with {@code vol}, the volatility of a single underlying
+     * @param smoothing  log-level width over which digital and barrier jumps are spread for the gradient
+     */
+    public AdjointEvaluator(PricingParameters[] group, BasketPaths paths, TimeGrid grid, boolean continuous,
+                            double vol, double smoothing) {
+        this.paths = paths;
+        this.numDates = grid.size();
+        int numInstruments = group.length;
+        double logStart = paths.getLogStart();
+        this.values = new LogPathPayoff[numInstruments];
+        this.adjoints = new LogPathAdjoint[numInstruments];
+        this.logStrikes = new double[numInstruments];
+        for (int k = 0; k < numInstruments; k++) {
+            PricingParameters instrument = group[k];
+            double strike = instrument.getStrike();
+            double cash = instrument.getCoupon() * 100;
+            values[k] = LogPathPayoff.of(instrument, grid, logStart, continuous, vol);
+            logStrikes[k] = Math.log(strike);
+            switch (instrument.getProductType()) {
+                case BARRIER_OPTION: {
+                    double barrier = instrument.getBarrier();
+                    adjoints[k] = AdjointPayoffs.knockOutDigital(logStart, strike, barrier, Math.log(barrier) < logStart,
+                            cash, grid, vol, continuous, smoothing);
+                    break;
+                }
+                case DIGITAL_OPTION:
+                    adjoints[k] = AdjointPayoffs.digital(strike, instrument.isCall(), cash, smoothing, numDates);
+                    break;
+                default:
+                    adjoints[k] = AdjointPayoffs.vanilla(strike, instrument.isCall(), numDates);
+            }
+        }
+    }
+    
+    public int getNumScenarios() {
+        return GRADIENT + paths.getNumSensitivities();
+    }
+    
+    @Override
+    public void evaluate(double[] z, double[] payoffs, double[] controls) {
+        int numNormals = paths.getNumNormals();
+        int numSensitivities = paths.getNumSensitivities();
+        int numScenarios = getNumScenarios();
+        double logStart = paths.getLogStart();
+        StepBuffers buffers = StepBuffers.forCurrentThread();
+        double[] w = buffers.get(StepBuffers.CORRELATED_NORMALS, numNormals);
+        double[] assetLogs = buffers.get(StepBuffers.ASSET_LEVELS, numNormals);
+        double[] logPath = buffers.get(StepBuffers.BASE_PATH, numDates);
+        double[] logPathBar = buffers.get(StepBuffers.PATH_ADJOINT, numDates);
+        double[] assetBars = buffers.get(StepBuffers.ASSET_ADJOINTS, paths.getNumAssets());
+        double[] gradient = buffers.get(StepBuffers.GRADIENT, numSensitivities);
+        paths.correlate(z, w);
+        paths.fillBasketLogPath(BasketPaths.BASE, w, assetLogs, logPath);
+        for (int k = 0; k < values.length; k++) {
+            LogPathPayoff instrument = values[k];
+            int offset = k * numScenarios;
+            payoffs[offset + GreekScenarios.BASE] = instrument.value(logStart, logPath, 0.0);
+            payoffs[offset + GreekScenarios.SPOT_UP] = instrument.value(logStart, logPath, GreekScenarios.SPOT_UP_SHIFT);
+            payoffs[offset + GreekScenarios.SPOT_DOWN] = instrument.value(logStart, logPath,
+                    GreekScenarios.SPOT_DOWN_SHIFT);
+            Arrays.fill(gradient, 0, numSensitivities, 0.0);
+            adjoints[k].adjoint(logPath, logPathBar, gradient);
+            paths.backpropagate(w, logPathBar, assetLogs, assetBars, gradient);
+            System.arraycopy(gradient, 0, payoffs, offset + GRADIENT, numSensitivities);
+            controls[k] = logPath[numDates - 1] > logStrikes[k] ? 1.0 : 0.0;
+        }
+    }
+}
\ No newline at end of file
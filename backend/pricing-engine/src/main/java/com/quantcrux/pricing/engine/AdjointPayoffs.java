@@ -0,0 +1,121 @@
+package com.quantcrux.pricing.engine;
+
+import java.util.Arrays;
+
+/**
+ * Pathwise derivatives of the Monte Carlo payoffs for adjoint sensitivities. Kinks need nothing
+ * special; the jump of a digital or a discretely monitored barrier is replaced by a linear ramp
+ * {@code smoothing} wide in log level, centred on the strike or barrier, so the derivative is the
+ * payoff spread over the ramp. Prices are still taken from the unsmoothed payoffs.
+ */
+public final class AdjointPayoffs {
+    
+    private AdjointPayoffs() {}
+    
+    // Vanilla call or put on the last date
+    public static LogPathAdjoint vanilla(double strike, boolean call, int numDates) {
+        int last = numDates - 1;
+        return (logPath, logPathBar, gradient) -> {
+            Arrays.fill(logPathBar, 0, last, 0.0);
+            double level = Math.exp(logPath[last]);
+            double moneyness = call ? level - strike : strike - level;
+            logPathBar[last] = moneyness > 0 ? (call ? level : -level) : 0.0;
+            return Math.max(0.0, moneyness);
+        };
+    }
+    
+    // Pays cash above (call) or below (put) the strike on the last date
+    public static LogPathAdjoint digital(double strike, boolean call, double cash, double smoothing, int numDates) {
+        int last = numDates - 1;
+        double logStrike = Math.log(strike);
+        double sign = call ? 1.0 : -1.0;
+        return (logPath, logPathBar, gradient) -> {
+            Arrays.fill(logPathBar, 0, last, 0.0);
+            double distance = sign * (logPath[last] - logStrike);
+            logPathBar[last] = cash * sign * rampSlope(distance, smoothing);
+            return cash * ramp(distance, smoothing);
+        };
+    }
+    
+    /**
+     * Pays cash above the strike on the last date unless the barrier was touched, as
+     * {@link GbmPaths#survivalProbability}. With continuous monitoring the Brownian-bridge survival
+     * factors are already continuous in the path and need no smoothing, but they depend on the
+     * volatility, the first step and today's level (of a single underlying, asset 0) as well.
+     */
+    public static LogPathAdjoint knockOutDigital(double logStart, double strike, double barrier, boolean downBarrier,
+                                                 double cash, TimeGrid grid, double vol, boolean continuous,
+                                                 double smoothing) {
+        int n = grid.size();
+        double logStrike = Math.log(strike);
+        double logBarrier = Math.log(barrier);
+        double sign = downBarrier ? 1.0 : -1.0;
+        double startDistance = sign * (logStart - logBarrier);
+        double spot = Math.exp(logStart);
+        double[] variances = new double[n];
+        for (int i = 0; i < n; i++) {
+            variances[i] = vol * vol * grid.getStep(i);
+        }
+        return (logPath, logPathBar, gradient) -> {
+            Arrays.fill(logPathBar, 0, n, 0.0);
+            if (startDistance <= 0) {
+                return 0.0;
+            }
+            // prefix[i] = product of the survival factors before date i
+            double[] prefix = StepBuffers.forCurrentThread().get(StepBuffers.SURVIVAL_PRODUCTS, n + 1);
+            prefix[0] = 1.0;
+            double previous = startDistance;
+            for (int i = 0; i < n; i++) {
+                double distance = sign * (logPath[i] - logBarrier);
+                double factor = continuous
+                        ? 1.0 - GbmPaths.crossingProbability(Math.max(previous, 0.0), Math.max(distance, 0.0), variances[i])
+                        : ramp(distance, smoothing);
+                prefix[i + 1] = prefix[i] * factor;
+                previous = distance;
+            }
+            double survival = prefix[n];
+            double moneyness = logPath[n - 1] - logStrike;
+            double inTheMoney = ramp(moneyness, smoothing);
+            logPathBar[n - 1] = cash * survival * rampSlope(moneyness, smoothing);
+            
+            // Reverse over the dates: factorBar is d(payoff)/d(survival factor i)
+            double survivalBar = cash * inTheMoney;
+            double suffix = 1.0;
+            for (int i = n - 1; i >= 0; i--) {
+                double factorBar = survivalBar * prefix[i] * suffix;
+                double distance = sign * (logPath[i] - logBarrier);
+                if (!continuous) {
+                    logPathBar[i] += factorBar * sign * rampSlope(distance, smoothing);
+                    suffix *= ramp(distance, smoothing);
+                    continue;
+                }
+                double before = i > 0 ? sign * (logPath[i - 1] - logBarrier) : startDistance;
+                double factor = 1.0 - GbmPaths.crossingProbability(Math.max(before, 0.0), Math.max(distance, 0.0), variances[i]);
+                if (distance > 0 && before > 0 && factor < 1.0) {
+                    // d(factor) = exp(-exponent) d(exponent), exponent = 2 before distance / (vol^2 dt)
+                    double exponent = 2.0 * before * distance / variances[i];
+                    double bar = factorBar * (1.0 - factor);
+                    logPathBar[i] += bar * sign * 2.0 * before / variances[i];
+                    if (i > 0) {
+                        logPathBar[i - 1] += bar * sign * 2.0 * distance / variances[i];
+                    } else {
+                        gradient[BasketPaths.spotSensitivity(0)] += bar * sign * 2.0 * distance / variances[i] / spot;
+                        gradient[BasketPaths.MATURITY_SENSITIVITY] -= bar * exponent / grid.getStep(0);
+                    }
+                    gradient[BasketPaths.volSensitivity(0)] -= bar * 2.0 * exponent / vol;
+                }
+                suffix *= factor;
+            }
+            return cash * inTheMoney * survival;
+        };
+    }
+    
+    // Smoothed step: 0 below -width/2, 1 above width/2, linear in between
+    private static double ramp(double distance, double width) {
+        return Math.min(1.0, Math.max(0.0, 0.5 + distance / width));
+    }
+    
+    private static double rampSlope(double distance, double width) {
+        return Math.abs(distance) < 0.5 * width ? 1.0 / width : 0.0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Closed-form price and first-order Greeks. Vega is per unit of volatility and theta is the
+ * change per year of calendar time (the negative maturity derivative). Evaluations counts the
+ * pricing-kernel calls behind the result: 1 for analytic Greeks, more for bump-and-revalue.
+ */
+public class AnalyticResult {
+    
+    private final double price;
+    private final double delta;
+    private final double gamma;
+    private final double vega;
+    private final double theta;
+    private final int evaluations;
+    
+    public AnalyticResult(double price, double delta, double gamma, double vega, double theta) {
+        this(price, delta, gamma, vega, theta, 1);
+    }
+    
+    public AnalyticResult(double price, double delta, double gamma, double vega, double theta, int evaluations) {
+        this.price = price;
+        this.delta = delta;
+        this.gamma = gamma;
+        this.vega = vega;
+        this.theta = theta;
+        this.evaluations = evaluations;
+    }
+    
+    public double getPrice() { return price; }
+    
+    public double getDelta() { return delta; }
+    
+    public double getGamma() { return gamma; }
+    
+    public double getVega() { return vega; }
+    
+    public double getTheta() { return theta; }
+    
+    public int getEvaluations() { return evaluations; }
+}
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Autocallable note on a notional of 100, simulated on its observation schedule.
+ * <p>
+ * The coupon is an annual rate accrued over each observation period. On each observation the note
+ * redeems at par plus the due coupon if the underlying is at or above that date's autocall trigger
+ * (falling over time on a step-down note), and the path stops there. Otherwise it pays the coupon (plus missed ones with memory) at or above the
+ * coupon barrier. Notes still alive at maturity repay par, or
+ * {@code 100 * S_T / strike} below the strike once the knock-in barrier has been touched. With
+ * continuous knock-in monitoring, the Brownian-bridge touch probability between observations is
+ * used instead of sampling a touch.
+ * <p>
+ * Cash flows are accrued to maturity at the risk-free rate, so callers discount every scenario
+ * by its own maturity.
+ */
+public class AutocallableEvaluator implements PathEvaluator {
+    
+    private static final double NOTIONAL = 100.0;
+    
+    private final TimeGrid schedule;
+    private final double logSpot;
+    private final double rate;
+    private final double vol;
+    private final double bumpedVol;
+    private final double[] logTriggers;
+    private final double logCouponBarrier;
+    private final double logKnockIn;
+    private final double strike;
+    private final double[] couponAmounts;
+    private final boolean memoryCoupon;
+    private final boolean continuousKnockIn;
+    private final double upShift;
+    private final double downShift;
+    private final double timeReduction;
+    private final double[] accrual;
+    
+    /**
+     * @param autocallTriggers trigger level on each date of the schedule, the maturity included
+     */
+    public AutocallableEvaluator(TimeGrid schedule, double spot, double rate, double vol, double[] autocallTriggers,
+                                 double couponBarrier, double knockInBarrier, double strike, double coupon,
+                                 boolean memoryCoupon, boolean continuousKnockIn,
+                                 double spotBump, double volBump, double timeBump) {
+        if (autocallTriggers.length != schedule.size()) {
+            throw new IllegalArgumentException("Autocall triggers must have one level per observation date ("
+                    + schedule.size() + ")");
+        }
+        this.schedule = schedule;
+        this.logSpot = Math.log(spot);
+        this.rate = rate;
+        this.vol = vol;
+        this.bumpedVol = vol + volBump;
+        this.logTriggers = new double[autocallTriggers.length];
+        for (int i = 0; i < autocallTriggers.length; i++) {
+            logTriggers[i] = Math.log(autocallTriggers[i]);
+        }
+        this.logCouponBarrier = Math.log(couponBarrier);
+        this.logKnockIn = Math.log(knockInBarrier);
+        this.strike = strike;
+        this.memoryCoupon = memoryCoupon;
+        this.continuousKnockIn = continuousKnockIn;
+        this.upShift = Math.log(1 + spotBump);
+        this.downShift = Math.log(1 - spotBump);
+        this.timeReduction = Math.min(timeBump, schedule.getStep(0));
+        
+        // Shortening the first step moves every date and the maturity by the same amount,
+        // so accrual factors are shared by all scenarios
+        double maturity = schedule.getMaturity();
+        this.accrual = new double[schedule.size()];
+        this.couponAmounts = new double[schedule.size()];
+        for (int i = 0; i < schedule.size(); i++) {
+            accrual[i] = Math.exp(rate * (maturity - schedule.getTime(i)));
+            couponAmounts[i] = coupon * NOTIONAL * schedule.getStep(i);
+        }
+    }
+    
+    // The control is the first-observation autocall digital, which every path reaches
+    public double getControlLevel() {
+        return Math.exp(logTriggers[0]);
+    }
+    
+    public double getControlTime() {
+        return schedule.getTime(0);
+    }
+    
+    @Override
+    public double getTimeReduction() {
+        return timeReduction;
+    }
+    
+    @Override
+    public double evaluate(double[] z, double[] payoffs) {
+        payoffs[0] = value(z, 0.0, vol, 0.0);
+        payoffs[1] = value(z, upShift, vol, 0.0);
+        payoffs[2] = value(z, downShift, vol, 0.0);
+        payoffs[3] = value(z, 0.0, bumpedVol, 0.0);
+        payoffs[4] = value(z, 0.0, vol, timeReduction);
+        
+        double dt = schedule.getStep(0);
+        double firstObservation = logSpot + (rate - 0.5 * vol * vol) * dt + vol * Math.sqrt(dt) * z[0];
+        return firstObservation >= logTriggers[0] ? 1.0 : 0.0;
+    }
+    
+    /**
+     * Maturity value of the path built from the step normals {@code z} with volatility {@code sigma},
+     * today's level shifted by {@code logShift} and the first step shortened by {@code firstStepReduction};
+     * stops at the autocall date.
+     */
+    public double value(double[] z, double logShift, double sigma, double firstStepReduction) {
+        double drift = rate - 0.5 * sigma * sigma;
+        double x = logSpot + logShift;
+        double notKnockedIn = x > logKnockIn ? 1.0 : 0.0;
+        double total = 0.0;
+        double missed = 0.0;
+        
+        for (int i = 0; i < schedule.size(); i++) {
+            double dt = i == 0 ? Math.max(0.0, schedule.getStep(0) - firstStepReduction) : schedule.getStep(i);
+            double previous = x;
+            x += drift * dt + sigma * Math.sqrt(dt) * z[i];
+            
+            if (notKnockedIn > 0) {
+                if (x <= logKnockIn) {
+                    notKnockedIn = 0.0;
+                } else if (continuousKnockIn) {
+                    notKnockedIn *= 1.0 - GbmPaths.crossingProbability(
+                            previous - logKnockIn, x - logKnockIn, sigma * sigma * dt);
+                }
+            }
+            
+            double due = couponAmounts[i] + missed;
+            if (x >= logTriggers[i]) {
+                return total + (NOTIONAL + due) * accrual[i];
+            }
+            if (x >= logCouponBarrier) {
+                total += due * accrual[i];
+                missed = 0.0;
+            } else if (memoryCoupon) {
+                missed = due;
+            }
+        }
+        
+        return total + redemption(x, notKnockedIn);
+    }
+    
+    /**
+     * {@link #value} on a log path already simulated on the schedule from today's spot with volatility
+     * {@code sigma} (which only sets the knock-in bridge variance), so one path serves every spot shift.
+     *
+     * @param logShift added to every log level, including today's (a relative spot bump on the same path)
+     */
+    public double valueOnPath(double[] logPath, double logShift, double sigma) {
+        double x = logSpot + logShift;
+        double notKnockedIn = x > logKnockIn ? 1.0 : 0.0;
+        double total = 0.0;
+        double missed = 0.0;
+        
+        for (int i = 0; i < schedule.size(); i++) {
+            double previous = x;
+            x = logPath[i] + logShift;
+            
+            if (notKnockedIn > 0) {
+                if (x <= logKnockIn) {
+                    notKnockedIn = 0.0;
+                } else if (continuousKnockIn) {
+                    notKnockedIn *= 1.0 - GbmPaths.crossingProbability(
+                            previous - logKnockIn, x - logKnockIn, sigma * sigma * schedule.getStep(i));
+                }
+            }
+            
+            double due = couponAmounts[i] + missed;
+            if (x >= logTriggers[i]) {
+                return total + (NOTIONAL + due) * accrual[i];
+            }
+            if (x >= logCouponBarrier) {
+                total += due * accrual[i];
+                missed = 0.0;
+            } else if (memoryCoupon) {
+                missed = due;
+            }
+        }
+        
+        return total + redemption(x, notKnockedIn);
+    }
+    
+    /**
+     * Maturity value on a precomputed log path, e.g. a worst-of basket level. The path may run on a
+     * finer grid than the schedule: observation i is path date {@code observationSteps[i]}, and the
+     * knock-in is checked on every path date (no bridge correction between dates).
+     *
+     * @param logShift added to every log level, including today's (a relative spot bump on the same path)
+     */
+    public double valueOnPath(double logStart, double[] logPath, int[] observationSteps, double logShift) {
+        boolean knockedIn = logStart + logShift <= logKnockIn;
+        double total = 0.0;
+        double missed = 0.0;
+        int step = 0;
+        double x = logStart + logShift;
+        
+        for (int i = 0; i < schedule.size(); i++) {
+            for (; step <= observationSteps[i]; step++) {
+                knockedIn |= logPath[step] + logShift <= logKnockIn;
+            }
+            x = logPath[observationSteps[i]] + logShift;
+            
+            double due = couponAmounts[i] + missed;
+            if (x >= logTriggers[i]) {
+                return total + (NOTIONAL + due) * accrual[i];
+            }
+            if (x >= logCouponBarrier) {
+                total += due * accrual[i];
+                missed = 0.0;
+            } else if (memoryCoupon) {
+                missed = due;
+            }
+        }
+        return total + redemption(x, knockedIn ? 0.0 : 1.0);
+    }
+    
+    // Par, or the performance against the strike below it, weighted by the probability of a knock-in
+    private double redemption(double logFinal, double notKnockedIn) {
+        double finalPrice = Math.exp(logFinal);
+        if (finalPrice >= strike) {
+            return NOTIONAL;
+        }
+        return notKnockedIn * NOTIONAL + (1.0 - notKnockedIn) * NOTIONAL * finalPrice / strike;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Closed forms for continuously monitored single-barrier options under Black-Scholes (no dividends):
+ * Reiner-Rubinstein knock-in/knock-out calls and puts with a cash rebate (paid at expiry for
+ * knock-ins that never knock in, at the hit for knock-outs), and the knock-out cash-or-nothing
+ * call obtained by the reflection principle.
+ * <p>
+ * Only prices are provided: Greeks come from {@link RiskEngine} bumps of the closed form, which are
+ * cheap and avoid differentiating every reflection term by hand.
+ */
+public final class BarrierOptions {
+    
+    private BarrierOptions() {}
+    
+    public static double vanillaPrice(BarrierType type, boolean call, double spot, double strike, double barrier,
+                                      double rebate, double rate, double vol, double time) {
+        BlackScholes.checkVolatility(vol);
+        boolean touched = type.isDown() ? spot <= barrier : spot >= barrier;
+        if (touched) {
+            return type.isKnockOut() ? rebate : BlackScholes.vanillaPrice(call, spot, strike, rate, vol, time);
+        }
+        if (time <= 0) {
+            return type.isKnockOut() ? (call ? Math.max(0, spot - strike) : Math.max(0, strike - spot)) : rebate;
+        }
+        
+        double phi = call ? 1.0 : -1.0;
+        double eta = type.isDown() ? 1.0 : -1.0;
+        double volRoot = vol * Math.sqrt(time);
+        double mu = (rate - 0.5 * vol * vol) / (vol * vol);
+        double lambda = Math.sqrt(mu * mu + 2 * rate / (vol * vol));
+        double discount = Math.exp(-rate * time);
+        double ratio = barrier / spot;
+        double shift = (1 + mu) * volRoot;
+        
+        double x1 = Math.log(spot / strike) / volRoot + shift;
+        double x2 = Math.log(spot / barrier) / volRoot + shift;
+        double y1 = Math.log(barrier * barrier / (spot * strike)) / volRoot + shift;
+        double y2 = Math.log(barrier / spot) / volRoot + shift;
+        double z = Math.log(barrier / spot) / volRoot + lambda * volRoot;
+        double reflectedSpot = Math.pow(ratio, 2 * (mu + 1));
+        double reflectedStrike = Math.pow(ratio, 2 * mu);
+        
+        double a = phi * spot * Gaussian.cdf(phi * x1) - phi * strike * discount * Gaussian.cdf(phi * (x1 - volRoot));
+        double b = phi * spot * Gaussian.cdf(phi * x2) - phi * strike * discount * Gaussian.cdf(phi * (x2 - volRoot));
+        double c = phi * spot * reflectedSpot * Gaussian.cdf(eta * y1)
+                - phi * strike * discount * reflectedStrike * Gaussian.cdf(eta * (y1 - volRoot));
+        double d = phi * spot * reflectedSpot * Gaussian.cdf(eta * y2)
+                - phi * strike * discount * reflectedStrike * Gaussian.cdf(eta * (y2 - volRoot));
+        double e = rebate == 0 ? 0.0 : rebate * discount
+                * (Gaussian.cdf(eta * (x2 - volRoot)) - reflectedStrike * Gaussian.cdf(eta * (y2 - volRoot)));
+        double f = rebate == 0 ? 0.0 : rebate * (Math.pow(ratio, mu + lambda) * Gaussian.cdf(eta * z)
+                + Math.pow(ratio, mu - lambda) * Gaussian.cdf(eta * (z - 2 * lambda * volRoot)));
+        
+        boolean strikeAbove = strike > barrier;
+        switch (type) {
+            case DOWN_AND_IN:
+                if (call) {
+                    return strikeAbove ? c + e : a - b + d + e;
+                }
+                return strikeAbove ? b - c + d + e : a + e;
+            case UP_AND_IN:
+                if (call) {
+                    return strikeAbove ? a + e : b - c + d + e;
+                }
+                return strikeAbove ? a - b + d + e : c + e;
+            case DOWN_AND_OUT:
+                if (call) {
+                    return strikeAbove ? a - c + f : b - d + f;
+                }
+                return strikeAbove ? a - b + c - d + f : f;
+            case UP_AND_OUT:
+            default:
+                if (call) {
+                    return strikeAbove ? f : a - b + c - d + f;
+                }
+                return strikeAbove ? b - d + f : a - c + f;
+        }
+    }
+    
+    public static double knockOutDigitalPrice(boolean downBarrier, double cash, double spot, double strike,
+                                              double barrier, double rate, double vol, double time) {
+        BlackScholes.checkVolatility(vol);
+        boolean touched = downBarrier ? spot <= barrier : spot >= barrier;
+        if (touched) {
+            return 0.0;
+        }
+        if (time <= 0) {
+            return spot > strike ? cash : 0.0;
+        }
+        // Probability of finishing in the payoff region without a touch, by reflection:
+        // P(region) - (H/S)^(2 mu / sigma^2) * P(region, started from H^2/S)
+        double power = 2 * (rate - 0.5 * vol * vol) / (vol * vol);
+        double reflection = Math.pow(barrier / spot, power);
+        double reflectedSpot = barrier * barrier / spot;
+        double probability;
+        if (downBarrier) {
+            double lower = Math.max(strike, barrier);
+            probability = above(spot, lower, rate, vol, time) - reflection * above(reflectedSpot, lower, rate, vol, time);
+        } else if (strike >= barrier) {
+            probability = 0.0;
+        } else {
+            probability = above(spot, strike, rate, vol, time) - above(spot, barrier, rate, vol, time)
+                    - reflection * (above(reflectedSpot, strike, rate, vol, time)
+                    - above(reflectedSpot, barrier, rate, vol, time));
+        }
+        return cash * Math.exp(-rate * time) * Math.max(0.0, probability);
+    }
+    
+    // Risk-neutral probability that the spot finishes above the level, N(d2)
+    private static double above(double spot, double level, double rate, double vol, double time) {
+        return Gaussian.cdf((Math.log(spot / level) + (rate - 0.5 * vol * vol) * time) / (vol * Math.sqrt(time)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Single continuously monitored barrier: its direction and whether touching it
+ * activates (in) or cancels (out) the option.
+ */
+public enum BarrierType {
+    DOWN_AND_IN(true, false),
+    DOWN_AND_OUT(true, true),
+    UP_AND_IN(false, false),
+    UP_AND_OUT(false, true);
+    
+    private final boolean down;
+    private final boolean knockOut;
+    
+    BarrierType(boolean down, boolean knockOut) {
+        this.down = down;
+        this.knockOut = knockOut;
+    }
+    
+    public boolean isDown() { return down; }
+    
+    public boolean isKnockOut() { return knockOut; }
+    
+    // Request values are the lower-case names, e.g. "down_and_out"
+    public static BarrierType parse(String value) {
+        for (BarrierType type : values()) {
+            if (type.name().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown barrier type: " + value);
+    }
+}
\ No newline at end of file
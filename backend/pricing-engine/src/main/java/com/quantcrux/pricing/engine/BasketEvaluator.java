@@ -0,0 +1,40 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Products on a basket level. The base, vol-up and time-down basket paths are built once per path
+ * from one set of correlated draws and shared by every instrument; spot bumps move every underlying
+ * together.
+ */
+public class BasketEvaluator implements PathGroupEvaluator {
+    
+    private final BasketPaths paths;
+    private final LogPathPayoff[] instruments;
+    private final int numDates;
+    
+    // instruments value the basket level from today's log level paths.getLogStart()
+    public BasketEvaluator(BasketPaths paths, TimeGrid grid, LogPathPayoff[] instruments) {
+        this.paths = paths;
+        this.instruments = instruments;
+        this.numDates = grid.size();
+    }
+    
+    @Override
+    public double getTimeReduction() {
+        return paths.getTimeReduction();
+    }
+    
+    @Override
+    public void evaluate(double[] z, double[] payoffs, double[] controls) {
+        StepBuffers buffers = StepBuffers.forCurrentThread();
+        double[] w = buffers.get(StepBuffers.CORRELATED_NORMALS, paths.getNumNormals());
+        double[] assetLogs = buffers.get(StepBuffers.ASSET_LEVELS, paths.getNumAssets());
+        double[] logPath = buffers.get(StepBuffers.BASE_PATH, numDates);
+        double[] volPath = buffers.get(StepBuffers.VOL_UP_PATH, numDates);
+        double[] timePath = buffers.get(StepBuffers.TIME_DOWN_PATH, numDates);
+        paths.correlate(z, w);
+        paths.fillBasketLogPath(BasketPaths.BASE, w, assetLogs, logPath);
+        paths.fillBasketLogPath(BasketPaths.VOL_UP, w, assetLogs, volPath);
+        paths.fillBasketLogPath(BasketPaths.TIME_DOWN, w, assetLogs, timePath);
+        GreekScenarios.fill(instruments, paths.getLogStart(), logPath, volPath, timePath, payoffs, controls);
+    }
+}
\ No newline at end of file
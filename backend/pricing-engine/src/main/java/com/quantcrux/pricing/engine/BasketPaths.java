@@ -0,0 +1,248 @@
+package com.quantcrux.pricing.engine;
+
+import java.util.Arrays;
+
+/**
+ * Correlated geometric Brownian motions of several underlyings on one time grid, reduced to the
+ * log of a basket level. Each asset's level is its performance {@code 100 * S(t) / initial}; the
+ * basket is the worst, the best or the weighted sum of them, so products on the basket quote
+ * strikes and barriers in percent of the initial fixings.
+ * <p>
+ * Normals and correlated draws are flat arrays laid out step by step ({@code [step * numAssets + asset]}),
+ * and the per-step drift and diffusion terms of the base, vol-up and time-down paths are precomputed,
+ * so filling a path is one multiply-add per asset and step.
+ * <p>
+ * {@link #backpropagate} is the reverse (adjoint) sweep of the base path: it turns the derivatives of a
+ * payoff with respect to the basket level on each date into its derivatives with respect to the rate,
+ * the maturity and every asset's spot and volatility in one pass, whatever the number of assets.
+ */
+public final class BasketPaths {
+    
+    public static final int BASE = 0;
+    public static final int VOL_UP = 1;
+    public static final int TIME_DOWN = 2;
+    
+    // Adjoint gradient layout: rate, maturity, then spot and volatility of each asset in turn
+    public static final int RATE_SENSITIVITY = 0;
+    public static final int MATURITY_SENSITIVITY = 1;
+    
+    private final int numAssets;
+    private final int numSteps;
+    private final BasketType basketType;
+    private final double[] logStarts;
+    private final double[] spots;
+    private final double[] vols;
+    private final double[] dividends;
+    private final double[] steps;
+    private final double rate;
+    private final double[] weights;
+    private final CholeskyFactor factor;
+    private final double[][] drifts;
+    private final double[][] diffusions;
+    private final double logStart;
+    private final double timeReduction;
+    
+    /**
+     * @param timeReduction shortens the first step of the time-down path (theta on the same normals)
+     */
+    public BasketPaths(TimeGrid grid, BasketType basketType, double[] spots, double[] initialLevels, double[] vols,
+                       double[] dividends, double[] weights, CholeskyFactor factor, double rate, double volBump,
+                       double timeReduction) {
+        this.numAssets = spots.length;
+        this.numSteps = grid.size();
+        this.basketType = basketType;
+        this.weights = weights.clone();
+        this.factor = factor;
+        this.spots = spots.clone();
+        this.vols = vols.clone();
+        this.dividends = dividends.clone();
+        this.rate = rate;
+        this.steps = new double[numSteps];
+        for (int i = 0; i < numSteps; i++) {
+            steps[i] = grid.getStep(i);
+        }
+        if (factor.size() != numAssets) {
+            throw new IllegalArgumentException("Correlation matrix size does not match the number of assets");
+        }
+        this.logStarts = new double[numAssets];
+        for (int a = 0; a < numAssets; a++) {
+            if (spots[a] <= 0 || initialLevels[a] <= 0) {
+                throw new IllegalArgumentException("Spot and initial levels must be positive");
+            }
+            BlackScholes.checkVolatility(vols[a]);
+            logStarts[a] = Math.log(100.0 * spots[a] / initialLevels[a]);
+        }
+        this.logStart = aggregate(logStarts);
+        this.timeReduction = steps[0] - Math.max(0.0, steps[0] - timeReduction);
+        
+        this.drifts = new double[3][numSteps * numAssets];
+        this.diffusions = new double[3][numSteps * numAssets];
+        for (int i = 0; i < numSteps; i++) {
+            for (int a = 0; a < numAssets; a++) {
+                int index = i * numAssets + a;
+                double dt = grid.getStep(i);
+                double reducedDt = i == 0 ? Math.max(0.0, dt - timeReduction) : dt;
+                double bumpedVol = vols[a] + volBump;
+                drifts[BASE][index] = (rate - dividends[a] - 0.5 * vols[a] * vols[a]) * dt;
+                diffusions[BASE][index] = vols[a] * Math.sqrt(dt);
+                drifts[VOL_UP][index] = (rate - dividends[a] - 0.5 * bumpedVol * bumpedVol) * dt;
+                diffusions[VOL_UP][index] = bumpedVol * Math.sqrt(dt);
+                drifts[TIME_DOWN][index] = (rate - dividends[a] - 0.5 * vols[a] * vols[a]) * reducedDt;
+                diffusions[TIME_DOWN][index] = vols[a] * Math.sqrt(reducedDt);
+            }
+        }
+    }
+    
+    public static int spotSensitivity(int asset) {
+        return 2 + 2 * asset;
+    }
+    
+    public static int volSensitivity(int asset) {
+        return 3 + 2 * asset;
+    }
+    
+    public int getNumSensitivities() {
+        return 2 + 2 * numAssets;
+    }
+    
+    public int getNumAssets() {
+        return numAssets;
+    }
+    
+    // Independent normals needed per path
+    public int getNumNormals() {
+        return numSteps * numAssets;
+    }
+    
+    // Log basket level today
+    // Time by which the time-down path is shorter: the requested reduction, at most the first step
+    public double getTimeReduction() {
+        return timeReduction;
+    }
+    
+    public double getLogStart() {
+        return logStart;
+    }
+    
+    public void correlate(double[] z, double[] w) {
+        factor.correlate(z, w, numSteps);
+    }
+    
+    /**
+     * Fills {@code basketLogPath[i]} with the log basket level on date i of the given path
+     * ({@link #BASE}, {@link #VOL_UP} or {@link #TIME_DOWN}) from correlated draws {@code w}.
+     * {@code assetLogs} is scratch space of at least {@code numAssets}.
+     */
+    public void fillBasketLogPath(int path, double[] w, double[] assetLogs, double[] basketLogPath) {
+        double[] drift = drifts[path];
+        double[] diffusion = diffusions[path];
+        System.arraycopy(logStarts, 0, assetLogs, 0, numAssets);
+        for (int i = 0; i < numSteps; i++) {
+            int offset = i * numAssets;
+            for (int a = 0; a < numAssets; a++) {
+                assetLogs[a] += drift[offset + a] + diffusion[offset + a] * w[offset + a];
+            }
+            basketLogPath[i] = aggregate(assetLogs);
+        }
+    }
+    
+    /**
+     * Adds to {@code gradient} the derivatives of a payoff with respect to the rate, the maturity (first
+     * step lengthened, the opposite of the time-down path) and each asset's spot and volatility, given
+     * its derivatives {@code basketLogPathBar[i]} with respect to the log basket level of the base path
+     * on date i. The base asset levels are rebuilt from {@code w} into {@code assetPaths} (scratch of at
+     * least {@link #getNumNormals()}); {@code assetBars} is scratch of at least {@code numAssets}.
+     */
+    public void backpropagate(double[] w, double[] basketLogPathBar, double[] assetPaths, double[] assetBars,
+                              double[] gradient) {
+        double[] drift = drifts[BASE];
+        double[] diffusion = diffusions[BASE];
+        System.arraycopy(logStarts, 0, assetBars, 0, numAssets);
+        for (int i = 0; i < numSteps; i++) {
+            int offset = i * numAssets;
+            for (int a = 0; a < numAssets; a++) {
+                assetBars[a] += drift[offset + a] + diffusion[offset + a] * w[offset + a];
+                assetPaths[offset + a] = assetBars[a];
+            }
+        }
+        
+        // assetBars[a] accumulates d(payoff)/d(log level of asset a) over this and every later date,
+        // which is what a change in step i's drift or diffusion moves
+        Arrays.fill(assetBars, 0, numAssets, 0.0);
+        for (int i = numSteps - 1; i >= 0; i--) {
+            int offset = i * numAssets;
+            distribute(basketLogPathBar[i], assetPaths, offset, assetBars);
+            double dt = steps[i];
+            double sqrtDt = Math.sqrt(dt);
+            for (int a = 0; a < numAssets; a++) {
+                double bar = assetBars[a];
+                gradient[RATE_SENSITIVITY] += bar * dt;
+                gradient[volSensitivity(a)] += bar * (sqrtDt * w[offset + a] - vols[a] * dt);
+                if (i == 0) {
+                    double logDrift = rate - dividends[a] - 0.5 * vols[a] * vols[a];
+                    gradient[MATURITY_SENSITIVITY] += bar * (logDrift + 0.5 * vols[a] * w[a] / sqrtDt);
+                }
+            }
+        }
+        for (int a = 0; a < numAssets; a++) {
+            gradient[spotSensitivity(a)] += assetBars[a] / spots[a];
+        }
+    }
+    
+    // Adjoint of aggregate: spreads the derivative with respect to the log basket level over the assets
+    private void distribute(double basketBar, double[] assetPaths, int offset, double[] assetBars) {
+        if (basketBar == 0.0) {
+            return;
+        }
+        switch (basketType) {
+            case WORST_OF:
+            case BEST_OF: {
+                boolean worst = basketType == BasketType.WORST_OF;
+                int chosen = 0;
+                for (int a = 1; a < numAssets; a++) {
+                    double level = assetPaths[offset + a];
+                    if (worst ? level < assetPaths[offset + chosen] : level > assetPaths[offset + chosen]) {
+                        chosen = a;
+                    }
+                }
+                assetBars[chosen] += basketBar;
+                break;
+            }
+            default: {
+                double sum = 0.0;
+                for (int a = 0; a < numAssets; a++) {
+                    sum += weights[a] * Math.exp(assetPaths[offset + a]);
+                }
+                for (int a = 0; a < numAssets; a++) {
+                    assetBars[a] += basketBar * weights[a] * Math.exp(assetPaths[offset + a]) / sum;
+                }
+            }
+        }
+    }
+    
+    private double aggregate(double[] assetLogs) {
+        switch (basketType) {
+            case WORST_OF: {
+                double worst = assetLogs[0];
+                for (int a = 1; a < numAssets; a++) {
+                    worst = Math.min(worst, assetLogs[a]);
+                }
+                return worst;
+            }
+            case BEST_OF: {
+                double best = assetLogs[0];
+                for (int a = 1; a < numAssets; a++) {
+                    best = Math.max(best, assetLogs[a]);
+                }
+                return best;
+            }
+            default: {
+                double sum = 0.0;
+                for (int a = 0; a < numAssets; a++) {
+                    sum += weights[a] * Math.exp(assetLogs[a]);
+                }
+                return Math.log(sum);
+            }
+        }
+    }
+}
\ No newline at end of file
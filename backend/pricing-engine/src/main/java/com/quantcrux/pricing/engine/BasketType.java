@@ -0,0 +1,20 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * How the performances of several underlyings combine into one basket level.
+ */
+public enum BasketType {
+    WORST_OF,
+    BEST_OF,
+    BASKET;
+    
+    // Request values are the lower-case names, e.g. "worst_of"
+    public static BasketType parse(String value) {
+        for (BasketType type : values()) {
+            if (type.name().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown basket type: " + value);
+    }
+}
\ No newline at end of file
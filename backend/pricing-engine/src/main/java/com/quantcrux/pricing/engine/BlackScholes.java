@@ -0,0 +1,88 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Black-Scholes closed forms (no dividends) for European vanilla and cash-or-nothing options,
+ * with analytic Greeks.
+ */
+public final class BlackScholes {
+    
+    private BlackScholes() {}
+    
+    public static AnalyticResult vanilla(boolean call, double spot, double strike, double rate, double vol, double time) {
+        checkVolatility(vol);
+        if (time <= 0) {
+            double intrinsic = call ? Math.max(0, spot - strike) : Math.max(0, strike - spot);
+            double delta = intrinsic > 0 ? (call ? 1.0 : -1.0) : 0.0;
+            return new AnalyticResult(intrinsic, delta, 0.0, 0.0, 0.0);
+        }
+        double sqrtTime = Math.sqrt(time);
+        double d1 = (Math.log(spot / strike) + (rate + 0.5 * vol * vol) * time) / (vol * sqrtTime);
+        double d2 = d1 - vol * sqrtTime;
+        double discountedStrike = strike * Math.exp(-rate * time);
+        double density = Gaussian.density(d1);
+        double gamma = density / (spot * vol * sqrtTime);
+        double vega = spot * density * sqrtTime;
+        double decay = -spot * density * vol / (2 * sqrtTime);
+        if (call) {
+            double price = spot * Gaussian.cdf(d1) - discountedStrike * Gaussian.cdf(d2);
+            return new AnalyticResult(price, Gaussian.cdf(d1), gamma, vega,
+                    decay - rate * discountedStrike * Gaussian.cdf(d2));
+        }
+        double price = discountedStrike * Gaussian.cdf(-d2) - spot * Gaussian.cdf(-d1);
+        return new AnalyticResult(price, Gaussian.cdf(d1) - 1, gamma, vega,
+                decay + rate * discountedStrike * Gaussian.cdf(-d2));
+    }
+    
+    public static double vanillaPrice(boolean call, double spot, double strike, double rate, double vol, double time) {
+        checkVolatility(vol);
+        if (time <= 0) {
+            return call ? Math.max(0, spot - strike) : Math.max(0, strike - spot);
+        }
+        double sqrtTime = Math.sqrt(time);
+        double d1 = (Math.log(spot / strike) + (rate + 0.5 * vol * vol) * time) / (vol * sqrtTime);
+        double d2 = d1 - vol * sqrtTime;
+        double discountedStrike = strike * Math.exp(-rate * time);
+        return call
+                ? spot * Gaussian.cdf(d1) - discountedStrike * Gaussian.cdf(d2)
+                : discountedStrike * Gaussian.cdf(-d2) - spot * Gaussian.cdf(-d1);
+    }
+    
+    // Pays cash at maturity if the spot finishes above (call) or below (put) the strike
+    public static AnalyticResult cashOrNothing(boolean call, double cash, double spot, double strike, double rate,
+                                               double vol, double time) {
+        checkVolatility(vol);
+        if (time <= 0) {
+            boolean inTheMoney = call ? spot > strike : spot < strike;
+            return new AnalyticResult(inTheMoney ? cash : 0.0, 0.0, 0.0, 0.0, 0.0);
+        }
+        double sqrtTime = Math.sqrt(time);
+        double d1 = (Math.log(spot / strike) + (rate + 0.5 * vol * vol) * time) / (vol * sqrtTime);
+        double d2 = d1 - vol * sqrtTime;
+        double discountedCash = cash * Math.exp(-rate * time);
+        double sign = call ? 1.0 : -1.0;
+        double price = discountedCash * Gaussian.cdf(sign * d2);
+        // Derivatives of N(+-d2) all go through the density at d2
+        double slope = sign * discountedCash * Gaussian.density(d2);
+        double delta = slope / (spot * vol * sqrtTime);
+        double gamma = -slope * d1 / (spot * spot * vol * vol * time);
+        double vega = -slope * d1 / vol;
+        double theta = rate * price - slope * (rate / (vol * sqrtTime) - d1 / (2 * time));
+        return new AnalyticResult(price, delta, gamma, vega, theta);
+    }
+    
+    public static double cashOrNothingPrice(boolean call, double cash, double spot, double strike, double rate,
+                                            double vol, double time) {
+        checkVolatility(vol);
+        if (time <= 0) {
+            return (call ? spot > strike : spot < strike) ? cash : 0.0;
+        }
+        double d2 = (Math.log(spot / strike) + (rate - 0.5 * vol * vol) * time) / (vol * Math.sqrt(time));
+        return cash * Math.exp(-rate * time) * Gaussian.cdf(call ? d2 : -d2);
+    }
+    
+    static void checkVolatility(double vol) {
+        if (!(vol > 0)) {
+            throw new IllegalArgumentException("Volatility must be positive");
+        }
+    }
+}
\ No newline at end of file
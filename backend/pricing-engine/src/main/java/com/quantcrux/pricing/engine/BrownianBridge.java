@@ -0,0 +1,101 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Brownian-bridge path construction: the first normal fixes the terminal value, the following
+ * ones fill in midpoints. With low-discrepancy inputs this puts most of the path variance on the
+ * best-distributed leading dimensions.
+ */
+public class BrownianBridge {
+    
+    private final int size;
+    private final double[] sqrtDt;
+    private final int[] bridgeIndex;
+    private final int[] leftIndex;
+    private final int[] rightIndex;
+    private final double[] leftWeight;
+    private final double[] rightWeight;
+    private final double[] stdDev;
+    
+    // times: strictly increasing, positive step times of the path
+    public BrownianBridge(double[] times) {
+        size = times.length;
+        sqrtDt = new double[size];
+        bridgeIndex = new int[size];
+        leftIndex = new int[size];
+        rightIndex = new int[size];
+        leftWeight = new double[size];
+        rightWeight = new double[size];
+        stdDev = new double[size];
+        
+        for (int i = 0; i < size; i++) {
+            double previous = i > 0 ? times[i - 1] : 0.0;
+            if (times[i] <= previous) {
+                throw new IllegalArgumentException("Path times must be positive and increasing");
+            }
+            sqrtDt[i] = Math.sqrt(times[i] - previous);
+        }
+        
+        int[] map = new int[size];
+        map[size - 1] = 1;
+        bridgeIndex[0] = size - 1;
+        stdDev[0] = Math.sqrt(times[size - 1]);
+        
+        int j = 0;
+        for (int i = 1; i < size; i++) {
+            // Next unpopulated run [j, k) and its midpoint l
+            while (map[j] != 0) {
+                j++;
+            }
+            int k = j;
+            while (map[k] == 0) {
+                k++;
+            }
+            int l = j + ((k - 1 - j) >> 1);
+            map[l] = i;
+            bridgeIndex[i] = l;
+            leftIndex[i] = j;
+            rightIndex[i] = k;
+            if (j != 0) {
+                double span = times[k] - times[j - 1];
+                leftWeight[i] = (times[k] - times[l]) / span;
+                rightWeight[i] = (times[l] - times[j - 1]) / span;
+                stdDev[i] = Math.sqrt((times[l] - times[j - 1]) * (times[k] - times[l]) / span);
+            } else {
+                leftWeight[i] = (times[k] - times[l]) / times[k];
+                rightWeight[i] = times[l] / times[k];
+                stdDev[i] = Math.sqrt(times[l] * (times[k] - times[l]) / times[k]);
+            }
+            j = k + 1;
+            if (j >= size) {
+                j = 0;
+            }
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Turns independent normals (in order of importance) into the standardized step normals of a
+     * Brownian path, i.e. (W(t_i) - W(t_i-1)) / sqrt(t_i - t_i-1).
+     */
+    public void toStepNormals(double[] input, double[] output) {
+        output[size - 1] = stdDev[0] * input[0];
+        for (int i = 1; i < size; i++) {
+            int j = leftIndex[i];
+            int k = rightIndex[i];
+            int l = bridgeIndex[i];
+            if (j != 0) {
+                output[l] = leftWeight[i] * output[j - 1] + rightWeight[i] * output[k] + stdDev[i] * input[i];
+            } else {
+                output[l] = rightWeight[i] * output[k] + stdDev[i] * input[i];
+            }
+        }
+        // output now holds W(t_i); convert to standardized increments in place, back to front
+        for (int i = size - 1; i > 0; i--) {
+            output[i] = (output[i] - output[i - 1]) / sqrtDt[i];
+        }
+        output[0] /= sqrtDt[0];
+    }
+}
\ No newline at end of file
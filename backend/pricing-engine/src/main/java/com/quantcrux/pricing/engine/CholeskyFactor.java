@@ -0,0 +1,87 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Lower-triangular Cholesky factor L of a correlation matrix (C = L L^T), stored flat row by row.
+ * Turns independent standard normals into correlated ones, a whole path at a time.
+ */
+public final class CholeskyFactor {
+    
+    private static final double TOLERANCE = 1e-10;
+    
+    private final int size;
+    private final double[] lower;
+    
+    private CholeskyFactor(int size, double[] lower) {
+        this.size = size;
+        this.lower = lower;
+    }
+    
+    /**
+     * Factors a correlation matrix: symmetric, unit diagonal, entries in [-1, 1] and positive
+     * semi-definite. Perfectly correlated assets (zero pivots) are allowed.
+     */
+    public static CholeskyFactor of(double[][] correlation) {
+        int n = correlation.length;
+        for (int i = 0; i < n; i++) {
+            if (correlation[i].length != n) {
+                throw new IllegalArgumentException("Correlation matrix must be square");
+            }
+            if (Math.abs(correlation[i][i] - 1.0) > TOLERANCE) {
+                throw new IllegalArgumentException("Correlation matrix must have a unit diagonal");
+            }
+            for (int j = 0; j < i; j++) {
+                if (Math.abs(correlation[i][j] - correlation[j][i]) > TOLERANCE || Math.abs(correlation[i][j]) > 1.0) {
+                    throw new IllegalArgumentException("Correlation matrix must be symmetric with entries in [-1, 1]");
+                }
+            }
+        }
+        
+        double[] lower = new double[n * n];
+        for (int j = 0; j < n; j++) {
+            double pivot = correlation[j][j];
+            for (int k = 0; k < j; k++) {
+                pivot -= lower[j * n + k] * lower[j * n + k];
+            }
+            if (pivot < -TOLERANCE) {
+                throw new IllegalArgumentException("Correlation matrix is not positive semi-definite");
+            }
+            double diagonal = Math.sqrt(Math.max(0.0, pivot));
+            lower[j * n + j] = diagonal;
+            for (int i = j + 1; i < n; i++) {
+                double sum = correlation[i][j];
+                for (int k = 0; k < j; k++) {
+                    sum -= lower[i * n + k] * lower[j * n + k];
+                }
+                if (diagonal > TOLERANCE) {
+                    lower[i * n + j] = sum / diagonal;
+                } else if (Math.abs(sum) > TOLERANCE) {
+                    throw new IllegalArgumentException("Correlation matrix is not positive semi-definite");
+                }
+            }
+        }
+        return new CholeskyFactor(n, lower);
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Correlates {@code numSteps} blocks of {@code size} independent normals: for every step i,
+     * {@code w[i*size + a] = sum_b L[a][b] z[i*size + b]}. Both arrays are laid out step by step.
+     */
+    public void correlate(double[] z, double[] w, int numSteps) {
+        int n = size;
+        for (int i = 0; i < numSteps; i++) {
+            int offset = i * n;
+            for (int a = 0; a < n; a++) {
+                int row = a * n;
+                double sum = 0.0;
+                for (int b = 0; b <= a; b++) {
+                    sum += lower[row + b] * z[offset + b];
+                }
+                w[offset + a] = sum;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.quantcrux.pricing.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Simulates paths {@code firstPath} to {@code firstPath + numPaths - 1} drawing only from {@code rng}
+ * (or from a sequence positioned at {@code firstPath}) and records them in {@code accumulator}.
+ */
+@FunctionalInterface
+public interface ChunkSimulator<A extends Accumulator<A>> {
+    
+    void simulate(SplittableRandom rng, long firstPath, int numPaths, A accumulator);
+}
\ No newline at end of file
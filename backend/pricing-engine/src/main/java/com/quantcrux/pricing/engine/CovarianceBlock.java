@@ -0,0 +1,58 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Control-variate counterpart of {@link MomentBlock}: (control, target) pairs for many series,
+ * one pair per series per step, accumulated as shifted sums and handed over as {@link CovarianceStats}.
+ */
+public class CovarianceBlock {
+    
+    private final int size;
+    private final double[] shiftX;
+    private final double[] shiftY;
+    private final double[] sumX;
+    private final double[] sumY;
+    private final double[] sumXX;
+    private final double[] sumYY;
+    private final double[] sumXY;
+    private long count;
+    
+    public CovarianceBlock(int size) {
+        this.size = size;
+        this.shiftX = new double[size];
+        this.shiftY = new double[size];
+        this.sumX = new double[size];
+        this.sumY = new double[size];
+        this.sumXX = new double[size];
+        this.sumYY = new double[size];
+        this.sumXY = new double[size];
+    }
+    
+    public void add(double[] x, double[] y) {
+        if (count == 0) {
+            System.arraycopy(x, 0, shiftX, 0, size);
+            System.arraycopy(y, 0, shiftY, 0, size);
+        }
+        count++;
+        for (int i = 0; i < size; i++) {
+            double dx = x[i] - shiftX[i];
+            double dy = y[i] - shiftY[i];
+            sumX[i] += dx;
+            sumY[i] += dy;
+            sumXX[i] += dx * dx;
+            sumYY[i] += dy * dy;
+            sumXY[i] += dx * dy;
+        }
+    }
+    
+    public CovarianceStats toCovarianceStats(int series) {
+        if (count == 0) {
+            return new CovarianceStats();
+        }
+        double sx = sumX[series];
+        double sy = sumY[series];
+        return CovarianceStats.of(count, shiftX[series] + sx / count, shiftY[series] + sy / count,
+                Math.max(0.0, sumXX[series] - sx * sx / count),
+                Math.max(0.0, sumYY[series] - sy * sy / count),
+                sumXY[series] - sx * sy / count);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Single-pass, mergeable accumulator for a target sample {@code y} and a control {@code x}
+ * with known expectation, used for control-variate estimators.
+ */
+public class CovarianceStats implements Accumulator<CovarianceStats> {
+    
+    private long count;
+    private double meanX;
+    private double meanY;
+    private double m2x;
+    private double m2y;
+    private double cxy;
+    
+    // Accumulator holding already-computed moments: means, sums of squared deviations and co-deviation
+    public static CovarianceStats of(long count, double meanX, double meanY, double m2x, double m2y, double cxy) {
+        CovarianceStats stats = new CovarianceStats();
+        stats.count = count;
+        stats.meanX = meanX;
+        stats.meanY = meanY;
+        stats.m2x = m2x;
+        stats.m2y = m2y;
+        stats.cxy = cxy;
+        return stats;
+    }
+    
+    public void add(double x, double y) {
+        count++;
+        double dx = x - meanX;
+        double dy = y - meanY;
+        meanX += dx / count;
+        meanY += dy / count;
+        m2x += dx * (x - meanX);
+        m2y += dy * (y - meanY);
+        cxy += dx * (y - meanY);
+    }
+    
+    @Override
+    public void merge(CovarianceStats other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            meanX = other.meanX;
+            meanY = other.meanY;
+            m2x = other.m2x;
+            m2y = other.m2y;
+            cxy = other.cxy;
+            return;
+        }
+        long total = count + other.count;
+        double weight = (double) count * other.count / total;
+        double dx = other.meanX - meanX;
+        double dy = other.meanY - meanY;
+        meanX += dx * other.count / total;
+        meanY += dy * other.count / total;
+        m2x += other.m2x + dx * dx * weight;
+        m2y += other.m2y + dy * dy * weight;
+        cxy += other.cxy + dx * dy * weight;
+        count = total;
+    }
+    
+    public long getCount() { return count; }
+    
+    public double getVarianceY() {
+        return count > 1 ? m2y / (count - 1) : 0.0;
+    }
+    
+    // Optimal control coefficient Cov(x, y) / Var(x)
+    public double getBeta() {
+        return m2x > 0 ? cxy / m2x : 0.0;
+    }
+    
+    public double getControlledMean(double expectedX) {
+        return meanY - getBeta() * (meanX - expectedX);
+    }
+    
+    public double getControlledVariance() {
+        if (count < 2) {
+            return 0.0;
+        }
+        double residual = m2x > 0 ? m2y - cxy * cxy / m2x : m2y;
+        return Math.max(0.0, residual / (count - 1));
+    }
+}
\ No newline at end of file
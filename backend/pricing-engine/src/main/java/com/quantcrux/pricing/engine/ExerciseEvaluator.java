@@ -0,0 +1,90 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Vanilla options exercisable on every date of the grid. Each instrument's Longstaff-Schwartz rule
+ * decides exercise in every Greek scenario of the priced paths; exercise proceeds are accrued to
+ * maturity like every other cash flow, so the common discounting applies.
+ */
+public class ExerciseEvaluator implements PathGroupEvaluator {
+    
+    private final TimeGrid grid;
+    private final ExerciseRule[] rules;
+    private final double logSpot;
+    private final double rate;
+    private final double vol;
+    private final double bumpedVol;
+    private final double timeReduction;
+    private final double[] strikes;
+    private final double[] signs;
+    private final double[] logStrikes;
+    private final double[] accruals;
+    
+    // rules[k] is instrument k's rule, regressed on other paths; market data is read from the first instrument
+    public ExerciseEvaluator(PricingParameters[] group, TimeGrid grid, ExerciseRule[] rules) {
+        this.grid = grid;
+        this.rules = rules;
+        this.logSpot = Math.log(group[0].getSpot());
+        this.rate = group[0].getRate();
+        this.vol = group[0].getVolatility();
+        this.bumpedVol = vol + GreekScenarios.VOL_BUMP;
+        this.timeReduction = GreekScenarios.timeReduction(grid.getStep(0));
+        int numInstruments = group.length;
+        this.strikes = new double[numInstruments];
+        this.signs = new double[numInstruments];
+        this.logStrikes = new double[numInstruments];
+        for (int k = 0; k < numInstruments; k++) {
+            strikes[k] = group[k].getStrike();
+            signs[k] = group[k].isCall() ? 1.0 : -1.0;
+            logStrikes[k] = Math.log(strikes[k]);
+        }
+        int n = grid.size();
+        this.accruals = new double[n];
+        for (int i = 0; i < n; i++) {
+            accruals[i] = Math.exp(rate * (grid.getMaturity() - grid.getTime(i)));
+        }
+    }
+    
+    @Override
+    public double getTimeReduction() {
+        return timeReduction;
+    }
+    
+    @Override
+    public void evaluate(double[] z, double[] payoffs, double[] controls) {
+        int n = grid.size();
+        StepBuffers buffers = StepBuffers.forCurrentThread();
+        double[] logPath = buffers.get(StepBuffers.BASE_PATH, n);
+        double[] volPath = buffers.get(StepBuffers.VOL_UP_PATH, n);
+        double[] timePath = buffers.get(StepBuffers.TIME_DOWN_PATH, n);
+        GbmPaths.fillLogPath(logSpot, rate, vol, grid, 0.0, z, logPath);
+        GbmPaths.fillLogPath(logSpot, rate, bumpedVol, grid, 0.0, z, volPath);
+        GbmPaths.fillLogPath(logSpot, rate, vol, grid, timeReduction, z, timePath);
+        for (int k = 0; k < rules.length; k++) {
+            ExerciseRule rule = rules[k];
+            double strike = strikes[k];
+            double sign = signs[k];
+            int offset = k * GreekScenarios.COUNT;
+            payoffs[offset + GreekScenarios.BASE] = exercisedValue(rule, strike, sign, logPath, 0.0);
+            payoffs[offset + GreekScenarios.SPOT_UP] = exercisedValue(rule, strike, sign, logPath,
+                    GreekScenarios.SPOT_UP_SHIFT);
+            payoffs[offset + GreekScenarios.SPOT_DOWN] = exercisedValue(rule, strike, sign, logPath,
+                    GreekScenarios.SPOT_DOWN_SHIFT);
+            payoffs[offset + GreekScenarios.VOL_UP] = exercisedValue(rule, strike, sign, volPath, 0.0);
+            payoffs[offset + GreekScenarios.TIME_DOWN] = exercisedValue(rule, strike, sign, timePath, 0.0);
+            controls[k] = logPath[n - 1] > logStrikes[k] ? 1.0 : 0.0;
+        }
+    }
+    
+    // Proceeds of a vanilla on one path, valued at maturity: exercised on the first date the rule says so
+    private double exercisedValue(ExerciseRule rule, double strike, double sign, double[] logPath, double logShift) {
+        int last = accruals.length - 1;
+        for (int i = 0; i < last; i++) {
+            double level = Math.exp(logPath[i] + logShift);
+            double value = Math.max(0.0, sign * (level - strike));
+            if (rule.exercise(i, level, value)) {
+                return value * accruals[i];
+            }
+        }
+        return Math.max(0.0, sign * (Math.exp(logPath[last] + logShift) - strike));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Early-exercise decision from a Longstaff-Schwartz regression: on each date of the exercise grid, the
+ * continuation value as a polynomial in {@code level / scale}, in money of that date. Exercise is taken
+ * when it pays something and at least the estimated continuation value. Dates without a regression (the
+ * last date, or too few paths in the money) never exercise early.
+ */
+public class ExerciseRule {
+    
+    private final double scale;
+    private final double[][] coefficients;
+    private final double inSamplePrice;
+    
+    public ExerciseRule(double scale, double[][] coefficients, double inSamplePrice) {
+        this.scale = scale;
+        this.coefficients = coefficients;
+        this.inSamplePrice = inSamplePrice;
+    }
+    
+    public double continuation(int date, double level) {
+        double[] c = coefficients[date];
+        if (c == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double x = level / scale;
+        double value = 0.0;
+        for (int j = c.length - 1; j >= 0; j--) {
+            value = value * x + c[j];
+        }
+        return value;
+    }
+    
+    public boolean exercise(int date, double level, double exerciseValue) {
+        return exerciseValue > 0 && exerciseValue >= continuation(date, level);
+    }
+    
+    // Discounted mean cash flow on the regression paths themselves (biased high by foresight)
+    public double getInSamplePrice() { return inSamplePrice; }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Log-price paths of geometric Brownian motion on a time grid.
+ */
+public final class GbmPaths {
+    
+    private GbmPaths() {}
+    
+    /**
+     * Fills {@code logPath[i]} with ln S(t_i) from the standardized step normals {@code z}.
+     * {@code firstStepReduction} shortens the first step only, which moves today one step closer
+     * to every date (used for theta on the same normals).
+     */
+    public static void fillLogPath(double logSpot, double rate, double vol, TimeGrid grid,
+                                   double firstStepReduction, double[] z, double[] logPath) {
+        double x = logSpot;
+        double halfVariance = 0.5 * vol * vol;
+        for (int i = 0; i < grid.size(); i++) {
+            double dt = i == 0 ? Math.max(0.0, grid.getStep(0) - firstStepReduction) : grid.getStep(i);
+            x += (rate - halfVariance) * dt + vol * Math.sqrt(dt) * z[i];
+            logPath[i] = x;
+        }
+    }
+    
+    /**
+     * Probability that a path through the given log-prices survives a knock-out barrier.
+     * With continuous monitoring the Brownian-bridge crossing probability
+     * exp(-2 (x_i - h)(x_i+1 - h) / (vol^2 dt)) is applied between dates, so coarse grids stay
+     * unbiased; otherwise the barrier is only checked on the dates.
+     *
+     * @param logShift added to every log-price (a relative spot bump on the same path)
+     */
+    public static double survivalProbability(double logSpot, double[] logPath, TimeGrid grid, double firstStepReduction,
+                                             double logShift, double logBarrier, boolean downBarrier, double vol,
+                                             boolean continuous) {
+        double sign = downBarrier ? 1.0 : -1.0;
+        double previous = sign * (logSpot + logShift - logBarrier);
+        if (previous <= 0) {
+            return 0.0;
+        }
+        double survival = 1.0;
+        for (int i = 0; i < grid.size(); i++) {
+            double distance = sign * (logPath[i] + logShift - logBarrier);
+            if (distance <= 0) {
+                return 0.0;
+            }
+            if (continuous) {
+                double dt = i == 0 ? Math.max(0.0, grid.getStep(0) - firstStepReduction) : grid.getStep(i);
+                survival *= 1.0 - crossingProbability(previous, distance, vol * vol * dt);
+            }
+            previous = distance;
+        }
+        return survival;
+    }
+    
+    /**
+     * Brownian-bridge probability of touching a barrier between two points at log-distances
+     * {@code a} and {@code b} (both on the same side), with step variance {@code variance}.
+     * Skips the exponential when the probability is negligible, which is most steps away from the barrier.
+     */
+    public static double crossingProbability(double a, double b, double variance) {
+        if (variance <= 0) {
+            return 0.0;
+        }
+        double exponent = 2.0 * a * b / variance;
+        return exponent > 40.0 ? 0.0 : Math.exp(-exponent);
+    }
+}
\ No newline at end of file
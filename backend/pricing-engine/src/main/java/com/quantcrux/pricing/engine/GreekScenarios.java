@@ -0,0 +1,44 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Common-random-number scenarios for Monte Carlo Greeks: every instrument is valued on the base path,
+ * with today's level bumped up and down, with the volatility bumped and with the first step shortened,
+ * all from the same normals. Evaluators lay the scenarios out in this order for each instrument.
+ */
+public final class GreekScenarios {
+    
+    public static final int BASE = 0;
+    public static final int SPOT_UP = 1;
+    public static final int SPOT_DOWN = 2;
+    public static final int VOL_UP = 3;
+    public static final int TIME_DOWN = 4;
+    public static final int COUNT = 5;
+    
+    public static final double SPOT_BUMP = 0.01;
+    public static final double VOL_BUMP = 0.01;
+    public static final double TIME_BUMP = 1.0 / 365.0;
+    public static final double SPOT_UP_SHIFT = Math.log(1 + SPOT_BUMP);
+    public static final double SPOT_DOWN_SHIFT = Math.log(1 - SPOT_BUMP);
+    
+    private GreekScenarios() {}
+    
+    // Time bump of a path whose first step is firstStep: the whole bump, or the whole step when it is shorter
+    public static double timeReduction(double firstStep) {
+        return Math.min(TIME_BUMP, firstStep);
+    }
+    
+    // Scenario payoffs of every instrument from the base, vol-up and time-down paths of one draw
+    static void fill(LogPathPayoff[] instruments, double logStart, double[] logPath, double[] volPath,
+                     double[] timePath, double[] payoffs, double[] controls) {
+        for (int k = 0; k < instruments.length; k++) {
+            LogPathPayoff instrument = instruments[k];
+            int offset = k * COUNT;
+            payoffs[offset + BASE] = instrument.value(logStart, logPath, 0.0);
+            payoffs[offset + SPOT_UP] = instrument.value(logStart, logPath, SPOT_UP_SHIFT);
+            payoffs[offset + SPOT_DOWN] = instrument.value(logStart, logPath, SPOT_DOWN_SHIFT);
+            payoffs[offset + VOL_UP] = instrument.value(logStart, volPath, 0.0);
+            payoffs[offset + TIME_DOWN] = instrument.value(logStart, timePath, 0.0);
+            controls[k] = 0.0;
+        }
+    }
+}
\ No newline at end of file
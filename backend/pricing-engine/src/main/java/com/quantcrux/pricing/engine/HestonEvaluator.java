@@ -0,0 +1,36 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Single-asset products under Heston dynamics, shared like {@link BasketEvaluator}: the base, vol-up
+ * and time-down paths are built once per path from the same normals, and spot bumps shift the base path.
+ */
+public class HestonEvaluator implements PathGroupEvaluator {
+    
+    private final HestonPaths paths;
+    private final LogPathPayoff[] instruments;
+    private final int numDates;
+    
+    // instruments value the underlying from today's log level paths.getLogStart()
+    public HestonEvaluator(HestonPaths paths, TimeGrid grid, LogPathPayoff[] instruments) {
+        this.paths = paths;
+        this.instruments = instruments;
+        this.numDates = grid.size();
+    }
+    
+    @Override
+    public double getTimeReduction() {
+        return paths.getTimeReduction();
+    }
+    
+    @Override
+    public void evaluate(double[] z, double[] payoffs, double[] controls) {
+        StepBuffers buffers = StepBuffers.forCurrentThread();
+        double[] logPath = buffers.get(StepBuffers.BASE_PATH, numDates);
+        double[] volPath = buffers.get(StepBuffers.VOL_UP_PATH, numDates);
+        double[] timePath = buffers.get(StepBuffers.TIME_DOWN_PATH, numDates);
+        paths.fillLogPath(HestonPaths.BASE, z, logPath);
+        paths.fillLogPath(HestonPaths.VOL_UP, z, volPath);
+        paths.fillLogPath(HestonPaths.TIME_DOWN, z, timePath);
+        GreekScenarios.fill(instruments, paths.getLogStart(), logPath, volPath, timePath, payoffs, controls);
+    }
+}
\ No newline at end of file
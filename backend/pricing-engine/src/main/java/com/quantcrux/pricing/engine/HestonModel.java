@@ -0,0 +1,52 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Heston stochastic-volatility dynamics under the risk-neutral measure:
+ * dS = r S dt + sqrt(v) S dW, dv = kappa (theta - v) dt + xi sqrt(v) dZ, d&lt;W, Z&gt; = rho dt.
+ */
+public class HestonModel {
+    
+    private final double initialVariance;
+    private final double longRunVariance;
+    private final double meanReversion;
+    private final double volOfVol;
+    private final double correlation;
+    
+    public HestonModel(double initialVariance, double longRunVariance, double meanReversion, double volOfVol,
+                       double correlation) {
+        if (!(initialVariance >= 0) || !(longRunVariance > 0)) {
+            throw new IllegalArgumentException("Heston variances must be positive");
+        }
+        if (!(meanReversion > 0) || !(volOfVol > 0)) {
+            throw new IllegalArgumentException("Heston mean reversion and vol of vol must be positive");
+        }
+        if (!(Math.abs(correlation) <= 1)) {
+            throw new IllegalArgumentException("Heston correlation must be between -1 and 1");
+        }
+        this.initialVariance = initialVariance;
+        this.longRunVariance = longRunVariance;
+        this.meanReversion = meanReversion;
+        this.volOfVol = volOfVol;
+        this.correlation = correlation;
+    }
+    
+    // Same dynamics with shift added to the initial and long-run volatilities (a parallel vol bump)
+    public HestonModel withVolShift(double shift) {
+        double initialVol = Math.sqrt(initialVariance) + shift;
+        double longRunVol = Math.sqrt(longRunVariance) + shift;
+        if (initialVol < 0 || longRunVol <= 0) {
+            throw new IllegalArgumentException("Volatility shift " + shift + " leaves no Heston volatility");
+        }
+        return new HestonModel(initialVol * initialVol, longRunVol * longRunVol, meanReversion, volOfVol, correlation);
+    }
+    
+    public double getInitialVariance() { return initialVariance; }
+    
+    public double getLongRunVariance() { return longRunVariance; }
+    
+    public double getMeanReversion() { return meanReversion; }
+    
+    public double getVolOfVol() { return volOfVol; }
+    
+    public double getCorrelation() { return correlation; }
+}
\ No newline at end of file
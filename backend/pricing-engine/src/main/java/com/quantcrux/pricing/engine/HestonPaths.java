@@ -0,0 +1,174 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Heston log-price paths with Andersen's quadratic-exponential (QE) discretization. The variance is
+ * drawn from a moment-matched squared Gaussian when it is well away from zero and from a mass at zero
+ * plus an exponential tail otherwise, and the log-price uses the exact conditional drift and the
+ * martingale correction, so steps of a month or more stay accurate where Euler needs a fine grid.
+ * <p>
+ * Each date of the grid is reached in equal sub-steps of at most {@code maxStep}; a sub-step uses two
+ * normals, {@code z[2s]} for the variance and {@code z[2s + 1]} for the log-price. The per-step constants
+ * of the base, vol-up and time-down paths are precomputed, and the variance is carried in a local, so
+ * filling a path allocates nothing.
+ */
+public final class HestonPaths {
+    
+    public static final int BASE = 0;
+    public static final int VOL_UP = 1;
+    public static final int TIME_DOWN = 2;
+    
+    // Switch from the quadratic to the exponential variance draw above this variance-to-mean-squared ratio
+    private static final double CRITICAL_PSI = 1.5;
+    
+    private final int numDates;
+    private final int numSubsteps;
+    private final int[] dateSubsteps;
+    private final double logStart;
+    private final double timeReduction;
+    private final Steps[] steps = new Steps[3];
+    
+    /**
+     * @param volBump added to the initial and long-run volatilities of the vol-up path
+     * @param timeReduction shortens the first sub-step of the time-down path (theta on the same normals)
+     */
+    public HestonPaths(TimeGrid grid, double spot, double rate, HestonModel model, double maxStep, double volBump,
+                       double timeReduction) {
+        if (spot <= 0) {
+            throw new IllegalArgumentException("Spot must be positive");
+        }
+        this.numDates = grid.size();
+        this.dateSubsteps = new int[numDates];
+        int total = 0;
+        for (int i = 0; i < numDates; i++) {
+            total += Math.max(1, (int) Math.ceil(grid.getStep(i) / maxStep - 1e-9));
+            dateSubsteps[i] = total;
+        }
+        this.numSubsteps = total;
+        double[] dts = new double[numSubsteps];
+        int s = 0;
+        for (int i = 0; i < numDates; i++) {
+            int count = dateSubsteps[i] - (i > 0 ? dateSubsteps[i - 1] : 0);
+            for (int k = 0; k < count; k++) {
+                dts[s++] = grid.getStep(i) / count;
+            }
+        }
+        this.logStart = Math.log(spot);
+        steps[BASE] = new Steps(model, rate, dts);
+        steps[VOL_UP] = new Steps(model.withVolShift(volBump), rate, dts);
+        double[] reduced = dts.clone();
+        reduced[0] = Math.max(0.0, dts[0] - timeReduction);
+        this.timeReduction = dts[0] - reduced[0];
+        steps[TIME_DOWN] = new Steps(model, rate, reduced);
+    }
+    
+    // Independent normals needed per path
+    public int getNumNormals() {
+        return 2 * numSubsteps;
+    }
+    
+    // Time by which the time-down path is shorter: the requested reduction, at most the first sub-step
+    public double getTimeReduction() {
+        return timeReduction;
+    }
+    
+    public double getLogStart() {
+        return logStart;
+    }
+    
+    /**
+     * Fills {@code logPath[i]} with ln S(t_i) on date i of the given path ({@link #BASE}, {@link #VOL_UP}
+     * or {@link #TIME_DOWN}) from the independent normals {@code z}.
+     */
+    public void fillLogPath(int path, double[] z, double[] logPath) {
+        Steps p = steps[path];
+        double x = logStart;
+        double v = p.initialVariance;
+        int date = 0;
+        for (int s = 0; s < numSubsteps; s++) {
+            double zv = z[2 * s];
+            double m = p.theta + (v - p.theta) * p.decay[s];
+            double psi = (v * p.varianceSlope[s] + p.varianceIntercept[s]) / (m * m);
+            double next;
+            double k0;
+            // Coefficient of the next variance in the log-price's moment generating function
+            double a = p.k2[s] + 0.5 * p.k4[s];
+            if (!(psi > 1e-12)) {
+                // Zero-length step (or no variance left to diffuse): the variance moves to its mean
+                next = m;
+                k0 = p.k0[s];
+            } else if (psi <= CRITICAL_PSI) {
+                double inverse = 2.0 / psi;
+                double b2 = inverse - 1 + Math.sqrt(inverse * (inverse - 1));
+                double scale = m / (1 + b2);
+                double b = Math.sqrt(b2);
+                next = scale * (b + zv) * (b + zv);
+                k0 = a * scale < 0.5
+                        ? -a * b2 * scale / (1 - 2 * a * scale) + 0.5 * Math.log(1 - 2 * a * scale)
+                        - (p.k1[s] + 0.5 * p.k3[s]) * v
+                        : p.k0[s];
+            } else {
+                double mass = (psi - 1) / (psi + 1);
+                double beta = (1 - mass) / m;
+                // 1 - U from the mirrored normal keeps the exponential tail accurate
+                double survival = Gaussian.cdf(-zv);
+                next = survival >= 1 - mass ? 0.0 : Math.log((1 - mass) / survival) / beta;
+                k0 = a < beta
+                        ? -Math.log(mass + beta * (1 - mass) / (beta - a)) - (p.k1[s] + 0.5 * p.k3[s]) * v
+                        : p.k0[s];
+            }
+            x += p.drift[s] + k0 + p.k1[s] * v + p.k2[s] * next
+                    + Math.sqrt(Math.max(0.0, p.k3[s] * v + p.k4[s] * next)) * z[2 * s + 1];
+            v = next;
+            if (s + 1 == dateSubsteps[date]) {
+                logPath[date++] = x;
+            }
+        }
+    }
+    
+    // QE constants of one path, sub-step by sub-step (central discretization of the integrated variance)
+    private static final class Steps {
+        
+        final double initialVariance;
+        final double theta;
+        final double[] decay;
+        final double[] varianceSlope;
+        final double[] varianceIntercept;
+        final double[] drift;
+        final double[] k0;
+        final double[] k1;
+        final double[] k2;
+        final double[] k3;
+        final double[] k4;
+        
+        Steps(HestonModel model, double rate, double[] dts) {
+            int n = dts.length;
+            double kappa = model.getMeanReversion();
+            double xi = model.getVolOfVol();
+            double rho = model.getCorrelation();
+            this.initialVariance = model.getInitialVariance();
+            this.theta = model.getLongRunVariance();
+            this.decay = new double[n];
+            this.varianceSlope = new double[n];
+            this.varianceIntercept = new double[n];
+            this.drift = new double[n];
+            this.k0 = new double[n];
+            this.k1 = new double[n];
+            this.k2 = new double[n];
+            this.k3 = new double[n];
+            this.k4 = new double[n];
+            for (int s = 0; s < n; s++) {
+                double dt = dts[s];
+                double e = Math.exp(-kappa * dt);
+                decay[s] = e;
+                varianceSlope[s] = xi * xi * e * (1 - e) / kappa;
+                varianceIntercept[s] = theta * xi * xi * (1 - e) * (1 - e) / (2 * kappa);
+                drift[s] = rate * dt;
+                k0[s] = -rho * kappa * theta * dt / xi;
+                k1[s] = 0.5 * dt * (kappa * rho / xi - 0.5) - rho / xi;
+                k2[s] = 0.5 * dt * (kappa * rho / xi - 0.5) + rho / xi;
+                k3[s] = 0.5 * dt * (1 - rho * rho);
+                k4[s] = k3[s];
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,227 @@
+package com.quantcrux.pricing.engine;
+
+import java.util.Arrays;
+
+/**
+ * Semi-analytic Heston prices of European vanilla and cash-or-nothing options by Fourier inversion of
+ * the characteristic function of ln(S_T / S), in the rotation-count-free ("little trap") form.
+ * <p>
+ * Everything that depends only on the model, the rate and the maturity lives in a {@link Slice}: the
+ * characteristic function at the quadrature nodes is computed once, after which any spot and strike
+ * costs one cosine and one sine per node. A calibration builds one slice per quoted maturity per trial
+ * model and reprices the whole strike strip from it.
+ */
+public final class HestonPricer {
+    
+    private static final double DIGITAL_CASH = 100.0;
+    
+    // 8-point Gauss-Legendre nodes and weights on [-1, 1]
+    private static final double[] NODES = {
+            -0.9602898564975363, -0.7966664774136267, -0.5255324099163290, -0.1834346424956498,
+            0.1834346424956498, 0.5255324099163290, 0.7966664774136267, 0.9602898564975363};
+    private static final double[] WEIGHTS = {
+            0.1012285362903763, 0.2223810344533745, 0.3137066458778873, 0.3626837833783620,
+            0.3626837833783620, 0.3137066458778873, 0.2223810344533745, 0.1012285362903763};
+    
+    private static final int MAX_PANELS = 2000;
+    private static final double TOLERANCE = 1e-12;
+    
+    private HestonPricer() {}
+    
+    public static boolean supports(ProductType productType) {
+        return productType == ProductType.VANILLA_OPTION || productType == ProductType.DIGITAL_OPTION;
+    }
+    
+    // Vanilla or digital (paying 100) at the model's own volatilities
+    public static double price(PricingParameters p, HestonModel model, double spot, double time) {
+        return price(p, new Slice(model, p.getRate(), time), spot);
+    }
+    
+    // Vanilla or digital (paying 100) on a slice of the instrument's maturity
+    public static double price(PricingParameters p, Slice slice, double spot) {
+        return p.getProductType() == ProductType.DIGITAL_OPTION
+                ? DIGITAL_CASH * slice.digitalPrice(p.isCall(), spot, p.getStrike())
+                : slice.vanillaPrice(p.isCall(), spot, p.getStrike());
+    }
+    
+    /**
+     * Kernel for the risk engine. The volatility argument moves the initial and long-run volatilities
+     * in parallel from the model's initial volatility, so vega is the sensitivity to a parallel shift.
+     */
+    public static PricingKernel kernel(PricingParameters p, HestonModel model) {
+        double baseVol = Math.sqrt(model.getInitialVariance());
+        return (spot, vol, time) -> price(p, model.withVolShift(vol - baseVol), spot, time);
+    }
+    
+    public static AnalyticResult evaluate(PricingParameters p, HestonModel model, RiskEngine riskEngine) {
+        return riskEngine.evaluate(kernel(p, model), p.getSpot(), Math.sqrt(model.getInitialVariance()), p.getTime());
+    }
+    
+    /**
+     * Characteristic function of one maturity at the quadrature nodes, with the 1 / (iu) of the
+     * inversion folded in. Panels of unit width are added until the integrands are negligible over a
+     * whole panel (or {@link #MAX_PANELS} is reached).
+     */
+    public static final class Slice {
+        
+        private final double rate;
+        private final double time;
+        private final double[] nodes;
+        private final double[] weights;
+        // phi(u - i) / (iu) and phi(u) / (iu), real and imaginary parts
+        private final double[] shiftedRe;
+        private final double[] shiftedIm;
+        private final double[] plainRe;
+        private final double[] plainIm;
+        
+        public Slice(HestonModel model, double rate, double time) {
+            if (!(time > 0)) {
+                throw new IllegalArgumentException("Heston pricing needs a positive maturity");
+            }
+            this.rate = rate;
+            this.time = time;
+            int capacity = 64 * NODES.length;
+            double[] u = new double[capacity];
+            double[] values = new double[4 * capacity];
+            int size = 0;
+            for (int j = 0; j < MAX_PANELS; j++) {
+                if (size + NODES.length > capacity) {
+                    capacity *= 2;
+                    u = Arrays.copyOf(u, capacity);
+                    values = Arrays.copyOf(values, 4 * capacity);
+                }
+                double largest = 0.0;
+                for (int q = 0; q < NODES.length; q++) {
+                    double node = j + 0.5 * (NODES[q] + 1);
+                    // Divide by iu: (a + ib) / (iu) = (b - ia) / u
+                    Complex shifted = characteristic(model, rate, time, new Complex(node, -1.0));
+                    Complex plain = characteristic(model, rate, time, new Complex(node, 0.0));
+                    u[size] = node;
+                    values[4 * size] = shifted.im / node;
+                    values[4 * size + 1] = -shifted.re / node;
+                    values[4 * size + 2] = plain.im / node;
+                    values[4 * size + 3] = -plain.re / node;
+                    largest = Math.max(largest, Math.hypot(shifted.re, shifted.im) + Math.hypot(plain.re, plain.im));
+                    size++;
+                }
+                if (largest / (j + 1) < TOLERANCE) {
+                    break;
+                }
+            }
+            this.nodes = Arrays.copyOf(u, size);
+            this.weights = new double[size];
+            this.shiftedRe = new double[size];
+            this.shiftedIm = new double[size];
+            this.plainRe = new double[size];
+            this.plainIm = new double[size];
+            for (int i = 0; i < size; i++) {
+                weights[i] = 0.5 * WEIGHTS[i % NODES.length];
+                shiftedRe[i] = values[4 * i];
+                shiftedIm[i] = values[4 * i + 1];
+                plainRe[i] = values[4 * i + 2];
+                plainIm[i] = values[4 * i + 3];
+            }
+        }
+        
+        public double vanillaPrice(boolean call, double spot, double strike) {
+            double discount = Math.exp(-rate * time);
+            double moneyness = strike / spot;
+            double k = Math.log(moneyness);
+            double integral = 0.0;
+            for (int j = 0; j < nodes.length; j++) {
+                double cos = Math.cos(nodes[j] * k);
+                double sin = Math.sin(nodes[j] * k);
+                integral += weights[j] * (cos * (shiftedRe[j] - moneyness * plainRe[j])
+                        + sin * (shiftedIm[j] - moneyness * plainIm[j]));
+            }
+            double callPrice = Math.max(0.0, spot * (0.5 * (1 - moneyness * discount) + discount * integral / Math.PI));
+            return call ? callPrice : Math.max(0.0, callPrice - spot + strike * discount);
+        }
+        
+        // Discounted probability of finishing above (call) or below (put) the strike, per unit of cash
+        public double digitalPrice(boolean call, double spot, double strike) {
+            double discount = Math.exp(-rate * time);
+            double k = Math.log(strike / spot);
+            double integral = 0.0;
+            for (int j = 0; j < nodes.length; j++) {
+                integral += weights[j] * (Math.cos(nodes[j] * k) * plainRe[j] + Math.sin(nodes[j] * k) * plainIm[j]);
+            }
+            double above = Math.min(1.0, Math.max(0.0, 0.5 + integral / Math.PI));
+            return discount * (call ? above : 1 - above);
+        }
+    }
+    
+    // E[exp(iu ln(S_T / S))] for complex u
+    private static Complex characteristic(HestonModel model, double rate, double time, Complex u) {
+        double kappa = model.getMeanReversion();
+        double xi = model.getVolOfVol();
+        double rho = model.getCorrelation();
+        Complex iu = u.timesI();
+        Complex beta = new Complex(kappa, 0.0).minus(iu.scale(rho * xi));
+        Complex d = beta.times(beta).plus(iu.plus(u.times(u)).scale(xi * xi)).sqrt();
+        // beta - d without the cancellation as the vol of vol goes to zero: (beta^2 - d^2) / (beta + d)
+        Complex betaMinusD = iu.plus(u.times(u)).scale(-xi * xi).divide(beta.plus(d));
+        Complex g = betaMinusD.divide(beta.plus(d));
+        Complex decay = d.scale(-time).exp();
+        Complex one = new Complex(1.0, 0.0);
+        Complex logRatio = one.minus(g.times(decay)).divide(one.minus(g)).log();
+        Complex c = betaMinusD.scale(time).minus(logRatio.scale(2.0))
+                .scale(kappa * model.getLongRunVariance() / (xi * xi));
+        Complex dTerm = betaMinusD.scale(1.0 / (xi * xi))
+                .times(one.minus(decay)).divide(one.minus(g.times(decay)));
+        return iu.scale(rate * time).plus(c).plus(dTerm.scale(model.getInitialVariance())).exp();
+    }
+    
+    private static final class Complex {
+        
+        final double re;
+        final double im;
+        
+        Complex(double re, double im) {
+            this.re = re;
+            this.im = im;
+        }
+        
+        Complex plus(Complex other) {
+            return new Complex(re + other.re, im + other.im);
+        }
+        
+        Complex minus(Complex other) {
+            return new Complex(re - other.re, im - other.im);
+        }
+        
+        Complex times(Complex other) {
+            return new Complex(re * other.re - im * other.im, re * other.im + im * other.re);
+        }
+        
+        Complex divide(Complex other) {
+            double norm = other.re * other.re + other.im * other.im;
+            return new Complex((re * other.re + im * other.im) / norm, (im * other.re - re * other.im) / norm);
+        }
+        
+        Complex scale(double factor) {
+            return new Complex(re * factor, im * factor);
+        }
+        
+        Complex timesI() {
+            return new Complex(-im, re);
+        }
+        
+        Complex exp() {
+            double modulus = Math.exp(re);
+            return new Complex(modulus * Math.cos(im), modulus * Math.sin(im));
+        }
+        
+        Complex log() {
+            return new Complex(Math.log(Math.hypot(re, im)), Math.atan2(im, re));
+        }
+        
+        // Principal root (non-negative real part)
+        Complex sqrt() {
+            double modulus = Math.hypot(re, im);
+            double r = Math.sqrt(0.5 * (modulus + re));
+            double i = Math.sqrt(0.5 * (modulus - re));
+            return new Complex(r, im < 0 ? -i : i);
+        }
+    }
+}
\ No newline at end of file
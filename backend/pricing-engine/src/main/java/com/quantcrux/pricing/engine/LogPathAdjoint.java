@@ -0,0 +1,18 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Payoff of one instrument on a path of log levels together with its pathwise derivatives, the input
+ * of an adjoint sweep such as {@link BasketPaths#backpropagate}. Jumps in the payoff are smoothed so the
+ * derivatives carry the sensitivity a bump would see.
+ */
+@FunctionalInterface
+public interface LogPathAdjoint {
+    
+    /**
+     * Returns the (smoothed) payoff and writes its derivative with respect to {@code logPath[i]} to
+     * {@code logPathBar[i]} for every date. Dependence on anything but the path itself (today's level,
+     * volatility, the length of the first step) is added to {@code gradient} in the
+     * {@link BasketPaths} layout.
+     */
+    double adjoint(double[] logPath, double[] logPathBar, double[] gradient);
+}
\ No newline at end of file
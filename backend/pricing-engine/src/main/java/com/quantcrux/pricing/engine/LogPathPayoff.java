@@ -0,0 +1,39 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Payoff of one instrument on a simulated path of log levels, given today's log level.
+ * {@code logShift} is added to every level, today's included (a relative spot bump on the same path).
+ */
+@FunctionalInterface
+public interface LogPathPayoff {
+    
+    double value(double logStart, double[] logPath, double logShift);
+    
+    // Vanilla, digital or knock-out digital on the log levels of its underlying (or basket), checking the
+    // barrier continuously with the given vol or, when not continuous, on the dates only
+    static LogPathPayoff of(PricingParameters instrument, TimeGrid grid, double logStart, boolean continuous,
+                            double vol) {
+        int n = grid.size();
+        double strike = instrument.getStrike();
+        double cash = instrument.getCoupon() * 100;
+        if (instrument.getProductType() == ProductType.BARRIER_OPTION) {
+            if (instrument.getBarrierType() != null) {
+                throw new IllegalArgumentException("Monte Carlo prices knock-out digital barriers only; "
+                        + "use /calculate for barrier types");
+            }
+            double logStrike = Math.log(strike);
+            double logBarrier = Math.log(instrument.getBarrier());
+            boolean downBarrier = logBarrier < logStart;
+            return (start, logPath, shift) -> logPath[n - 1] + shift > logStrike
+                    ? cash * GbmPaths.survivalProbability(start, logPath, grid, 0.0, shift, logBarrier,
+                            downBarrier, vol, continuous)
+                    : 0.0;
+        }
+        boolean digital = instrument.getProductType() == ProductType.DIGITAL_OPTION;
+        double sign = instrument.isCall() ? 1.0 : -1.0;
+        return (start, logPath, shift) -> {
+            double moneyness = sign * (Math.exp(logPath[n - 1] + shift) - strike);
+            return digital ? (moneyness > 0 ? cash : 0.0) : Math.max(0, moneyness);
+        };
+    }
+}
\ No newline at end of file
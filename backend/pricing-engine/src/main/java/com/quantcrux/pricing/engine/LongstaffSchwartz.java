@@ -0,0 +1,225 @@
+package com.quantcrux.pricing.engine;
+
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Longstaff-Schwartz least-squares Monte Carlo: regresses the realized cash flows of in-the-money paths
+ * on polynomials of the underlying, backwards from maturity, to get an {@link ExerciseRule} per instrument.
+ * <p>
+ * Regression paths are stored once as float levels in a column-major layout
+ * ({@code levels[date * numPaths + path]}), so each backward step reads one contiguous column, and memory
+ * is known up front: 4 bytes per path and date, plus 8 per path and instrument for the cash flows, with
+ * at most {@code maxStoredValues} levels per regression. The normal equations of each date are accumulated
+ * chunk by chunk on the Monte Carlo pool (basis values in a per-thread buffer) and merged in chunk order,
+ * so a seeded regression gives the same rule on any number of cores. The exercise decision of a date is
+ * applied in the same pass that accumulates the previous date's equations.
+ */
+public class LongstaffSchwartz {
+    
+    private final MonteCarloEngine monteCarloEngine;
+    private final long maxStoredValues;
+    private final int basisSize;
+    
+    public LongstaffSchwartz(MonteCarloEngine monteCarloEngine, long maxStoredValues, int basisDegree) {
+        if (basisDegree < 1) {
+            throw new IllegalArgumentException("Regression basis degree must be positive: " + basisDegree);
+        }
+        if (maxStoredValues > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("At most " + (Integer.MAX_VALUE - 8) + " stored levels fit one array");
+        }
+        this.monteCarloEngine = monteCarloEngine;
+        this.maxStoredValues = maxStoredValues;
+        this.basisSize = basisDegree + 1;
+    }
+    
+    /**
+     * Exercise rules for instruments on one geometric Brownian motion, all exercisable on every date of the
+     * grid. {@code exerciseValues[k]} is what instrument k pays when exercised at a given level, and
+     * {@code scales[k]} normalizes the level in its basis (e.g. the strike). Every pass checks
+     * {@code cancelled} between chunks and throws a CancellationException once it returns true.
+     */
+    public ExerciseRule[] regress(TimeGrid grid, double spot, double rate, double vol, int numPaths,
+                                  SplittableRandom root, DoubleUnaryOperator[] exerciseValues, double[] scales,
+                                  BooleanSupplier cancelled) {
+        int numDates = grid.size();
+        if (numPaths < basisSize) {
+            throw new IllegalArgumentException("Early exercise regression needs at least " + basisSize + " paths");
+        }
+        if ((long) numPaths * numDates > maxStoredValues) {
+            throw new IllegalArgumentException("Early exercise regression over " + numPaths + " paths and " + numDates
+                    + " dates exceeds " + maxStoredValues + " stored levels; use fewer regression paths or dates");
+        }
+        float[] levels = new float[numPaths * numDates];
+        double logSpot = Math.log(spot);
+        monteCarloEngine.simulate(0, numPaths, root, NoResult::new, (rng, firstPath, count, result) -> {
+            NormalSequence normals = NormalSequenceFactory.pseudoRandom().create(rng, firstPath);
+            double[] z = new double[numDates];
+            double[] logPath = new double[numDates];
+            for (int p = (int) firstPath; p < firstPath + count; p++) {
+                normals.next(z);
+                GbmPaths.fillLogPath(logSpot, rate, vol, grid, 0.0, z, logPath);
+                for (int i = 0; i < numDates; i++) {
+                    levels[i * numPaths + p] = (float) Math.exp(logPath[i]);
+                }
+            }
+        }, cancelled);
+        
+        int numInstruments = exerciseValues.length;
+        ExerciseRule[] rules = new ExerciseRule[numInstruments];
+        for (int k = 0; k < numInstruments; k++) {
+            rules[k] = regress(grid, rate, numPaths, levels, exerciseValues[k], scales[k], cancelled);
+        }
+        return rules;
+    }
+    
+    private ExerciseRule regress(TimeGrid grid, double rate, int numPaths, float[] levels,
+                                 DoubleUnaryOperator exerciseValue, double scale, BooleanSupplier cancelled) {
+        int numDates = grid.size();
+        double[] discounts = new double[numDates];
+        for (int i = 0; i < numDates; i++) {
+            discounts[i] = Math.exp(-rate * grid.getTime(i));
+        }
+        // Cash flow of every path, discounted to today: paid at maturity until an earlier exercise replaces it
+        double[] cashFlows = new double[numPaths];
+        int last = numDates - 1;
+        monteCarloEngine.reduce(numPaths, NoResult::new, (rng, firstPath, count, result) -> {
+            for (int p = (int) firstPath; p < firstPath + count; p++) {
+                cashFlows[p] = exerciseValue.applyAsDouble(levels[last * numPaths + p]) * discounts[last];
+            }
+        }, cancelled);
+        
+        double[][] coefficients = new double[numDates][];
+        // The rule under construction decides exercise on the dates already regressed
+        ExerciseRule partial = new ExerciseRule(scale, coefficients, Double.NaN);
+        for (int date = last - 1; date >= -1; date--) {
+            int regressed = date;
+            int decided = date + 1;
+            NormalEquations equations = monteCarloEngine.reduce(numPaths, () -> new NormalEquations(basisSize),
+                    (rng, firstPath, count, sums) -> {
+                        double[] basis = StepBuffers.forCurrentThread().get(StepBuffers.REGRESSION_BASIS, basisSize);
+                        for (int p = (int) firstPath; p < firstPath + count; p++) {
+                            if (decided < last) {
+                                double level = levels[decided * numPaths + p];
+                                double value = exerciseValue.applyAsDouble(level);
+                                if (partial.exercise(decided, level, value)) {
+                                    cashFlows[p] = value * discounts[decided];
+                                }
+                            }
+                            if (regressed >= 0) {
+                                double level = levels[regressed * numPaths + p];
+                                if (exerciseValue.applyAsDouble(level) > 0) {
+                                    fillBasis(level / scale, basis);
+                                    sums.add(basis, cashFlows[p] / discounts[regressed]);
+                                }
+                            }
+                        }
+                    }, cancelled);
+            if (regressed >= 0) {
+                coefficients[regressed] = equations.solve();
+            }
+        }
+        
+        double sum = 0.0;
+        for (double cashFlow : cashFlows) {
+            sum += cashFlow;
+        }
+        return new ExerciseRule(scale, coefficients, sum / numPaths);
+    }
+    
+    private void fillBasis(double x, double[] basis) {
+        double power = 1.0;
+        for (int j = 0; j < basisSize; j++) {
+            basis[j] = power;
+            power *= x;
+        }
+    }
+    
+    // Sums of basis outer products and basis-weighted targets (upper triangle, row by row)
+    private static final class NormalEquations implements Accumulator<NormalEquations> {
+        
+        private final int size;
+        private final double[] gram;
+        private final double[] moments;
+        private long count;
+        
+        NormalEquations(int size) {
+            this.size = size;
+            this.gram = new double[size * size];
+            this.moments = new double[size];
+        }
+        
+        void add(double[] basis, double target) {
+            for (int i = 0; i < size; i++) {
+                double bi = basis[i];
+                moments[i] += bi * target;
+                for (int j = i; j < size; j++) {
+                    gram[i * size + j] += bi * basis[j];
+                }
+            }
+            count++;
+        }
+        
+        @Override
+        public void merge(NormalEquations other) {
+            for (int i = 0; i < gram.length; i++) {
+                gram[i] += other.gram[i];
+            }
+            for (int i = 0; i < size; i++) {
+                moments[i] += other.moments[i];
+            }
+            count += other.count;
+        }
+        
+        // Least-squares coefficients by Cholesky with a relative ridge; null with too few paths to regress
+        double[] solve() {
+            if (count < 2L * size) {
+                return null;
+            }
+            double[] lower = new double[size * size];
+            for (int j = 0; j < size; j++) {
+                double pivot = gram[j * size + j] * (1 + 1e-12);
+                for (int k = 0; k < j; k++) {
+                    pivot -= lower[j * size + k] * lower[j * size + k];
+                }
+                if (!(pivot > 0)) {
+                    return null;
+                }
+                double diagonal = Math.sqrt(pivot);
+                lower[j * size + j] = diagonal;
+                for (int i = j + 1; i < size; i++) {
+                    double sum = gram[j * size + i];
+                    for (int k = 0; k < j; k++) {
+                        sum -= lower[i * size + k] * lower[j * size + k];
+                    }
+                    lower[i * size + j] = sum / diagonal;
+                }
+            }
+            double[] y = new double[size];
+            for (int i = 0; i < size; i++) {
+                double sum = moments[i];
+                for (int k = 0; k < i; k++) {
+                    sum -= lower[i * size + k] * y[k];
+                }
+                y[i] = sum / lower[i * size + i];
+            }
+            double[] x = new double[size];
+            for (int i = size - 1; i >= 0; i--) {
+                double sum = y[i];
+                for (int k = i + 1; k < size; k++) {
+                    sum -= lower[k * size + i] * x[k];
+                }
+                x[i] = sum / lower[i * size + i];
+            }
+            return x;
+        }
+    }
+    
+    // Passes that write their results in place
+    private static final class NoResult implements Accumulator<NoResult> {
+        
+        @Override
+        public void merge(NoResult other) {}
+    }
+}
\ No newline at end of file
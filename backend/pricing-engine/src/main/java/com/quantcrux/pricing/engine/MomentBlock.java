@@ -0,0 +1,48 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Mean/variance accumulator for many series that receive one sample each per step, e.g. every
+ * scenario payoff of every instrument on one path. Samples are summed around each series' first
+ * value (shifted sums), so an update is a few multiply-adds over flat arrays instead of a division
+ * per series. Meant for one chunk of paths; {@link #toRunningStats(int)} hands the result to the
+ * mergeable accumulators.
+ */
+public class MomentBlock {
+    
+    private final int size;
+    private final double[] shift;
+    private final double[] sum;
+    private final double[] sumSquares;
+    private long count;
+    
+    public MomentBlock(int size) {
+        this.size = size;
+        this.shift = new double[size];
+        this.sum = new double[size];
+        this.sumSquares = new double[size];
+    }
+    
+    // One sample per series, in series order
+    public void add(double[] values) {
+        if (count == 0) {
+            System.arraycopy(values, 0, shift, 0, size);
+        }
+        count++;
+        for (int i = 0; i < size; i++) {
+            double d = values[i] - shift[i];
+            sum[i] += d;
+            sumSquares[i] += d * d;
+        }
+    }
+    
+    public long getCount() { return count; }
+    
+    public RunningStats toRunningStats(int series) {
+        if (count == 0) {
+            return new RunningStats();
+        }
+        double s = sum[series];
+        double m2 = Math.max(0.0, sumSquares[series] - s * s / count);
+        return RunningStats.of(count, shift[series] + s / count, m2);
+    }
+}
\ No newline at end of file
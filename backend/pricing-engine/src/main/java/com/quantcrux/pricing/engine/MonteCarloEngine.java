@@ -0,0 +1,143 @@
+package com.quantcrux.pricing.engine;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs Monte Carlo paths in fixed-size chunks on a dedicated ForkJoin pool.
+ * <p>
+ * Every chunk gets its own stream split from the root generator on the calling thread, and
+ * partial results are merged in chunk order. The chunk layout depends only on the path count,
+ * so a seeded run returns the same result whatever the pool parallelism.
+ */
+public class MonteCarloEngine implements AutoCloseable {
+    
+    public static final int CHUNK_SIZE = 16_384;
+    
+    private final ForkJoinPool pool;
+    
+    public MonteCarloEngine(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+    
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+    
+    public <A extends Accumulator<A>> A simulate(long numPaths, Long seed, Supplier<A> accumulatorFactory,
+                                                 ChunkSimulator<A> simulator) {
+        SplittableRandom root = seed != null ? new SplittableRandom(seed) : new SplittableRandom();
+        return simulate(numPaths, root, accumulatorFactory, simulator);
+    }
+    
+    public <A extends Accumulator<A>> A simulate(long numPaths, SplittableRandom root, Supplier<A> accumulatorFactory,
+                                                 ChunkSimulator<A> simulator) {
+        return simulate(0, numPaths, root, accumulatorFactory, simulator);
+    }
+    
+    // Simulates paths firstPath .. firstPath + numPaths - 1, e.g. the next batch of an adaptive run
+    public <A extends Accumulator<A>> A simulate(long firstPath, long numPaths, SplittableRandom root,
+                                                 Supplier<A> accumulatorFactory, ChunkSimulator<A> simulator) {
+        return simulate(firstPath, numPaths, root, accumulatorFactory, simulator, () -> false);
+    }
+    
+    /**
+     * As above, checking {@code cancelled} before every chunk: once it returns true, chunks not yet
+     * started are skipped and the call throws {@link CancellationException}.
+     */
+    public <A extends Accumulator<A>> A simulate(long firstPath, long numPaths, SplittableRandom root,
+                                                 Supplier<A> accumulatorFactory, ChunkSimulator<A> simulator,
+                                                 BooleanSupplier cancelled) {
+        if (numPaths <= 0) {
+            throw new IllegalArgumentException("Number of simulations must be positive: " + numPaths);
+        }
+        int numChunks = (int) ((numPaths + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        SplittableRandom[] streams = new SplittableRandom[numChunks];
+        for (int i = 0; i < numChunks; i++) {
+            streams[i] = root.split();
+        }
+        
+        ChunkTask<A> task = new ChunkTask<>(streams, 0, numChunks, firstPath, numPaths, accumulatorFactory, simulator,
+                cancelled);
+        return pool.invoke(task);
+    }
+    
+    /**
+     * Runs {@code simulator} over items 0 .. numItems - 1 in {@link #CHUNK_SIZE} chunks on the pool and merges
+     * the chunks in order, without random streams ({@code rng} is null): for passes over stored paths.
+     */
+    public <A extends Accumulator<A>> A reduce(long numItems, Supplier<A> accumulatorFactory,
+                                               ChunkSimulator<A> simulator) {
+        return reduce(numItems, accumulatorFactory, simulator, () -> false);
+    }
+    
+    // As above, checking {@code cancelled} before every chunk like the cancellable simulate
+    public <A extends Accumulator<A>> A reduce(long numItems, Supplier<A> accumulatorFactory,
+                                               ChunkSimulator<A> simulator, BooleanSupplier cancelled) {
+        if (numItems <= 0) {
+            throw new IllegalArgumentException("Number of items must be positive: " + numItems);
+        }
+        int numChunks = (int) ((numItems + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        return pool.invoke(new ChunkTask<>(new SplittableRandom[numChunks], 0, numChunks, 0, numItems,
+                accumulatorFactory, simulator, cancelled));
+    }
+    
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+    
+    private static class ChunkTask<A extends Accumulator<A>> extends RecursiveTask<A> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final SplittableRandom[] streams;
+        private final int from;
+        private final int to;
+        private final long firstPath;
+        private final long numPaths;
+        private final Supplier<A> accumulatorFactory;
+        private final ChunkSimulator<A> simulator;
+        private final BooleanSupplier cancelled;
+        
+        ChunkTask(SplittableRandom[] streams, int from, int to, long firstPath, long numPaths,
+                  Supplier<A> accumulatorFactory, ChunkSimulator<A> simulator, BooleanSupplier cancelled) {
+            this.streams = streams;
+            this.from = from;
+            this.to = to;
+            this.firstPath = firstPath;
+            this.numPaths = numPaths;
+            this.accumulatorFactory = accumulatorFactory;
+            this.simulator = simulator;
+            this.cancelled = cancelled;
+        }
+        
+        @Override
+        protected A compute() {
+            if (to - from == 1) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("Simulation cancelled");
+                }
+                A accumulator = accumulatorFactory.get();
+                long offset = (long) from * CHUNK_SIZE;
+                int chunkPaths = (int) Math.min(CHUNK_SIZE, numPaths - offset);
+                simulator.simulate(streams[from], firstPath + offset, chunkPaths, accumulator);
+                return accumulator;
+            }
+            
+            int mid = (from + to) >>> 1;
+            ChunkTask<A> left = new ChunkTask<>(streams, from, mid, firstPath, numPaths, accumulatorFactory, simulator,
+                    cancelled);
+            ChunkTask<A> right = new ChunkTask<>(streams, mid, to, firstPath, numPaths, accumulatorFactory, simulator,
+                    cancelled);
+            right.fork();
+            A result = left.compute();
+            result.merge(right.join());
+            return result;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Accumulated results of a Monte Carlo pricing run: per-scenario estimator samples, the raw
+ * per-path payoffs (to measure the variance reduction achieved) and the control-variate pairs.
+ */
+public class MonteCarloStats implements Accumulator<MonteCarloStats> {
+    
+    private final ScenarioStats scenarios;
+    private final RunningStats pathPayoffs = new RunningStats();
+    private final CovarianceStats control = new CovarianceStats();
+    
+    public MonteCarloStats(int numScenarios) {
+        scenarios = new ScenarioStats(numScenarios);
+    }
+    
+    public ScenarioStats getScenarios() { return scenarios; }
+    
+    public RunningStats getPathPayoffs() { return pathPayoffs; }
+    
+    public CovarianceStats getControl() { return control; }
+    
+    @Override
+    public void merge(MonteCarloStats other) {
+        scenarios.merge(other.scenarios);
+        pathPayoffs.merge(other.pathPayoffs);
+        control.merge(other.control);
+    }
+}
\ No newline at end of file
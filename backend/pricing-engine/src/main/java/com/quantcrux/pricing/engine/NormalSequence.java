@@ -0,0 +1,19 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Source of the standard normal draws driving one path at a time.
+ */
+public interface NormalSequence {
+    
+    // Fills z with the independent standard normals of the next path, one per time step
+    void next(double[] z);
+    
+    // Fills the first numPaths * numNormals entries of block with the next numPaths paths, one after another
+    default void next(double[] block, int numPaths, int numNormals) {
+        double[] z = new double[numNormals];
+        for (int p = 0; p < numPaths; p++) {
+            next(z);
+            System.arraycopy(z, 0, block, p * numNormals, numNormals);
+        }
+    }
+}
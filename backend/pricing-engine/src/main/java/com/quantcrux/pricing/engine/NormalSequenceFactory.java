@@ -0,0 +1,69 @@
+package com.quantcrux.pricing.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Creates the normal sequence for a chunk that starts at path {@code firstPath}.
+ */
+@FunctionalInterface
+public interface NormalSequenceFactory {
+    
+    NormalSequence create(SplittableRandom rng, long firstPath);
+    
+    static NormalSequenceFactory pseudoRandom() {
+        return (rng, firstPath) -> new NormalSequence() {
+            @Override
+            public void next(double[] z) {
+                for (int i = 0; i < z.length; i++) {
+                    z[i] = rng.nextGaussian();
+                }
+            }
+            
+            @Override
+            public void next(double[] block, int numPaths, int numNormals) {
+                int size = numPaths * numNormals;
+                for (int i = 0; i < size; i++) {
+                    block[i] = rng.nextGaussian();
+                }
+            }
+        };
+    }
+    
+    // Randomized Sobol points mapped to normals, assembled into paths by a Brownian bridge
+    static NormalSequenceFactory sobol(SobolSequence sobol, BrownianBridge bridge) {
+        return sobol(sobol, bridge, GbmKernel.scalar());
+    }
+    
+    // As above; blocks of paths are mapped to normals in one kernel call
+    static NormalSequenceFactory sobol(SobolSequence sobol, BrownianBridge bridge, GbmKernel kernel) {
+        int dimension = sobol.getDimension();
+        return (rng, firstPath) -> {
+            SobolSequence.Cursor cursor = sobol.cursor(firstPath);
+            double[] uniforms = new double[dimension];
+            double[] normals = new double[dimension];
+            return new NormalSequence() {
+                @Override
+                public void next(double[] z) {
+                    cursor.next(uniforms);
+                    kernel.inverseCdf(uniforms, dimension);
+                    bridge.toStepNormals(uniforms, z);
+                }
+                
+                @Override
+                public void next(double[] block, int numPaths, int numNormals) {
+                    int size = numPaths * dimension;
+                    for (int p = 0; p < numPaths; p++) {
+                        cursor.next(uniforms);
+                        System.arraycopy(uniforms, 0, block, p * dimension, dimension);
+                    }
+                    kernel.inverseCdf(block, size);
+                    for (int p = 0; p < numPaths; p++) {
+                        System.arraycopy(block, p * dimension, normals, 0, dimension);
+                        bridge.toStepNormals(normals, uniforms);
+                        System.arraycopy(uniforms, 0, block, p * numNormals, numNormals);
+                    }
+                }
+            };
+        };
+    }
+}
\ No newline at end of file
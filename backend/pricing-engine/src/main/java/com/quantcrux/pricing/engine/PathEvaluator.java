@@ -0,0 +1,16 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Prices one simulated path from its standardized step normals: fills the scenario payoffs
+ * (base and bumped, on the same normals) and returns the value of the control variate.
+ */
+@FunctionalInterface
+public interface PathEvaluator {
+    
+    double evaluate(double[] z, double[] payoffs);
+    
+    // Time by which the time-down scenario shortened the path (0 without one)
+    default double getTimeReduction() {
+        return 0.0;
+    }
+}
\ No newline at end of file
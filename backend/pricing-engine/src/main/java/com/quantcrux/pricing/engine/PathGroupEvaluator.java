@@ -0,0 +1,64 @@
+package com.quantcrux.pricing.engine;
+
+import java.util.List;
+
+/**
+ * Prices a group of instruments on one simulated path: fills the scenario payoffs and the control
+ * value of every instrument from the same standardized step normals, so work that depends only on
+ * the path (spot levels, bumped paths) is done once for the whole group. Payoffs are laid out flat,
+ * instrument by instrument: {@code payoffs[instrument * numScenarios + scenario]}.
+ */
+@FunctionalInterface
+public interface PathGroupEvaluator {
+    
+    void evaluate(double[] z, double[] payoffs, double[] controls);
+    
+    /**
+     * Prices numPaths paths at once. The arrays hold exactly numPaths paths, one after another, each
+     * in the layout of {@link #evaluate(double[], double[], double[])}. Evaluators whose arithmetic
+     * runs across paths (SIMD lanes) override this; by default the paths are priced one at a time.
+     */
+    /**
+     * Time by which the time-down scenario shortened the paths, for theta to discount and divide by;
+     * 0 without a time-down scenario. It is less than the time bump when the first step is shorter.
+     */
+    default double getTimeReduction() {
+        return 0.0;
+    }
+    
+    default void evaluate(int numPaths, double[] z, double[] payoffs, double[] controls) {
+        int numNormals = z.length / numPaths;
+        int numPayoffs = payoffs.length / numPaths;
+        int numControls = controls.length / numPaths;
+        double[] pathZ = new double[numNormals];
+        double[] pathPayoffs = new double[numPayoffs];
+        double[] pathControls = new double[numControls];
+        for (int p = 0; p < numPaths; p++) {
+            System.arraycopy(z, p * numNormals, pathZ, 0, numNormals);
+            evaluate(pathZ, pathPayoffs, pathControls);
+            System.arraycopy(pathPayoffs, 0, payoffs, p * numPayoffs, numPayoffs);
+            System.arraycopy(pathControls, 0, controls, p * numControls, numControls);
+        }
+    }
+    
+    // Group without shared work: each instrument prices the path on its own. The members simulate the
+    // same dates, so the first one's time reduction is the group's.
+    static PathGroupEvaluator of(List<? extends PathEvaluator> evaluators, int numScenarios) {
+        PathEvaluator[] members = evaluators.toArray(new PathEvaluator[0]);
+        return new PathGroupEvaluator() {
+            @Override
+            public void evaluate(double[] z, double[] payoffs, double[] controls) {
+                double[] scenarioPayoffs = StepBuffers.forCurrentThread().get(StepBuffers.GROUP_PAYOFFS, numScenarios);
+                for (int k = 0; k < members.length; k++) {
+                    controls[k] = members[k].evaluate(z, scenarioPayoffs);
+                    System.arraycopy(scenarioPayoffs, 0, payoffs, k * numScenarios, numScenarios);
+                }
+            }
+            
+            @Override
+            public double getTimeReduction() {
+                return members.length > 0 ? members[0].getTimeReduction() : 0.0;
+            }
+        };
+    }
+}
\ No newline at end of file
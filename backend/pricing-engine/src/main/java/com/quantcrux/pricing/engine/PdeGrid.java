@@ -0,0 +1,57 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Non-uniform spot grids for finite-difference pricing. Nodes are spaced by the density
+ * {@code 0.25 + sum_j 1 / sqrt(1 + ((S - p_j) / width)^2)}, which packs them around each
+ * concentration point p_j (strike, spot, barrier) and spreads them towards the far boundaries.
+ */
+public final class PdeGrid {
+    
+    private static final int SAMPLES_PER_NODE = 16;
+    
+    private PdeGrid() {}
+    
+    /**
+     * {@code size} increasing nodes from {@code min} to {@code max} inclusive, concentrated around
+     * the given points; {@code width} is the distance over which the concentration fades.
+     */
+    public static double[] concentrated(double min, double max, int size, double[] points, double width) {
+        if (size < 3 || !(max > min) || !(width > 0)) {
+            throw new IllegalArgumentException("Grid needs at least 3 nodes, max > min and a positive width");
+        }
+        // Cumulative density on a fine uniform sampling, inverted by linear interpolation
+        int samples = size * SAMPLES_PER_NODE;
+        double step = (max - min) / samples;
+        double[] cumulative = new double[samples + 1];
+        double previous = density(min, points, width);
+        for (int k = 1; k <= samples; k++) {
+            double current = density(min + k * step, points, width);
+            cumulative[k] = cumulative[k - 1] + 0.5 * (previous + current) * step;
+            previous = current;
+        }
+        
+        double[] nodes = new double[size];
+        double total = cumulative[samples];
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            double target = total * i / (size - 1);
+            while (k < samples - 1 && cumulative[k + 1] < target) {
+                k++;
+            }
+            double weight = (target - cumulative[k]) / (cumulative[k + 1] - cumulative[k]);
+            nodes[i] = min + (k + Math.max(0.0, Math.min(1.0, weight))) * step;
+        }
+        nodes[0] = min;
+        nodes[size - 1] = max;
+        return nodes;
+    }
+    
+    private static double density(double s, double[] points, double width) {
+        double density = 0.25;
+        for (double point : points) {
+            double distance = (s - point) / width;
+            density += 1.0 / Math.sqrt(1.0 + distance * distance);
+        }
+        return density;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * {@link MonteCarloStats} for each instrument of a group priced on the same paths.
+ */
+public class PortfolioStats implements Accumulator<PortfolioStats> {
+    
+    private final MonteCarloStats[] instruments;
+    
+    public PortfolioStats(int numInstruments, int numScenarios) {
+        instruments = new MonteCarloStats[numInstruments];
+        for (int i = 0; i < numInstruments; i++) {
+            instruments[i] = new MonteCarloStats(numScenarios);
+        }
+    }
+    
+    public MonteCarloStats get(int instrument) {
+        return instruments[instrument];
+    }
+    
+    public int size() {
+        return instruments.length;
+    }
+    
+    @Override
+    public void merge(PortfolioStats other) {
+        for (int i = 0; i < instruments.length; i++) {
+            instruments[i].merge(other.instruments[i]);
+        }
+    }
+}
\ No newline at end of file
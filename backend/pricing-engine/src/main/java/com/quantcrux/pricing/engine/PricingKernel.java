@@ -0,0 +1,11 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Price of one instrument as a function of the market inputs the risk engine bumps,
+ * on primitive doubles. Everything else about the instrument is fixed when the kernel is created.
+ */
+@FunctionalInterface
+public interface PricingKernel {
+    
+    double price(double spot, double vol, double time);
+}
\ No newline at end of file
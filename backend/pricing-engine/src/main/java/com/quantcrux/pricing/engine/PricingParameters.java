@@ -0,0 +1,59 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Market and contract inputs of one instrument with every default applied, in primitives.
+ * Built once per request; pricers and kernels read it without further checks or conversions.
+ */
+public class PricingParameters {
+    
+    private final ProductType productType;
+    private final double spot;
+    private final double strike;
+    private final double barrier;
+    private final double coupon;
+    private final double volatility;
+    private final double rate;
+    private final double time;
+    private final boolean call;
+    private final BarrierType barrierType;
+    private final double rebate;
+    
+    public PricingParameters(ProductType productType, double spot, double strike, double barrier, double coupon,
+                             double volatility, double rate, double time, boolean call, BarrierType barrierType,
+                             double rebate) {
+        this.productType = productType;
+        this.spot = spot;
+        this.strike = strike;
+        this.barrier = barrier;
+        this.coupon = coupon;
+        this.volatility = volatility;
+        this.rate = rate;
+        this.time = time;
+        this.call = call;
+        this.barrierType = barrierType;
+        this.rebate = rebate;
+    }
+    
+    public ProductType getProductType() { return productType; }
+    
+    public double getSpot() { return spot; }
+    
+    public double getStrike() { return strike; }
+    
+    public double getBarrier() { return barrier; }
+    
+    public double getCoupon() { return coupon; }
+    
+    public double getVolatility() { return volatility; }
+    
+    public double getRate() { return rate; }
+    
+    public double getTime() { return time; }
+    
+    public boolean isCall() { return call; }
+    
+    // null for the knock-out digital barrier product
+    public BarrierType getBarrierType() { return barrierType; }
+    
+    public double getRebate() { return rebate; }
+}
\ No newline at end of file
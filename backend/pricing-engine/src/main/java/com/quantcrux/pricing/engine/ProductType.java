@@ -0,0 +1,33 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Products the pricing engine knows. Request values are the lower-case names; anything
+ * unrecognised is priced as a vanilla option, as it always has been.
+ */
+public enum ProductType {
+    VANILLA_OPTION(false),
+    DIGITAL_OPTION(false),
+    BARRIER_OPTION(true),
+    AUTOCALLABLE(true);
+    
+    private final boolean pathDependent;
+    
+    ProductType(boolean pathDependent) {
+        this.pathDependent = pathDependent;
+    }
+    
+    // Simulated on a time grid rather than straight to maturity
+    public boolean isPathDependent() { return pathDependent; }
+    
+    public static ProductType parse(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Product type is required");
+        }
+        for (ProductType type : values()) {
+            if (type.name().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        return VANILLA_OPTION;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Single-pass mean/variance accumulator (Welford), mergeable across chunks (Chan et al.).
+ * Memory use is constant whatever the number of samples.
+ */
+public class RunningStats implements Accumulator<RunningStats> {
+    
+    private long count;
+    private double mean;
+    private double m2;
+    
+    // Accumulator holding already-computed moments: count, mean and sum of squared deviations
+    public static RunningStats of(long count, double mean, double m2) {
+        RunningStats stats = new RunningStats();
+        stats.count = count;
+        stats.mean = mean;
+        stats.m2 = m2;
+        return stats;
+    }
+    
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+    
+    @Override
+    public void merge(RunningStats other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+    }
+    
+    public long getCount() { return count; }
+    
+    public double getMean() { return mean; }
+    
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0.0;
+    }
+    
+    public double getStandardError() {
+        return count > 0 ? Math.sqrt(getVariance() / count) : 0.0;
+    }
+    
+    // Half-width of the two-sided confidence interval for the mean at the given normal quantile
+    public double getConfidenceHalfWidth(double quantile) {
+        return quantile * getStandardError();
+    }
+}
\ No newline at end of file
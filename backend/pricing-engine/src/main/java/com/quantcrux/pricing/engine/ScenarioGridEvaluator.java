@@ -0,0 +1,84 @@
+package com.quantcrux.pricing.engine;
+
+import java.util.Arrays;
+
+/**
+ * Spot and volatility scenario grid of one instrument on shared paths. Each volatility shift is an
+ * instrument of the group (a column, with its own path from the same normals) and each spot shift a
+ * scenario of it: {@code payoffs[column * numSpots + spot]}. There are no controls.
+ */
+public class ScenarioGridEvaluator implements PathGroupEvaluator {
+    
+    // Writes the base log path of one volatility column from the step normals
+    @FunctionalInterface
+    private interface ColumnPaths {
+        
+        void fill(double[] z, int column, double[] logPath);
+    }
+    
+    private final ColumnPaths paths;
+    private final LogPathPayoff[] columnPayoffs;
+    private final double logStart;
+    private final double[] logShifts;
+    private final int numDates;
+    
+    private ScenarioGridEvaluator(ColumnPaths paths, LogPathPayoff[] columnPayoffs, double logStart,
+                                  double[] logShifts, int numDates) {
+        this.paths = paths;
+        this.columnPayoffs = columnPayoffs;
+        this.logStart = logStart;
+        this.logShifts = logShifts;
+        this.numDates = numDates;
+    }
+    
+    // Black-Scholes paths with volatility vols[j] in column j, valued by columnPayoffs[j]
+    public static ScenarioGridEvaluator gbm(double spot, double rate, double[] vols, TimeGrid grid,
+                                            LogPathPayoff[] columnPayoffs, double[] logShifts) {
+        double logSpot = Math.log(spot);
+        return new ScenarioGridEvaluator((z, column, logPath) ->
+                GbmPaths.fillLogPath(logSpot, rate, vols[column], grid, 0.0, z, logPath),
+                columnPayoffs, logSpot, logShifts, grid.size());
+    }
+    
+    // Heston paths of columns[j] in column j
+    public static ScenarioGridEvaluator heston(HestonPaths[] columns, TimeGrid grid, LogPathPayoff payoff,
+                                               double[] logShifts) {
+        return new ScenarioGridEvaluator((z, column, logPath) -> columns[column].fillLogPath(HestonPaths.BASE, z, logPath),
+                repeat(payoff, columns.length), columns[0].getLogStart(), logShifts, grid.size());
+    }
+    
+    // Basket paths of columns[j] in column j; the columns share their correlation, so the draws are correlated once
+    public static ScenarioGridEvaluator basket(BasketPaths[] columns, TimeGrid grid, LogPathPayoff payoff,
+                                               double[] logShifts) {
+        int numNormals = columns[0].getNumNormals();
+        int numAssets = columns[0].getNumAssets();
+        return new ScenarioGridEvaluator((z, column, logPath) -> {
+            StepBuffers buffers = StepBuffers.forCurrentThread();
+            double[] w = buffers.get(StepBuffers.CORRELATED_NORMALS, numNormals);
+            double[] assetLogs = buffers.get(StepBuffers.ASSET_LEVELS, numAssets);
+            if (column == 0) {
+                columns[0].correlate(z, w);
+            }
+            columns[column].fillBasketLogPath(BasketPaths.BASE, w, assetLogs, logPath);
+        }, repeat(payoff, columns.length), columns[0].getLogStart(), logShifts, grid.size());
+    }
+    
+    private static LogPathPayoff[] repeat(LogPathPayoff payoff, int count) {
+        LogPathPayoff[] payoffs = new LogPathPayoff[count];
+        Arrays.fill(payoffs, payoff);
+        return payoffs;
+    }
+    
+    @Override
+    public void evaluate(double[] z, double[] payoffs, double[] controls) {
+        double[] logPath = StepBuffers.forCurrentThread().get(StepBuffers.BASE_PATH, numDates);
+        int numSpots = logShifts.length;
+        for (int j = 0; j < columnPayoffs.length; j++) {
+            paths.fill(z, j, logPath);
+            for (int i = 0; i < numSpots; i++) {
+                payoffs[j * numSpots + i] = columnPayoffs[j].value(logStart, logPath, logShifts[i]);
+            }
+            controls[j] = 0.0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * One {@link RunningStats} per scenario, filled from the same simulated paths
+ * (common random numbers).
+ */
+public class ScenarioStats implements Accumulator<ScenarioStats> {
+    
+    private final RunningStats[] scenarios;
+    
+    public ScenarioStats(int numScenarios) {
+        scenarios = new RunningStats[numScenarios];
+        for (int i = 0; i < numScenarios; i++) {
+            scenarios[i] = new RunningStats();
+        }
+    }
+    
+    public void add(int scenario, double value) {
+        scenarios[scenario].add(value);
+    }
+    
+    public RunningStats get(int scenario) {
+        return scenarios[scenario];
+    }
+    
+    public int size() {
+        return scenarios.length;
+    }
+    
+    @Override
+    public void merge(ScenarioStats other) {
+        for (int i = 0; i < scenarios.length; i++) {
+            scenarios[i].merge(other.scenarios[i]);
+        }
+    }
+}
\ No newline at end of file
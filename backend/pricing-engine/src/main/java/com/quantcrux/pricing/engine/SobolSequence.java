@@ -0,0 +1,232 @@
+package com.quantcrux.pricing.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sobol low-discrepancy sequence in base 2 with random linear scrambling and digital shift
+ * (Matousek), so that independent randomizations give an unbiased error estimate.
+ * <p>
+ * Dimensions 1-21 use the Joe-Kuo direction numbers; higher dimensions use the following
+ * primitive polynomials with fixed pseudo-random initial numbers.
+ */
+public class SobolSequence {
+    
+    public static final int MAX_DIMENSION = 1024;
+    private static final int BITS = 32;
+    
+    // Joe-Kuo (new-joe-kuo-6.21201) degree, polynomial coefficients and initial numbers for dimensions 2-21
+    private static final int[][] JOE_KUO = {
+            {1, 0, 1},
+            {2, 1, 1, 3},
+            {3, 1, 1, 3, 1},
+            {3, 2, 1, 1, 1},
+            {4, 1, 1, 1, 3, 3},
+            {4, 4, 1, 3, 5, 13},
+            {5, 2, 1, 1, 5, 5, 17},
+            {5, 4, 1, 1, 5, 5, 5},
+            {5, 7, 1, 1, 7, 11, 19},
+            {5, 11, 1, 1, 5, 1, 1},
+            {5, 13, 1, 1, 1, 3, 11},
+            {5, 14, 1, 3, 5, 5, 31},
+            {6, 1, 1, 3, 3, 9, 7, 49},
+            {6, 13, 1, 1, 1, 15, 21, 21},
+            {6, 16, 1, 3, 1, 13, 27, 49},
+            {6, 19, 1, 1, 1, 15, 7, 5},
+            {6, 22, 1, 3, 1, 15, 13, 25},
+            {6, 25, 1, 1, 5, 5, 19, 61},
+            {7, 1, 1, 3, 7, 11, 23, 15, 103},
+            {7, 4, 1, 3, 7, 13, 13, 15, 69}
+    };
+    
+    private static final int[][] DIRECTIONS = buildDirections();
+    
+    private final int dimension;
+    private final int[][] directions;
+    private final int[] shift;
+    
+    public SobolSequence(int dimension, SplittableRandom scramblingRng) {
+        if (dimension < 1 || dimension > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Sobol dimension must be between 1 and " + MAX_DIMENSION);
+        }
+        this.dimension = dimension;
+        this.directions = new int[dimension][];
+        this.shift = new int[dimension];
+        for (int d = 0; d < dimension; d++) {
+            directions[d] = scramblingRng != null ? scramble(DIRECTIONS[d], scramblingRng) : DIRECTIONS[d];
+            shift[d] = scramblingRng != null ? scramblingRng.nextInt() : 0;
+        }
+    }
+    
+    // The unscrambled sequence, to check the direction numbers against published points
+    static SobolSequence unscrambled(int dimension) {
+        return new SobolSequence(dimension, null);
+    }
+    
+    public int getDimension() {
+        return dimension;
+    }
+    
+    // Cursor positioned at point index, for a chunk that starts mid-sequence
+    public Cursor cursor(long index) {
+        if (index < 0 || index >= (1L << BITS)) {
+            throw new IllegalArgumentException("Sobol index out of range: " + index);
+        }
+        return new Cursor(index);
+    }
+    
+    public class Cursor {
+        
+        private final int[] state = new int[dimension];
+        private long index;
+        
+        private Cursor(long index) {
+            this.index = index;
+            long gray = index ^ (index >>> 1);
+            for (int d = 0; d < dimension; d++) {
+                int x = shift[d];
+                for (int bit = 0; gray >>> bit != 0; bit++) {
+                    if (((gray >>> bit) & 1) != 0) {
+                        x ^= directions[d][bit];
+                    }
+                }
+                state[d] = x;
+            }
+        }
+        
+        // Writes the current point as uniforms in (0, 1) and advances in Gray-code order
+        public void next(double[] point) {
+            for (int d = 0; d < dimension; d++) {
+                point[d] = ((state[d] & 0xFFFFFFFFL) + 0.5) * 0x1.0p-32;
+            }
+            index++;
+            int bit = Long.numberOfTrailingZeros(index);
+            for (int d = 0; d < dimension; d++) {
+                state[d] ^= directions[d][bit];
+            }
+        }
+    }
+    
+    // Multiplies each direction number by a random non-singular lower-triangular bit matrix
+    private static int[] scramble(int[] v, SplittableRandom rng) {
+        int[] rows = new int[BITS];
+        for (int i = 0; i < BITS; i++) {
+            // Row i acts on digit i (bit 31 - i) and the more significant digits before it
+            int above = i == 0 ? 0 : rng.nextInt() & (-1 << (BITS - i));
+            rows[i] = above | (1 << (BITS - 1 - i));
+        }
+        int[] scrambled = new int[BITS];
+        for (int k = 0; k < BITS; k++) {
+            int value = 0;
+            for (int i = 0; i < BITS; i++) {
+                if ((Integer.bitCount(rows[i] & v[k]) & 1) != 0) {
+                    value |= 1 << (BITS - 1 - i);
+                }
+            }
+            scrambled[k] = value;
+        }
+        return scrambled;
+    }
+    
+    private static int[][] buildDirections() {
+        int[][] directions = new int[MAX_DIMENSION][BITS];
+        for (int k = 0; k < BITS; k++) {
+            directions[0][k] = 1 << (BITS - 1 - k);
+        }
+        
+        SplittableRandom initialNumbers = new SplittableRandom(0x5EED5EEDL);
+        int degree = 7;
+        int coefficients = 4;
+        for (int d = 1; d < MAX_DIMENSION; d++) {
+            int s;
+            int a;
+            int[] m;
+            if (d <= JOE_KUO.length) {
+                int[] row = JOE_KUO[d - 1];
+                s = row[0];
+                a = row[1];
+                m = new int[s];
+                System.arraycopy(row, 2, m, 0, s);
+            } else {
+                // Next primitive polynomial after the last tabulated one, odd m_k < 2^k
+                do {
+                    coefficients++;
+                    if (coefficients >= 1 << (degree - 1)) {
+                        degree++;
+                        coefficients = 0;
+                    }
+                } while (!isPrimitive(degree, coefficients));
+                s = degree;
+                a = coefficients;
+                m = new int[s];
+                for (int k = 0; k < s; k++) {
+                    m[k] = (initialNumbers.nextInt(1 << k) << 1) | 1;
+                }
+            }
+            
+            int[] v = directions[d];
+            for (int k = 0; k < Math.min(s, BITS); k++) {
+                v[k] = m[k] << (BITS - 1 - k);
+            }
+            for (int k = s; k < BITS; k++) {
+                v[k] = v[k - s] ^ (v[k - s] >>> s);
+                for (int j = 1; j < s; j++) {
+                    if (((a >>> (s - 1 - j)) & 1) != 0) {
+                        v[k] ^= v[k - j];
+                    }
+                }
+            }
+        }
+        return directions;
+    }
+    
+    // x^s + a_1 x^(s-1) + ... + a_(s-1) x + 1 is primitive over GF(2) iff x has order 2^s - 1,
+    // i.e. x^order = 1 and x^(order / q) != 1 for every prime q dividing the order
+    private static boolean isPrimitive(int s, int a) {
+        int poly = (1 << s) | (a << 1) | 1;
+        long order = (1L << s) - 1;
+        if (powerOfX(order, poly, s) != 1) {
+            return false;
+        }
+        long remaining = order;
+        for (long q = 2; q * q <= remaining; q++) {
+            if (remaining % q == 0) {
+                if (powerOfX(order / q, poly, s) == 1) {
+                    return false;
+                }
+                while (remaining % q == 0) {
+                    remaining /= q;
+                }
+            }
+        }
+        return remaining == 1 || powerOfX(order / remaining, poly, s) != 1;
+    }
+    
+    // x^e mod poly over GF(2)
+    private static long powerOfX(long e, int poly, int s) {
+        long result = 1;
+        long base = 2;
+        while (e > 0) {
+            if ((e & 1) != 0) {
+                result = multiplyMod(result, base, poly, s);
+            }
+            base = multiplyMod(base, base, poly, s);
+            e >>= 1;
+        }
+        return result;
+    }
+    
+    private static long multiplyMod(long x, long y, int poly, int s) {
+        long product = 0;
+        while (y != 0) {
+            if ((y & 1) != 0) {
+                product ^= x;
+            }
+            y >>= 1;
+            x <<= 1;
+            if ((x & (1L << s)) != 0) {
+                x ^= poly;
+            }
+        }
+        return product;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Per-thread scratch arrays for path simulation, so long paths do not allocate per step or per path.
+ * Pool threads keep their buffers across chunks and requests; contents are not preserved between uses.
+ */
+public final class StepBuffers {
+    
+    // Slots by contents. A path evaluator holds the path slots while it prices a path; the payoff adjoints,
+    // groups and regressions it may call have slots of their own.
+    public static final int BASE_PATH = 0;
+    public static final int VOL_UP_PATH = 1;
+    public static final int TIME_DOWN_PATH = 2;
+    public static final int CORRELATED_NORMALS = 3;
+    public static final int ASSET_LEVELS = 4;
+    public static final int SCENARIO_LEVELS = 5;
+    public static final int PATH_ADJOINT = 6;
+    public static final int ASSET_ADJOINTS = 7;
+    public static final int GRADIENT = 8;
+    public static final int SURVIVAL_PRODUCTS = 9;
+    public static final int REGRESSION_BASIS = 10;
+    public static final int GROUP_PAYOFFS = 11;
+    
+    private static final int SLOTS = 12;
+    private static final ThreadLocal<StepBuffers> BUFFERS = ThreadLocal.withInitial(StepBuffers::new);
+    
+    private final double[][] slots = new double[SLOTS][0];
+    
+    private StepBuffers() {}
+    
+    public static StepBuffers forCurrentThread() {
+        return BUFFERS.get();
+    }
+    
+    // Array of at least the given length for the given slot, reused on subsequent calls
+    public double[] get(int slot, int length) {
+        if (slots[slot].length < length) {
+            slots[slot] = new double[length];
+        }
+        return slots[slot];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Vanilla and digital options on one underlying that pay on the terminal price only. The bumped spot,
+ * vol and time terminal prices are computed once per path on the same normal and shared by every
+ * instrument of the group; the terminal prices of a block of paths come from the GBM kernel in one call
+ * per scenario. Digitals pay {@code coupon * 100} above (call) or below (put) the strike, everything
+ * else is a vanilla call or put.
+ */
+public class TerminalEvaluator implements PathGroupEvaluator {
+    
+    private final GbmKernel kernel;
+    private final int numInstruments;
+    private final double spot;
+    private final double[] strikes;
+    private final double[] digitalCash;
+    private final boolean[] digital;
+    private final double[] signs;
+    private final double drift;
+    private final double diffusion;
+    private final double bumpedVolDrift;
+    private final double bumpedVolDiffusion;
+    private final double bumpedTimeDrift;
+    private final double bumpedTimeDiffusion;
+    private final double timeReduction;
+    
+    // Market data is read from the first instrument of the group
+    public TerminalEvaluator(PricingParameters[] group, GbmKernel kernel) {
+        this.kernel = kernel;
+        this.numInstruments = group.length;
+        this.spot = group[0].getSpot();
+        double rate = group[0].getRate();
+        double vol = group[0].getVolatility();
+        double time = group[0].getTime();
+        this.strikes = new double[numInstruments];
+        this.digitalCash = new double[numInstruments];
+        this.digital = new boolean[numInstruments];
+        this.signs = new double[numInstruments];
+        for (int k = 0; k < numInstruments; k++) {
+            strikes[k] = group[k].getStrike();
+            digital[k] = group[k].getProductType() == ProductType.DIGITAL_OPTION;
+            digitalCash[k] = group[k].getCoupon() * 100;
+            signs[k] = group[k].isCall() ? 1.0 : -1.0;
+        }
+        double bumpedVol = vol + GreekScenarios.VOL_BUMP;
+        // A single step to maturity: the time-down path is the whole bump shorter, or has no time left
+        this.timeReduction = GreekScenarios.timeReduction(time);
+        double bumpedTime = time - timeReduction;
+        this.drift = (rate - 0.5 * vol * vol) * time;
+        this.diffusion = vol * Math.sqrt(time);
+        this.bumpedVolDrift = (rate - 0.5 * bumpedVol * bumpedVol) * time;
+        this.bumpedVolDiffusion = bumpedVol * Math.sqrt(time);
+        this.bumpedTimeDrift = (rate - 0.5 * vol * vol) * bumpedTime;
+        this.bumpedTimeDiffusion = vol * Math.sqrt(bumpedTime);
+    }
+    
+    @Override
+    public double getTimeReduction() {
+        return timeReduction;
+    }
+    
+    @Override
+    public void evaluate(double[] z, double[] payoffs, double[] controls) {
+        evaluate(1, z, payoffs, controls);
+    }
+    
+    @Override
+    public void evaluate(int numPaths, double[] z, double[] payoffs, double[] controls) {
+        StepBuffers buffers = StepBuffers.forCurrentThread();
+        double[] finalPrices = buffers.get(StepBuffers.BASE_PATH, numPaths);
+        double[] volUpPrices = buffers.get(StepBuffers.VOL_UP_PATH, numPaths);
+        double[] timeDownPrices = buffers.get(StepBuffers.TIME_DOWN_PATH, numPaths);
+        double[] prices = buffers.get(StepBuffers.SCENARIO_LEVELS, GreekScenarios.COUNT);
+        kernel.terminalPrices(spot, drift, diffusion, z, numPaths, finalPrices);
+        kernel.terminalPrices(spot, bumpedVolDrift, bumpedVolDiffusion, z, numPaths, volUpPrices);
+        kernel.terminalPrices(spot, bumpedTimeDrift, bumpedTimeDiffusion, z, numPaths, timeDownPrices);
+        for (int p = 0; p < numPaths; p++) {
+            double finalPrice = finalPrices[p];
+            prices[GreekScenarios.BASE] = finalPrice;
+            prices[GreekScenarios.SPOT_UP] = finalPrice * (1 + GreekScenarios.SPOT_BUMP);
+            prices[GreekScenarios.SPOT_DOWN] = finalPrice * (1 - GreekScenarios.SPOT_BUMP);
+            prices[GreekScenarios.VOL_UP] = volUpPrices[p];
+            prices[GreekScenarios.TIME_DOWN] = timeDownPrices[p];
+            int pathOffset = p * numInstruments * GreekScenarios.COUNT;
+            for (int k = 0; k < numInstruments; k++) {
+                double strike = strikes[k];
+                int offset = pathOffset + k * GreekScenarios.COUNT;
+                for (int s = 0; s < GreekScenarios.COUNT; s++) {
+                    double moneyness = signs[k] * (prices[s] - strike);
+                    payoffs[offset + s] = digital[k]
+                            ? (moneyness > 0 ? digitalCash[k] : 0.0)
+                            : Math.max(0, moneyness);
+                }
+                controls[p * numInstruments + k] = finalPrice > strike ? 1.0 : 0.0;
+            }
+        }
+    }
+}
\ No newline at end of file
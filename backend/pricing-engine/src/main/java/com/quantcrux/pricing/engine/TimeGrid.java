@@ -0,0 +1,104 @@
+package com.quantcrux.pricing.engine;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Simulation dates of a path as year fractions from today, ending at maturity.
+ */
+public class TimeGrid {
+    
+    private final double[] times;
+    private final double[] steps;
+    
+    public TimeGrid(double[] times) {
+        if (times.length == 0) {
+            throw new IllegalArgumentException("Time grid needs at least one date");
+        }
+        this.times = times.clone();
+        this.steps = new double[times.length];
+        for (int i = 0; i < times.length; i++) {
+            double previous = i > 0 ? times[i - 1] : 0.0;
+            if (times[i] <= previous) {
+                throw new IllegalArgumentException("Grid times must be positive and increasing");
+            }
+            steps[i] = times[i] - previous;
+        }
+    }
+    
+    public static TimeGrid uniform(double maturity, int numSteps) {
+        if (numSteps < 1) {
+            throw new IllegalArgumentException("Number of time steps must be positive: " + numSteps);
+        }
+        double[] times = new double[numSteps];
+        for (int i = 0; i < numSteps; i++) {
+            times[i] = maturity * (i + 1) / numSteps;
+        }
+        times[numSteps - 1] = maturity;
+        return new TimeGrid(times);
+    }
+    
+    // Given dates up to maturity; maturity is appended when missing
+    public static TimeGrid of(List<Double> dates, double maturity) {
+        double[] times = dates.stream()
+                .mapToDouble(Double::doubleValue)
+                .filter(t -> t > 0 && t < maturity)
+                .sorted()
+                .distinct()
+                .toArray();
+        double[] withMaturity = new double[times.length + 1];
+        System.arraycopy(times, 0, withMaturity, 0, times.length);
+        withMaturity[times.length] = maturity;
+        return new TimeGrid(withMaturity);
+    }
+    
+    // Dates of both grids; dates closer than a microsecond of a year are merged, keeping the first grid's
+    public static TimeGrid union(TimeGrid first, TimeGrid second) {
+        double[] merged = new double[first.size() + second.size()];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.size() || j < second.size()) {
+            boolean takeFirst = j == second.size() || (i < first.size() && first.times[i] <= second.times[j] + 1e-6);
+            double time = takeFirst ? first.times[i++] : second.times[j++];
+            if (count > 0 && time - merged[count - 1] < 1e-6) {
+                if (takeFirst) {
+                    merged[count - 1] = time;
+                }
+                continue;
+            }
+            merged[count++] = time;
+        }
+        return new TimeGrid(Arrays.copyOf(merged, count));
+    }
+    
+    // Index of the date of this grid matching the given time, -1 when there is none
+    public int indexOf(double time) {
+        for (int i = 0; i < times.length; i++) {
+            if (Math.abs(times[i] - time) < 1e-6) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    public int size() {
+        return times.length;
+    }
+    
+    public double getTime(int i) {
+        return times[i];
+    }
+    
+    public double getStep(int i) {
+        return steps[i];
+    }
+    
+    public double getMaturity() {
+        return times[times.length - 1];
+    }
+    
+    public double[] getTimes() {
+        return times.clone();
+    }
+}
\ No newline at end of file
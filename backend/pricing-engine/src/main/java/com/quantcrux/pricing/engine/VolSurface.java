@@ -0,0 +1,164 @@
+package com.quantcrux.pricing.engine;
+
+/**
+ * Implied volatility surface of one underlying, immutable once built. Each quoted maturity is a
+ * slice of total variance (vol^2 * T) in strike: either a strike grid interpolated linearly (flat
+ * beyond the first and last strike) or a raw SVI smile in log-moneyness against a reference level.
+ * Between maturities total variance is interpolated linearly at the same strike; before the first and
+ * after the last maturity the nearest slice's volatility is held flat.
+ * <p>
+ * Everything is kept in flat primitive arrays with the strike spacings precomputed, so a lookup is two
+ * binary searches and a handful of multiply-adds, and concurrent readers need no synchronization.
+ */
+public final class VolSurface {
+    
+    private final double[] maturities;
+    // Grid slices: total variance at [maturity * numStrikes + strike]
+    private final double[] strikes;
+    private final double[] inverseStrikeSteps;
+    private final double[] totalVariances;
+    // SVI slices: w(k) = a + b (rho (k - m) + sqrt((k - m)^2 + sigma^2)), k = ln(strike / referenceLevel)
+    private final double[] sviParameters;
+    private final double logReferenceLevel;
+    
+    private VolSurface(double[] maturities, double[] strikes, double[] totalVariances, double[] sviParameters,
+                       double referenceLevel) {
+        this.maturities = maturities;
+        this.strikes = strikes;
+        this.totalVariances = totalVariances;
+        this.sviParameters = sviParameters;
+        this.logReferenceLevel = referenceLevel > 0 ? Math.log(referenceLevel) : 0.0;
+        this.inverseStrikeSteps = new double[Math.max(0, strikes.length - 1)];
+        for (int j = 0; j < inverseStrikeSteps.length; j++) {
+            inverseStrikeSteps[j] = 1.0 / (strikes[j + 1] - strikes[j]);
+        }
+    }
+    
+    /**
+     * Surface from implied vols quoted on a strike x maturity grid, {@code vols[maturity][strike]}.
+     */
+    public static VolSurface grid(double[] strikes, double[] maturities, double[][] vols) {
+        checkIncreasing(maturities, "Maturities");
+        checkIncreasing(strikes, "Strikes");
+        if (vols.length != maturities.length) {
+            throw new IllegalArgumentException("Volatilities need one row per maturity");
+        }
+        double[] totalVariances = new double[maturities.length * strikes.length];
+        for (int i = 0; i < maturities.length; i++) {
+            if (vols[i] == null || vols[i].length != strikes.length) {
+                throw new IllegalArgumentException("Volatilities need one value per strike in every row");
+            }
+            for (int j = 0; j < strikes.length; j++) {
+                BlackScholes.checkVolatility(vols[i][j]);
+                totalVariances[i * strikes.length + j] = vols[i][j] * vols[i][j] * maturities[i];
+            }
+        }
+        return new VolSurface(maturities.clone(), strikes.clone(), totalVariances, null, 0.0);
+    }
+    
+    /**
+     * Surface from raw SVI parameters {a, b, rho, m, sigma} per maturity, in log-moneyness against
+     * {@code referenceLevel} (the forward or spot the smiles were fitted to).
+     */
+    public static VolSurface svi(double referenceLevel, double[] maturities, double[][] parameters) {
+        checkIncreasing(maturities, "Maturities");
+        if (!(referenceLevel > 0)) {
+            throw new IllegalArgumentException("SVI reference level must be positive");
+        }
+        if (parameters.length != maturities.length) {
+            throw new IllegalArgumentException("SVI parameters need one set per maturity");
+        }
+        double[] flat = new double[maturities.length * 5];
+        for (int i = 0; i < maturities.length; i++) {
+            double[] slice = parameters[i];
+            if (slice == null || slice.length != 5) {
+                throw new IllegalArgumentException("SVI parameters are a, b, rho, m, sigma for each maturity");
+            }
+            double a = slice[0];
+            double b = slice[1];
+            double rho = slice[2];
+            double sigma = slice[4];
+            // Minimum total variance a + b sigma sqrt(1 - rho^2) must be positive
+            if (!(b >= 0) || !(Math.abs(rho) < 1) || !(sigma > 0) || !(a + b * sigma * Math.sqrt(1 - rho * rho) > 0)
+                    || !Double.isFinite(slice[3])) {
+                throw new IllegalArgumentException("SVI parameters do not give a positive variance at maturity "
+                        + maturities[i]);
+            }
+            System.arraycopy(slice, 0, flat, i * 5, 5);
+        }
+        return new VolSurface(maturities.clone(), new double[0], null, flat, referenceLevel);
+    }
+    
+    public double volatility(double strike, double maturity) {
+        if (!(strike > 0)) {
+            throw new IllegalArgumentException("Strike must be positive");
+        }
+        int last = maturities.length - 1;
+        if (!(maturity > maturities[0])) {
+            return Math.sqrt(sliceVariance(0, strike) / maturities[0]);
+        }
+        if (maturity >= maturities[last]) {
+            return Math.sqrt(sliceVariance(last, strike) / maturities[last]);
+        }
+        int i = upperIndex(maturities, maturity);
+        double weight = (maturity - maturities[i - 1]) / (maturities[i] - maturities[i - 1]);
+        double variance = (1 - weight) * sliceVariance(i - 1, strike) + weight * sliceVariance(i, strike);
+        return Math.sqrt(variance / maturity);
+    }
+    
+    public boolean isSvi() {
+        return sviParameters != null;
+    }
+    
+    public int getNumMaturities() {
+        return maturities.length;
+    }
+    
+    // Total variance of slice i at the strike
+    private double sliceVariance(int i, double strike) {
+        if (sviParameters != null) {
+            int offset = i * 5;
+            double k = Math.log(strike) - logReferenceLevel - sviParameters[offset + 3];
+            double sigma = sviParameters[offset + 4];
+            return sviParameters[offset] + sviParameters[offset + 1]
+                    * (sviParameters[offset + 2] * k + Math.sqrt(k * k + sigma * sigma));
+        }
+        int offset = i * strikes.length;
+        int last = strikes.length - 1;
+        if (strike <= strikes[0]) {
+            return totalVariances[offset];
+        }
+        if (strike >= strikes[last]) {
+            return totalVariances[offset + last];
+        }
+        int j = upperIndex(strikes, strike);
+        double weight = (strike - strikes[j - 1]) * inverseStrikeSteps[j - 1];
+        return totalVariances[offset + j - 1] + weight * (totalVariances[offset + j] - totalVariances[offset + j - 1]);
+    }
+    
+    // First index whose value is above x, for x strictly inside the range of the array
+    private static int upperIndex(double[] values, double x) {
+        int low = 1;
+        int high = values.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] > x) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+    
+    private static void checkIncreasing(double[] values, String name) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException(name + " are required");
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (!(values[i] > (i > 0 ? values[i - 1] : 0.0)) || !Double.isFinite(values[i])) {
+                throw new IllegalArgumentException(name + " must be positive and increasing");
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.quantcrux.pricing.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.quantcrux.pricing.dto.PricingRequest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of pricing results, keyed on the canonical JSON form of the request with spot and
+ * volatility rounded to a tick. The rounding is for the key only: an entry holds the price of the
+ * request that created it, as sent, and requests within half a tick of it share that result.
+ * <p>
+ * Concurrent requests for the same key share one computation: the first caller prices on its own
+ * thread and the others wait for its result. Failed computations are not cached; callers that were
+ * waiting on one price the request themselves.
+ */
+public class PricingCache {
+    
+    private final AsyncCache<String, PricingResult> cache;
+    private final ObjectMapper objectMapper;
+    private final double spotTick;
+    private final double volTick;
+    private final boolean enabled;
+    
+    public PricingCache(ObjectMapper objectMapper, long maxSize, Duration ttl, double spotTick, double volTick) {
+        this.objectMapper = objectMapper;
+        this.spotTick = spotTick;
+        this.volTick = volTick;
+        this.enabled = maxSize > 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxSize))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+    
+    // Cached result of pricer for the request; the endpoint separates results of different pricing methods
+    public PricingResult get(String endpoint, PricingRequest request, Function<PricingRequest, PricingResult> pricer) {
+        if (!enabled) {
+            return pricer.apply(request);
+        }
+        String key = endpoint + ':' + canonicalForm(keyRequest(request));
+        
+        CompletableFuture<PricingResult> created = new CompletableFuture<>();
+        CompletableFuture<PricingResult> future = cache.get(key, (k, executor) -> created);
+        if (future != created) {
+            PricingResult shared = future.join();
+            // null: the computation we waited for failed, so price this one ourselves
+            return shared != null ? shared : pricer.apply(request);
+        }
+        try {
+            PricingResult response = pricer.apply(request);
+            created.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // Completing with null drops the entry without caching the failure
+            created.complete(null);
+            throw e;
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.synchronous().stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", cache.synchronous().estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+    
+    // Copy of the request as it is keyed; the request itself is priced unchanged
+    private PricingRequest keyRequest(PricingRequest request) {
+        PricingRequest normalized = objectMapper.convertValue(request, PricingRequest.class);
+        if (normalized.getProductType() != null) {
+            normalized.setProductType(normalized.getProductType().toLowerCase());
+        }
+        if (normalized.getSpotPrice() != null) {
+            normalized.setSpotPrice(snap(normalized.getSpotPrice(), spotTick));
+        }
+        if (normalized.getVolatility() != null) {
+            normalized.setVolatility(snap(normalized.getVolatility(), volTick));
+        }
+        return normalized;
+    }
+    
+    private static double snap(double value, double tick) {
+        return tick > 0 ? Math.round(value / tick) * tick : value;
+    }
+    
+    private String canonicalForm(PricingRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be serialized: " + e.getMessage(), e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,209 @@
+package com.quantcrux.pricing.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One asynchronous Monte Carlo price: its status, the latest estimate while it runs and the result
+ * or error once it ends. State is read under the job's monitor, so a reader that synchronizes on the
+ * job sees a consistent snapshot.
+ * <p>
+ * Listeners run on the event executor, never on the thread that prices the job, so a listener that
+ * blocks (e.g. writing to a slow client) does not hold up the paths. Each listener is called one call
+ * at a time and reads the latest state: changes it falls behind on are merged into one call, the state
+ * it sees only moves forward, and its last call sees the final state.
+ */
+public class PricingJob implements PricingProgress {
+    
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+        
+        public boolean isDone() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+    
+    private final String id = UUID.randomUUID().toString();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Executor eventExecutor;
+    private volatile boolean cancelRequested;
+    
+    private Status status = Status.QUEUED;
+    private double price = Double.NaN;
+    private double confidenceInterval = Double.NaN;
+    private long numSimulations;
+    private PricingResult result;
+    private String error;
+    private long finishedAt;
+    private Future<?> future;
+    
+    PricingJob(Executor eventExecutor) {
+        this.eventExecutor = eventExecutor;
+    }
+    
+    public String getId() { return id; }
+    
+    public synchronized Status getStatus() { return status; }
+    
+    public synchronized double getPrice() { return price; }
+    
+    public synchronized double getConfidenceInterval() { return confidenceInterval; }
+    
+    public synchronized long getNumSimulations() { return numSimulations; }
+    
+    public synchronized PricingResult getResult() { return result; }
+    
+    public synchronized String getError() { return error; }
+    
+    synchronized long getFinishedAt() { return finishedAt; }
+    
+    synchronized void setFuture(Future<?> future) { this.future = future; }
+    
+    // Adds a listener and calls it once with the current state
+    public void subscribe(Consumer<PricingJob> listener) {
+        Subscription subscription = new Subscription(listener);
+        subscriptions.add(subscription);
+        subscription.signal();
+    }
+    
+    public void unsubscribe(Consumer<PricingJob> listener) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.listener == listener) {
+                subscription.active = false;
+                subscriptions.remove(subscription);
+            }
+        }
+    }
+    
+    @Override
+    public void update(double price, double confidenceInterval, long numSimulations) {
+        synchronized (this) {
+            this.price = price;
+            this.confidenceInterval = confidenceInterval;
+            this.numSimulations = numSimulations;
+        }
+        notifyListeners();
+    }
+    
+    @Override
+    public boolean isCancelled() {
+        return cancelRequested;
+    }
+    
+    // Stops a queued job at once; a running one stops at its next chunk of paths
+    public void cancel() {
+        cancelRequested = true;
+        boolean cancelledNow;
+        synchronized (this) {
+            cancelledNow = status == Status.QUEUED;
+            if (cancelledNow) {
+                if (future != null) {
+                    future.cancel(false);
+                }
+                finish(Status.CANCELLED);
+            }
+        }
+        if (cancelledNow) {
+            notifyListeners();
+        }
+    }
+    
+    // False when the job was cancelled while queued
+    boolean start() {
+        synchronized (this) {
+            if (status != Status.QUEUED || cancelRequested) {
+                return false;
+            }
+            status = Status.RUNNING;
+        }
+        notifyListeners();
+        return true;
+    }
+    
+    void complete(PricingResult result) {
+        synchronized (this) {
+            this.result = result;
+            this.price = result.getPrice();
+            this.confidenceInterval = result.getConfidenceInterval();
+            this.numSimulations = result.getNumSimulations();
+            finish(Status.COMPLETED);
+        }
+        notifyListeners();
+    }
+    
+    void fail(String error) {
+        synchronized (this) {
+            this.error = error;
+            finish(Status.FAILED);
+        }
+        notifyListeners();
+    }
+    
+    void cancelled() {
+        synchronized (this) {
+            finish(Status.CANCELLED);
+        }
+        notifyListeners();
+    }
+    
+    private void finish(Status finalStatus) {
+        status = finalStatus;
+        finishedAt = System.currentTimeMillis();
+    }
+    
+    private void notifyListeners() {
+        for (Subscription subscription : subscriptions) {
+            subscription.signal();
+        }
+    }
+    
+    // A listener with at most one delivery queued or running; signals while it runs trigger one more call
+    private final class Subscription implements Runnable {
+        
+        private final Consumer<PricingJob> listener;
+        private final AtomicBoolean changed = new AtomicBoolean();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean active = true;
+        
+        Subscription(Consumer<PricingJob> listener) {
+            this.listener = listener;
+        }
+        
+        void signal() {
+            changed.set(true);
+            schedule();
+        }
+        
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    eventExecutor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Event executor shut down
+                    scheduled.set(false);
+                }
+            }
+        }
+        
+        @Override
+        public void run() {
+            try {
+                while (active && changed.getAndSet(false)) {
+                    listener.accept(PricingJob.this);
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            // A signal between the last check and clearing the flag found it still set
+            if (active && changed.get()) {
+                schedule();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.quantcrux.pricing.service;
+
+import com.quantcrux.pricing.dto.PricingRequest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs Monte Carlo prices as background jobs, so long simulations do not hold request threads.
+ * A fixed number of workers take jobs from a bounded queue; submissions beyond the queue limit are
+ * rejected. The paths themselves still run on the shared Monte Carlo pool. Job listeners run on a
+ * separate pool of event threads. Finished jobs can be looked up for the retention period.
+ */
+public class PricingJobService implements AutoCloseable {
+    
+    private final PricingService pricingService;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService eventExecutor;
+    private final Duration retention;
+    private final Map<String, PricingJob> jobs = new ConcurrentHashMap<>();
+    
+    public PricingJobService(PricingService pricingService, int workers, int queueSize, int eventThreads,
+                             Duration retention) {
+        if (workers < 1 || queueSize < 1 || eventThreads < 1) {
+            throw new IllegalArgumentException("Job workers, queue size and event threads must be positive");
+        }
+        this.pricingService = pricingService;
+        this.retention = retention;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "pricing-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        AtomicInteger eventThreadCount = new AtomicInteger();
+        this.eventExecutor = Executors.newFixedThreadPool(eventThreads, runnable -> {
+            Thread thread = new Thread(runnable, "pricing-job-events-" + eventThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    // Queues a Monte Carlo price; throws RejectedExecutionException when the queue is full
+    public PricingJob submit(PricingRequest request) {
+        removeExpired();
+        PricingJob job = new PricingJob(eventExecutor);
+        jobs.put(job.getId(), job);
+        try {
+            Future<?> future = executor.submit(() -> run(job, request));
+            job.setFuture(future);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+    
+    // The job, or null when it is unknown or expired
+    public PricingJob get(String jobId) {
+        removeExpired();
+        return jobs.get(jobId);
+    }
+    
+    public PricingJob cancel(String jobId) {
+        PricingJob job = get(jobId);
+        if (job != null) {
+            job.cancel();
+            // Frees the queue slot of a job cancelled before it started
+            executor.purge();
+        }
+        return job;
+    }
+    
+    private void run(PricingJob job, PricingRequest request) {
+        if (!job.start()) {
+            return;
+        }
+        try {
+            job.complete(pricingService.monteCarloPrice(request, job));
+        } catch (CancellationException e) {
+            job.cancelled();
+        } catch (Throwable e) {
+            // Errors too (e.g. OutOfMemoryError): the executor's future would swallow them and leave the
+            // job running for good, with subscribers never getting a final event
+            String error = PricingService.errorMessage(e);
+            System.err.println("Pricing job " + job.getId() + " failed: " + error);
+            job.fail(error);
+        }
+    }
+    
+    private void removeExpired() {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        jobs.values().removeIf(job -> job.getStatus().isDone() && job.getFinishedAt() < cutoff);
+    }
+    
+    @Override
+    public void close() {
+        jobs.values().forEach(PricingJob::cancel);
+        executor.shutdownNow();
+        eventExecutor.shutdownNow();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.quantcrux.pricing.service;
+
+/**
+ * Observer of a running Monte Carlo price: receives the estimate after every batch of paths and
+ * can stop the simulation, which then ends with a {@link java.util.concurrent.CancellationException}.
+ */
+public interface PricingProgress {
+    
+    // Discounted price estimate and its 95% confidence half-width after numSimulations paths
+    void update(double price, double confidenceInterval, long numSimulations);
+    
+    // Polled before every chunk of paths
+    boolean isCancelled();
+}
\ No newline at end of file
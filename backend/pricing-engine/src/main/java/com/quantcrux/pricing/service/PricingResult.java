@@ -0,0 +1,77 @@
+package com.quantcrux.pricing.service;
+
+/**
+ * Unrounded pricing result as computed by {@link PricingService}. The controller converts it to the
+ * REST {@code PricingResponse} (BigDecimal, fixed scales) once, at the boundary.
+ * <p>
+ * Monte Carlo diagnostics are left unset for closed-form results: NaN for the confidence interval
+ * and variance reduction factor, 0 simulations, null otherwise. Rho and the per-asset deltas and
+ * vegas come from adjoint Monte Carlo runs only (the latter for multi-asset products).
+ */
+public class PricingResult {
+    
+    private final double price;
+    private final double delta;
+    private final double gamma;
+    private final double vega;
+    private final double theta;
+    private final int evaluations;
+    private final String pricingMethod;
+    private double confidenceInterval = Double.NaN;
+    private long numSimulations;
+    private String varianceReduction;
+    private double varianceReductionFactor = Double.NaN;
+    private Boolean converged;
+    private double rho = Double.NaN;
+    private double[] assetDeltas;
+    private double[] assetVegas;
+    
+    public PricingResult(double price, double delta, double gamma, double vega, double theta, int evaluations,
+                         String pricingMethod) {
+        this.price = price;
+        this.delta = delta;
+        this.gamma = gamma;
+        this.vega = vega;
+        this.theta = theta;
+        this.evaluations = evaluations;
+        this.pricingMethod = pricingMethod;
+    }
+    
+    public double getPrice() { return price; }
+    
+    public double getDelta() { return delta; }
+    
+    public double getGamma() { return gamma; }
+    
+    public double getVega() { return vega; }
+    
+    public double getTheta() { return theta; }
+    
+    public int getEvaluations() { return evaluations; }
+    
+    public String getPricingMethod() { return pricingMethod; }
+    
+    public double getConfidenceInterval() { return confidenceInterval; }
+    public void setConfidenceInterval(double confidenceInterval) { this.confidenceInterval = confidenceInterval; }
+    
+    public long getNumSimulations() { return numSimulations; }
+    public void setNumSimulations(long numSimulations) { this.numSimulations = numSimulations; }
+    
+    public String getVarianceReduction() { return varianceReduction; }
+    public void setVarianceReduction(String varianceReduction) { this.varianceReduction = varianceReduction; }
+    
+    public double getVarianceReductionFactor() { return varianceReductionFactor; }
+    public void setVarianceReductionFactor(double varianceReductionFactor) { this.varianceReductionFactor = varianceReductionFactor; }
+    
+    public Boolean getConverged() { return converged; }
+    public void setConverged(Boolean converged) { this.converged = converged; }
+    
+    public double getRho() { return rho; }
+    public void setRho(double rho) { this.rho = rho; }
+    
+    public double[] getAssetDeltas() { return assetDeltas; }
+    public void setAssetDeltas(double[] assetDeltas) { this.assetDeltas = assetDeltas; }
+    
+    public double[] getAssetVegas() { return assetVegas; }
+    public void setAssetVegas(double[] assetVegas) { this.assetVegas = assetVegas; }
+}
\ No newline at end of file
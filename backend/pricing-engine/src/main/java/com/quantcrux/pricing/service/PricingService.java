@@ -1,232 +1,1198 @@
 package com.quantcrux.pricing.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.quantcrux.pricing.dto.PricingRequest;
-import com.quantcrux.pricing.dto.PricingResponse;
-import org.apache.commons.math3.distribution.NormalDistribution;
+import com.quantcrux.pricing.engine.AdjointEvaluator;
+import com.quantcrux.pricing.engine.AnalyticPricer;
+import com.quantcrux.pricing.engine.AnalyticResult;
+import com.quantcrux.pricing.engine.AutocallableEvaluator;
+import com.quantcrux.pricing.engine.BarrierEvaluator;
+import com.quantcrux.pricing.engine.BarrierType;
+import com.quantcrux.pricing.engine.BasketEvaluator;
+import com.quantcrux.pricing.engine.BasketPaths;
+import com.quantcrux.pricing.engine.BasketType;
+import com.quantcrux.pricing.engine.BrownianBridge;
+import com.quantcrux.pricing.engine.CholeskyFactor;
+import com.quantcrux.pricing.engine.ChunkSimulator;
+import com.quantcrux.pricing.engine.CovarianceBlock;
+import com.quantcrux.pricing.engine.Gaussian;
+import com.quantcrux.pricing.engine.ExerciseEvaluator;
+import com.quantcrux.pricing.engine.ExerciseRule;
+import com.quantcrux.pricing.engine.GbmKernel;
+import com.quantcrux.pricing.engine.GreekScenarios;
+import com.quantcrux.pricing.engine.HestonEvaluator;
+import com.quantcrux.pricing.engine.HestonModel;
+import com.quantcrux.pricing.engine.HestonPaths;
+import com.quantcrux.pricing.engine.HestonPricer;
+import com.quantcrux.pricing.engine.LogPathPayoff;
+import com.quantcrux.pricing.engine.LongstaffSchwartz;
+import com.quantcrux.pricing.engine.MomentBlock;
+import com.quantcrux.pricing.engine.MonteCarloEngine;
+import com.quantcrux.pricing.engine.MonteCarloStats;
+import com.quantcrux.pricing.engine.NormalSequence;
+import com.quantcrux.pricing.engine.NormalSequenceFactory;
+import com.quantcrux.pricing.engine.PathGroupEvaluator;
+import com.quantcrux.pricing.engine.PdeEngine;
+import com.quantcrux.pricing.engine.PortfolioStats;
+import com.quantcrux.pricing.engine.PricingKernel;
+import com.quantcrux.pricing.engine.PricingParameters;
+import com.quantcrux.pricing.engine.ProductType;
+import com.quantcrux.pricing.engine.RiskEngine;
+import com.quantcrux.pricing.engine.RunningStats;
+import com.quantcrux.pricing.engine.ScenarioGridEvaluator;
+import com.quantcrux.pricing.engine.ScenarioStats;
+import com.quantcrux.pricing.engine.SobolSequence;
+import com.quantcrux.pricing.engine.TerminalEvaluator;
+import com.quantcrux.pricing.engine.TimeGrid;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.DoubleUnaryOperator;
 
 @Service
 public class PricingService {
     
-    private final Random random = new Random();
-    private final NormalDistribution normalDist = new NormalDistribution();
+    // Log-level width over which adjoint runs spread digital and barrier jumps
+    private static final double ADJOINT_SMOOTHING = 0.01;
     
-    public PricingResponse calculatePrice(PricingRequest request) {
-        PricingResponse response = new PricingResponse();
-        
-        switch (request.getProductType().toLowerCase()) {
-            case "digital_option":
-                response = priceDigitalOption(request);
-                break;
-            case "barrier_option":
-                response = priceBarrierOption(request);
-                break;
-            case "autocallable":
-                response = priceAutocallable(request);
-                break;
-            default:
-                response = priceGenericProduct(request);
+    // First batch and path cap for adaptive runs that do not set numSimulations / maxSimulations
+    private static final long ADAPTIVE_INITIAL_SAMPLES = 16_384L;
+    private static final long MAX_ADAPTIVE_SAMPLES = 50_000_000L;
+    
+    // Progress updates per fixed-size run that is observed
+    private static final int PROGRESS_BATCHES = 20;
+    
+    private static final int MAX_GRID_POINTS = 10_000;
+    
+    // Longest QE sub-step of a Heston path, in years
+    private static final double HESTON_MAX_STEP = 1.0 / 12.0;
+    
+    // Paths drawn and priced together by the Monte Carlo evaluators (SIMD lanes of the GBM kernel)
+    private static final int PATH_BLOCK = 256;
+    
+    // Paths of an early exercise regression unless the request sets regressionPaths
+    private static final int DEFAULT_REGRESSION_PATHS = 100_000;
+    
+    // Correlation matrices are factored once and reused by later quotes on the same basket
+    private final Cache<List<List<Double>>, CholeskyFactor> choleskyFactors = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .build();
+    
+    @Autowired
+    private MonteCarloEngine monteCarloEngine;
+    
+    @Autowired
+    private RiskEngine riskEngine;
+    
+    @Autowired
+    private PdeEngine pdeEngine;
+    
+    @Autowired
+    private VolSurfaceService volSurfaceService;
+    
+    @Autowired
+    private LongstaffSchwartz longstaffSchwartz;
+    
+    @Autowired
+    private GbmKernel gbmKernel;
+    
+    public PricingResult calculatePrice(PricingRequest request) {
+        PricingParameters parameters = parameters(request);
+        String method = request.getPricingMethod() != null ? request.getPricingMethod().toLowerCase() : null;
+        if ("monte_carlo".equals(method)) {
+            return monteCarloPrice(request);
         }
-        
-        return response;
+        HestonModel hestonModel = hestonModel(request, parameters);
+        if ("pde".equals(method)) {
+            if (!PdeEngine.supports(parameters.getProductType()) || isMultiAsset(request) || hestonModel != null
+                    || earlyExercise(request)) {
+                throw new IllegalArgumentException("PDE pricing covers single-asset vanilla, digital and barrier options "
+                        + "under Black-Scholes");
+            }
+            AnalyticResult result = pdeEngine.evaluate(parameters);
+            return new PricingResult(result.getPrice(), result.getDelta(), result.getGamma(), result.getVega(),
+                    result.getTheta(), result.getEvaluations(), "pde");
+        }
+        if (method != null && !method.equals("analytic")) {
+            throw new IllegalArgumentException("Unknown pricing method: " + request.getPricingMethod());
+        }
+        boolean closedForm = hestonModel != null
+                ? HestonPricer.supports(parameters.getProductType()) : AnalyticPricer.supports(parameters.getProductType());
+        if (!closedForm || isMultiAsset(request) || earlyExercise(request)) {
+            if (method != null) {
+                throw new IllegalArgumentException("No closed form for " + request.getProductType());
+            }
+            // Path-dependent with early redemption, or on a basket: no closed form, price and Greeks by simulation
+            return monteCarloPrice(request);
+        }
+        if (hestonModel != null) {
+            // Characteristic-function prices, Greeks by bumping them (vega for a parallel volatility shift)
+            AnalyticResult result = HestonPricer.evaluate(parameters, hestonModel, riskEngine);
+            return new PricingResult(result.getPrice(), result.getDelta(), result.getGamma(), result.getVega(),
+                    result.getTheta(), result.getEvaluations(), "semi_analytic");
+        }
+        AnalyticResult result = AnalyticPricer.evaluate(parameters, riskEngine);
+        return new PricingResult(result.getPrice(), result.getDelta(), result.getGamma(), result.getVega(),
+                result.getTheta(), result.getEvaluations(), "analytic");
     }
     
-    public PricingResponse monteCarloPrice(PricingRequest request) {
-        int numSimulations = request.getNumSimulations() != null ? request.getNumSimulations() : 100000;
-        double timeToMaturity = request.getTimeToMaturity() != null ? request.getTimeToMaturity() : 1.0;
-        double volatility = request.getVolatility() != null ? request.getVolatility() : 0.2;
-        double riskFreeRate = request.getRiskFreeRate() != null ? request.getRiskFreeRate() : 0.05;
-        double spot = request.getSpotPrice() != null ? request.getSpotPrice() : 100.0;
-        
-        double[] payoffs = new double[numSimulations];
-        double totalPayoff = 0.0;
-        
-        for (int i = 0; i < numSimulations; i++) {
-            double finalPrice = simulatePrice(spot, riskFreeRate, volatility, timeToMaturity);
-            double payoff = calculatePayoff(finalPrice, request);
-            payoffs[i] = payoff;
-            totalPayoff += payoff;
+    /**
+     * Volatility a request is priced at: its own, else the underlying's surface at the request's strike
+     * and maturity (sticky strike), else 20%.
+     */
+    public double volatility(PricingRequest request) {
+        if (request.getVolatility() != null) {
+            return request.getVolatility();
         }
-        
-        double averagePayoff = totalPayoff / numSimulations;
-        double discountedPrice = averagePayoff * Math.exp(-riskFreeRate * timeToMaturity);
-        
-        // Calculate confidence intervals
-        double variance = 0.0;
-        for (double payoff : payoffs) {
-            variance += Math.pow(payoff - averagePayoff, 2);
-        }
-        variance /= (numSimulations - 1);
-        double standardError = Math.sqrt(variance / numSimulations);
-        double confidenceInterval = 1.96 * standardError * Math.exp(-riskFreeRate * timeToMaturity);
-        
-        PricingResponse response = new PricingResponse();
-        response.setPrice(BigDecimal.valueOf(discountedPrice).setScale(4, RoundingMode.HALF_UP));
-        response.setConfidenceInterval(BigDecimal.valueOf(confidenceInterval).setScale(4, RoundingMode.HALF_UP));
-        response.setNumSimulations(numSimulations);
-        
-        // Calculate Greeks using finite differences
-        Map<String, BigDecimal> greeks = calculateGreeks(request, discountedPrice);
-        response.setGreeks(greeks);
-        
-        return response;
+        if (request.getUnderlying() != null) {
+            return volSurfaceService.volatility(request.getUnderlying(),
+                    request.getStrike() != null ? request.getStrike() : 100.0,
+                    request.getTimeToMaturity() != null ? request.getTimeToMaturity() : 1.0);
+        }
+        return 0.2;
+    }
+    
+    // The one place request defaults are applied; everything downstream works on primitives
+    private PricingParameters parameters(PricingRequest request) {
+        String optionType = request.getOptionType() != null ? request.getOptionType().toLowerCase() : "call";
+        if (!optionType.equals("call") && !optionType.equals("put")) {
+            throw new IllegalArgumentException("Unknown option type: " + request.getOptionType());
+        }
+        return new PricingParameters(
+                ProductType.parse(request.getProductType()),
+                request.getSpotPrice() != null ? request.getSpotPrice() : 100.0,
+                request.getStrike() != null ? request.getStrike() : 100.0,
+                request.getBarrier() != null ? request.getBarrier() : 80.0,
+                request.getCoupon() != null ? request.getCoupon() : 0.1,
+                volatility(request),
+                request.getRiskFreeRate() != null ? request.getRiskFreeRate() : 0.05,
+                request.getTimeToMaturity() != null ? request.getTimeToMaturity() : 1.0,
+                optionType.equals("call"),
+                request.getBarrierType() != null ? BarrierType.parse(request.getBarrierType()) : null,
+                request.getRebate() != null ? request.getRebate() : 0.0);
     }
     
-    private double simulatePrice(double spot, double rate, double vol, double time) {
-        double drift = (rate - 0.5 * vol * vol) * time;
-        double diffusion = vol * Math.sqrt(time) * normalDist.sample();
-        return spot * Math.exp(drift + diffusion);
+    public PricingResult monteCarloPrice(PricingRequest request) {
+        return monteCarloGroup(Collections.singletonList(request), null).get(0);
     }
     
-    private double calculatePayoff(double finalPrice, PricingRequest request) {
-        double strike = request.getStrike() != null ? request.getStrike() : 100.0;
-        double barrier = request.getBarrier() != null ? request.getBarrier() : 80.0;
-        double coupon = request.getCoupon() != null ? request.getCoupon() : 0.1;
-        
-        switch (request.getProductType().toLowerCase()) {
-            case "digital_option":
-                return finalPrice > strike ? coupon * 100 : 0.0;
-            case "barrier_option":
-                return (finalPrice > barrier && finalPrice > strike) ? coupon * 100 : 0.0;
-            case "autocallable":
-                if (finalPrice >= strike * 1.1) {
-                    return coupon * 100; // Early redemption
-                } else if (finalPrice >= barrier) {
-                    return coupon * 100; // Normal coupon
-                } else {
-                    return Math.max(0, finalPrice - strike); // Capital protection
+    /**
+     * Monte Carlo price that reports its estimate to {@code progress} as paths accumulate: fixed-size
+     * runs are split into {@link #PROGRESS_BATCHES} batches, adaptive runs report after each of their own.
+     * The result is the same as an unobserved run up to summation order.
+     */
+    public PricingResult monteCarloPrice(PricingRequest request, PricingProgress progress) {
+        return monteCarloGroup(Collections.singletonList(request), progress).get(0);
+    }
+    
+    /**
+     * Prices the request's product on a grid of relative spot shifts x absolute volatility shifts
+     * ({@code prices[spot][vol]}). Closed-form products are repriced at each point. Everything else is
+     * simulated once for the whole grid: each path's normals are drawn once, its log path is built once
+     * per volatility shift, and every spot shift is a log shift of that path, so a grid point costs a
+     * payoff evaluation rather than a path. Paths run on the Monte Carlo pool.
+     */
+    public ScenarioGridResult scenarioGrid(PricingRequest request, double[] spotShifts, double[] volShifts) {
+        if (spotShifts.length == 0 || volShifts.length == 0
+                || (long) spotShifts.length * volShifts.length > MAX_GRID_POINTS) {
+            throw new IllegalArgumentException("Scenario grids need 1 to " + MAX_GRID_POINTS + " points");
+        }
+        for (double shift : spotShifts) {
+            if (!(shift > -1.0)) {
+                throw new IllegalArgumentException("Spot shifts must be above -100%");
+            }
+        }
+        PricingParameters parameters = parameters(request);
+        boolean multiAsset = isMultiAsset(request);
+        HestonModel hestonModel = hestonModel(request, parameters);
+        if (earlyExercise(request)) {
+            throw new IllegalArgumentException("Scenario grids cover European exercise only");
+        }
+        if (!multiAsset && hestonModel == null) {
+            for (double shift : volShifts) {
+                if (!(parameters.getVolatility() + shift > 0)) {
+                    throw new IllegalArgumentException("Volatility shift " + shift + " leaves no volatility");
                 }
-            default:
-                return Math.max(0, finalPrice - strike);
+            }
+        }
+        String method = request.getPricingMethod() != null ? request.getPricingMethod().toLowerCase() : null;
+        if (method != null && !method.equals("analytic") && !method.equals("monte_carlo")) {
+            throw new IllegalArgumentException("Scenario grids are priced in closed form or by Monte Carlo");
+        }
+        boolean closedForm = !multiAsset && (hestonModel != null
+                ? HestonPricer.supports(parameters.getProductType()) : AnalyticPricer.supports(parameters.getProductType()));
+        if (!"monte_carlo".equals(method) && closedForm && hestonModel != null) {
+            // One characteristic-function slice per volatility column serves every spot shift
+            double[][] prices = new double[spotShifts.length][volShifts.length];
+            for (int j = 0; j < volShifts.length; j++) {
+                HestonPricer.Slice slice = new HestonPricer.Slice(hestonModel.withVolShift(volShifts[j]),
+                        parameters.getRate(), parameters.getTime());
+                for (int i = 0; i < spotShifts.length; i++) {
+                    prices[i][j] = HestonPricer.price(parameters, slice, parameters.getSpot() * (1 + spotShifts[i]));
+                }
+            }
+            return new ScenarioGridResult(spotShifts, volShifts, prices, null, "semi_analytic", 0);
+        }
+        if (!"monte_carlo".equals(method) && closedForm) {
+            PricingKernel kernel = AnalyticPricer.kernel(parameters);
+            double[][] prices = new double[spotShifts.length][volShifts.length];
+            for (int i = 0; i < spotShifts.length; i++) {
+                for (int j = 0; j < volShifts.length; j++) {
+                    prices[i][j] = kernel.price(parameters.getSpot() * (1 + spotShifts[i]),
+                            parameters.getVolatility() + volShifts[j], parameters.getTime());
+                }
+            }
+            return new ScenarioGridResult(spotShifts, volShifts, prices, null, "analytic", 0);
         }
+        if ("analytic".equals(method)) {
+            throw new IllegalArgumentException("No closed form for " + request.getProductType());
+        }
+        return monteCarloGrid(request, parameters, hestonModel, spotShifts, volShifts);
     }
     
-    private PricingResponse priceDigitalOption(PricingRequest request) {
-        // Simplified Black-Scholes for digital option
-        double spot = request.getSpotPrice() != null ? request.getSpotPrice() : 100.0;
-        double strike = request.getStrike() != null ? request.getStrike() : 100.0;
-        double vol = request.getVolatility() != null ? request.getVolatility() : 0.2;
-        double rate = request.getRiskFreeRate() != null ? request.getRiskFreeRate() : 0.05;
-        double time = request.getTimeToMaturity() != null ? request.getTimeToMaturity() : 1.0;
-        
-        double d2 = (Math.log(spot / strike) + (rate - 0.5 * vol * vol) * time) / (vol * Math.sqrt(time));
-        double price = Math.exp(-rate * time) * normalDist.cumulativeProbability(d2);
+    // Pseudo-random paths (antithetic or not); volatility shifts are the instruments of the shared
+    // simulator and spot shifts its scenarios
+    private ScenarioGridResult monteCarloGrid(PricingRequest request, PricingParameters parameters,
+                                              HestonModel hestonModel, double[] spotShifts, double[] volShifts) {
+        String varianceReduction = request.getVarianceReduction() != null
+                ? request.getVarianceReduction().toLowerCase() : "none";
+        if (!varianceReduction.equals("none") && !varianceReduction.equals("antithetic")) {
+            throw new IllegalArgumentException("Scenario grids support antithetic variates only");
+        }
+        if (request.getSequenceType() != null && !request.getSequenceType().equalsIgnoreCase("pseudo_random")) {
+            throw new IllegalArgumentException("Scenario grids are simulated with pseudo-random numbers");
+        }
+        boolean antithetic = varianceReduction.equals("antithetic");
+        int numSimulations = request.getNumSimulations() != null ? request.getNumSimulations() : 100000;
+        long numSamples = antithetic ? (numSimulations + 1) / 2 : numSimulations;
+        SplittableRandom root = request.getSeed() != null ? new SplittableRandom(request.getSeed()) : new SplittableRandom();
         
-        PricingResponse response = new PricingResponse();
-        response.setPrice(BigDecimal.valueOf(price * 100).setScale(4, RoundingMode.HALF_UP));
-        response.setGreeks(calculateGreeks(request, price * 100));
+        int numSpots = spotShifts.length;
+        int numVols = volShifts.length;
+        double[] logShifts = new double[numSpots];
+        for (int i = 0; i < numSpots; i++) {
+            logShifts[i] = Math.log(1 + spotShifts[i]);
+        }
+        double rate = parameters.getRate();
+        double time = parameters.getTime();
+        ProductType productType = parameters.getProductType();
+        TimeGrid grid;
+        PathGroupEvaluator evaluator;
+        int numNormals;
+        if (hestonModel != null) {
+            if (isMultiAsset(request)) {
+                throw new IllegalArgumentException("Heston dynamics cover single-asset products");
+            }
+            grid = basketGrid(request, productType, time);
+            HestonPaths[] columns = new HestonPaths[numVols];
+            for (int j = 0; j < numVols; j++) {
+                columns[j] = hestonPaths(parameters, hestonModel, grid, volShifts[j]);
+            }
+            LogPathPayoff payoff = basketPayoff(request, parameters, grid, columns[0].getLogStart());
+            numNormals = columns[0].getNumNormals();
+            evaluator = ScenarioGridEvaluator.heston(columns, grid, payoff, logShifts);
+        } else if (isMultiAsset(request)) {
+            grid = basketGrid(request, productType, time);
+            BasketPaths[] columns = new BasketPaths[numVols];
+            for (int j = 0; j < numVols; j++) {
+                columns[j] = basketPaths(request, grid, rate, volShifts[j]);
+            }
+            LogPathPayoff payoff = basketPayoff(request, parameters, grid, columns[0].getLogStart());
+            numNormals = columns[0].getNumNormals();
+            evaluator = ScenarioGridEvaluator.basket(columns, grid, payoff, logShifts);
+        } else {
+            double[] vols = new double[numVols];
+            for (int j = 0; j < numVols; j++) {
+                vols[j] = parameters.getVolatility() + volShifts[j];
+            }
+            switch (productType) {
+                case AUTOCALLABLE:
+                    grid = observationSchedule(request, time);
+                    break;
+                case BARRIER_OPTION:
+                    grid = monitoringGrid(request, time);
+                    break;
+                default:
+                    grid = new TimeGrid(new double[] {time});
+            }
+            double logSpot = Math.log(parameters.getSpot());
+            LogPathPayoff[] columnPayoffs = new LogPathPayoff[numVols];
+            if (productType == ProductType.AUTOCALLABLE) {
+                AutocallableEvaluator autocallable = autocallableEvaluator(request, parameters, grid);
+                for (int j = 0; j < numVols; j++) {
+                    double vol = vols[j];
+                    columnPayoffs[j] = (start, logPath, shift) -> autocallable.valueOnPath(logPath, shift, vol);
+                }
+            } else {
+                boolean continuous = continuousMonitoring(request);
+                for (int j = 0; j < numVols; j++) {
+                    columnPayoffs[j] = LogPathPayoff.of(parameters, grid, logSpot, continuous, vols[j]);
+                }
+            }
+            evaluator = ScenarioGridEvaluator.gbm(parameters.getSpot(), rate, vols, grid, columnPayoffs, logShifts);
+            numNormals = grid.size();
+        }
         
-        return response;
+        PortfolioStats stats = monteCarloEngine.simulate(numSamples, root, () -> new PortfolioStats(numVols, numSpots),
+                greekScenarioSimulator(NormalSequenceFactory.pseudoRandom(), numNormals, evaluator, numVols, numSpots,
+                        antithetic, false));
+        double discountFactor = Math.exp(-rate * time);
+        double[][] prices = new double[numSpots][numVols];
+        double[][] confidenceIntervals = new double[numSpots][numVols];
+        for (int j = 0; j < numVols; j++) {
+            ScenarioStats column = stats.get(j).getScenarios();
+            for (int i = 0; i < numSpots; i++) {
+                RunningStats point = column.get(i);
+                prices[i][j] = point.getMean() * discountFactor;
+                confidenceIntervals[i][j] = 1.96 * Math.sqrt(point.getVariance() / point.getCount()) * discountFactor;
+            }
+        }
+        return new ScenarioGridResult(spotShifts, volShifts, prices, confidenceIntervals, "monte_carlo",
+                stats.get(0).getPathPayoffs().getCount());
     }
     
-    private PricingResponse priceBarrierOption(PricingRequest request) {
-        // Simplified barrier option pricing
-        double basePrice = priceDigitalOption(request).getPrice().doubleValue();
-        double barrier = request.getBarrier() != null ? request.getBarrier() : 80.0;
-        double spot = request.getSpotPrice() != null ? request.getSpotPrice() : 100.0;
-        
-        // Apply barrier adjustment
-        double barrierAdjustment = Math.exp(-Math.pow((spot - barrier) / spot, 2));
-        double adjustedPrice = basePrice * barrierAdjustment;
-        
-        PricingResponse response = new PricingResponse();
-        response.setPrice(BigDecimal.valueOf(adjustedPrice).setScale(4, RoundingMode.HALF_UP));
-        response.setGreeks(calculateGreeks(request, adjustedPrice));
+    /**
+     * Prices a batch by Monte Carlo, handing each result to {@code sink} in request order, or null and
+     * the error message for a request that cannot be priced; one failure does not stop the batch.
+     * Requests that share a product family, model parameters and simulation settings are simulated
+     * together on the same paths; adaptive requests are priced on their own. Each request gets the
+     * same result as a single call with the same seed.
+     */
+    public void monteCarloBatch(List<PricingRequest> requests, BiConsumer<PricingResult, String> sink) {
+        Map<List<Object>, List<Integer>> groups = new HashMap<>();
+        List<List<Integer>> groupOf = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            List<Object> key;
+            try {
+                key = batchGroupKey(requests.get(i));
+            } catch (RuntimeException e) {
+                // Priced alone, where it fails with its own error
+                key = null;
+            }
+            List<Integer> group = key != null ? groups.computeIfAbsent(key, k -> new ArrayList<>()) : new ArrayList<>();
+            group.add(i);
+            groupOf.add(group);
+        }
         
-        return response;
+        // Groups are priced when their first request is reached, so responses go out in order
+        // while later groups are still pending
+        PricingResult[] results = new PricingResult[requests.size()];
+        String[] errors = new String[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] == null && errors[i] == null) {
+                List<Integer> group = groupOf.get(i);
+                List<PricingRequest> members = new ArrayList<>(group.size());
+                for (int index : group) {
+                    members.add(requests.get(index));
+                }
+                try {
+                    List<PricingResult> priced = monteCarloGroup(members, null);
+                    for (int k = 0; k < group.size(); k++) {
+                        results[group.get(k)] = priced.get(k);
+                    }
+                } catch (RuntimeException e) {
+                    if (group.size() == 1) {
+                        errors[i] = errorMessage(e);
+                    } else {
+                        // Members are repriced one by one, so only the requests at fault fail
+                        for (int index : group) {
+                            try {
+                                results[index] = monteCarloGroup(Collections.singletonList(requests.get(index)), null).get(0);
+                            } catch (RuntimeException memberError) {
+                                errors[index] = errorMessage(memberError);
+                            }
+                        }
+                    }
+                }
+            }
+            sink.accept(results[i], errors[i]);
+            results[i] = null;
+        }
     }
     
-    private PricingResponse priceAutocallable(PricingRequest request) {
-        // Simplified autocallable pricing
-        double basePrice = priceDigitalOption(request).getPrice().doubleValue();
-        double autocallLevel = request.getStrike() != null ? request.getStrike() * 1.1 : 110.0;
-        double spot = request.getSpotPrice() != null ? request.getSpotPrice() : 100.0;
-        
-        // Probability of autocall
-        double autocallProb = spot > autocallLevel ? 0.8 : 0.3;
-        double adjustedPrice = basePrice * (1 + autocallProb * 0.2);
-        
-        PricingResponse response = new PricingResponse();
-        response.setPrice(BigDecimal.valueOf(adjustedPrice).setScale(4, RoundingMode.HALF_UP));
-        response.setGreeks(calculateGreeks(request, adjustedPrice));
-        
-        return response;
+    // The exception's message, or its type when it has none
+    static String errorMessage(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+    
+    // Everything the shared paths depend on, with defaults applied; null for requests priced alone
+    private List<Object> batchGroupKey(PricingRequest request) {
+        if (request.getTargetAbsoluteError() != null || request.getTargetRelativeError() != null) {
+            return null;
+        }
+        PricingParameters parameters = parameters(request);
+        ProductType productType = parameters.getProductType();
+        return Arrays.asList(productType.isPathDependent() ? productType : "terminal",
+                parameters.getSpot(),
+                parameters.getVolatility(),
+                parameters.getRate(),
+                parameters.getTime(),
+                request.getNumSimulations() != null ? request.getNumSimulations() : 100000,
+                request.getSeed(),
+                request.getVarianceReduction() != null ? request.getVarianceReduction().toLowerCase() : "none",
+                request.getSequenceType() != null ? request.getSequenceType().toLowerCase() : "pseudo_random",
+                request.getNumRandomizations(),
+                request.getMonitoringTimes(),
+                request.getNumTimeSteps(),
+                request.getObservationTimes(),
+                request.getBarrierMonitoring() != null ? request.getBarrierMonitoring().toLowerCase() : "continuous",
+                request.getSpotPrices(),
+                request.getVolatilities(),
+                request.getDividendYields(),
+                request.getCorrelationMatrix(),
+                request.getInitialLevels(),
+                request.getBasketType() != null ? request.getBasketType().toLowerCase() : null,
+                request.getBasketWeights(),
+                request.getSensitivityMethod() != null ? request.getSensitivityMethod().toLowerCase() : "bump",
+                request.getModel() != null ? request.getModel().toLowerCase() : "black_scholes",
+                request.getInitialVariance(),
+                request.getLongRunVariance(),
+                request.getMeanReversion(),
+                request.getVolOfVol(),
+                request.getSpotVolCorrelation(),
+                request.getExerciseStyle() != null ? request.getExerciseStyle().toLowerCase() : "european",
+                request.getRegressionPaths());
     }
     
-    private PricingResponse priceGenericProduct(PricingRequest request) {
-        // Generic product pricing
-        double spot = request.getSpotPrice() != null ? request.getSpotPrice() : 100.0;
-        double strike = request.getStrike() != null ? request.getStrike() : 100.0;
-        double vol = request.getVolatility() != null ? request.getVolatility() : 0.2;
-        double time = request.getTimeToMaturity() != null ? request.getTimeToMaturity() : 1.0;
+    // Simulates requests that share a batch group key (or a single request) on common paths.
+    // Model and simulation settings are read from the first request; progress (optional) observes the first instrument.
+    private List<PricingResult> monteCarloGroup(List<PricingRequest> group, PricingProgress progress) {
+        PricingRequest request = group.get(0);
+        int numInstruments = group.size();
+        PricingParameters[] parameters = new PricingParameters[numInstruments];
+        for (int k = 0; k < numInstruments; k++) {
+            parameters[k] = parameters(group.get(k));
+        }
+        int numSimulations = request.getNumSimulations() != null ? request.getNumSimulations() : 100000;
+        if (request.getMaxTimeMillis() != null && request.getMaxTimeMillis() <= 0) {
+            throw new IllegalArgumentException("maxTimeMillis must be positive");
+        }
+        double timeToMaturity = parameters[0].getTime();
+        double volatility = parameters[0].getVolatility();
+        double riskFreeRate = parameters[0].getRate();
+        double spot = parameters[0].getSpot();
         
-        double price = spot * (1 + random.nextGaussian() * vol * Math.sqrt(time) * 0.1);
+        String varianceReduction = request.getVarianceReduction() != null
+                ? request.getVarianceReduction().toLowerCase() : "none";
+        boolean antithetic;
+        boolean controlVariate;
+        switch (varianceReduction) {
+            case "none":
+                antithetic = false;
+                controlVariate = false;
+                break;
+            case "antithetic":
+                antithetic = true;
+                controlVariate = false;
+                break;
+            case "control_variate":
+                antithetic = false;
+                controlVariate = true;
+                break;
+            case "antithetic_control_variate":
+                antithetic = true;
+                controlVariate = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown variance reduction: " + request.getVarianceReduction());
+        }
         
-        PricingResponse response = new PricingResponse();
-        response.setPrice(BigDecimal.valueOf(price).setScale(4, RoundingMode.HALF_UP));
-        response.setGreeks(calculateGreeks(request, price));
+        String sequenceType = request.getSequenceType() != null
+                ? request.getSequenceType().toLowerCase() : "pseudo_random";
+        boolean adjoint = adjointSensitivities(request);
+        HestonModel hestonModel = hestonModel(request, parameters[0]);
+        boolean earlyExercise = earlyExercise(request);
+        if (earlyExercise && (adjoint || hestonModel != null || isMultiAsset(request)
+                || parameters[0].getProductType() != ProductType.VANILLA_OPTION)) {
+            throw new IllegalArgumentException("Early exercise covers single-asset vanilla options under Black-Scholes "
+                    + "with bumped Greeks");
+        }
         
-        return response;
-    }
-    
-    private Map<String, BigDecimal> calculateGreeks(PricingRequest request, double basePrice) {
-        Map<String, BigDecimal> greeks = new HashMap<>();
+        // An antithetic pair counts as two simulations
+        long numSamples = antithetic ? (numSimulations + 1) / 2 : numSimulations;
+        SplittableRandom root = request.getSeed() != null ? new SplittableRandom(request.getSeed()) : new SplittableRandom();
+        BooleanSupplier cancelled = progress != null ? progress::isCancelled : () -> false;
         
-        double spot = request.getSpotPrice() != null ? request.getSpotPrice() : 100.0;
-        double vol = request.getVolatility() != null ? request.getVolatility() : 0.2;
-        double time = request.getTimeToMaturity() != null ? request.getTimeToMaturity() : 1.0;
+        // Path-dependent products are simulated on their own dates, everything else straight to maturity.
+        // The control variate of each instrument is a digital on the simulated path with a closed-form expectation.
+        TimeGrid grid;
+        PathGroupEvaluator evaluator;
+        double[] controlLevels = new double[numInstruments];
+        double[] controlTimes = new double[numInstruments];
+        Arrays.fill(controlTimes, timeToMaturity);
+        for (int k = 0; k < numInstruments; k++) {
+            controlLevels[k] = parameters[k].getStrike();
+        }
+        int numNormals;
+        int numScenarios = GreekScenarios.COUNT;
+        double[] assetSpots = {spot};
+        if (adjoint) {
+            // One forward path and one reverse sweep per instrument; a single underlying is a one-asset basket
+            if (parameters[0].getProductType() == ProductType.AUTOCALLABLE) {
+                throw new IllegalArgumentException("Adjoint sensitivities cover vanilla, digital and knock-out digital payoffs");
+            }
+            if (hestonModel != null) {
+                throw new IllegalArgumentException("Adjoint sensitivities are available under Black-Scholes only");
+            }
+            boolean multiAsset = isMultiAsset(request);
+            if (multiAsset && controlVariate) {
+                throw new IllegalArgumentException("Control variates are not available for multi-asset products");
+            }
+            if (multiAsset && !sequenceType.equals("pseudo_random")) {
+                throw new IllegalArgumentException("Multi-asset products are priced with pseudo-random numbers only");
+            }
+            grid = multiAsset ? basketGrid(request, parameters[0].getProductType(), timeToMaturity)
+                    : parameters[0].getProductType() == ProductType.BARRIER_OPTION ? monitoringGrid(request, timeToMaturity)
+                    : new TimeGrid(new double[] {timeToMaturity});
+            BasketPaths paths = multiAsset ? basketPaths(request, grid, riskFreeRate, 0.0)
+                    : new BasketPaths(grid, BasketType.WORST_OF, new double[] {spot}, new double[] {100.0},
+                            new double[] {volatility}, new double[] {0.0}, new double[] {1.0},
+                            CholeskyFactor.of(new double[][] {{1.0}}), riskFreeRate, GreekScenarios.VOL_BUMP, 0.0);
+            spot = Math.exp(paths.getLogStart());
+            assetSpots = multiAsset ? assetValues(request.getSpotPrices(), paths.getNumAssets(), "spotPrices", null) : assetSpots;
+            AdjointEvaluator adjointEvaluator = new AdjointEvaluator(parameters, paths, grid,
+                    !multiAsset && continuousMonitoring(request), multiAsset ? 0.0 : volatility, ADJOINT_SMOOTHING);
+            evaluator = adjointEvaluator;
+            numNormals = paths.getNumNormals();
+            numScenarios = adjointEvaluator.getNumScenarios();
+        } else if (hestonModel != null) {
+            // Stochastic volatility: QE paths through the product's dates (as for baskets, so barriers and
+            // knock-ins are checked on the dates only); no closed-form control, no Brownian bridge for Sobol points
+            if (isMultiAsset(request)) {
+                throw new IllegalArgumentException("Heston dynamics cover single-asset products");
+            }
+            if (controlVariate) {
+                throw new IllegalArgumentException("Control variates are not available under Heston dynamics");
+            }
+            if (!sequenceType.equals("pseudo_random")) {
+                throw new IllegalArgumentException("Heston paths are simulated with pseudo-random numbers only");
+            }
+            grid = basketGrid(request, parameters[0].getProductType(), timeToMaturity);
+            HestonPaths paths = hestonPaths(parameters[0], hestonModel, grid, 0.0);
+            evaluator = new HestonEvaluator(paths, grid, basketPayoffs(group, parameters, grid, paths.getLogStart()));
+            numNormals = paths.getNumNormals();
+        } else if (isMultiAsset(request)) {
+            // Basket products: no closed-form control, and no multi-asset Brownian bridge for Sobol points
+            if (controlVariate) {
+                throw new IllegalArgumentException("Control variates are not available for multi-asset products");
+            }
+            if (!sequenceType.equals("pseudo_random")) {
+                throw new IllegalArgumentException("Multi-asset products are priced with pseudo-random numbers only");
+            }
+            grid = basketGrid(request, parameters[0].getProductType(), timeToMaturity);
+            BasketPaths paths = basketPaths(request, grid, riskFreeRate, 0.0);
+            // Greeks are against a parallel move of every underlying, per point of the basket level
+            spot = Math.exp(paths.getLogStart());
+            evaluator = new BasketEvaluator(paths, grid, basketPayoffs(group, parameters, grid, paths.getLogStart()));
+            numNormals = paths.getNumNormals();
+        } else if (earlyExercise) {
+            // The exercise rule is regressed on paths of its own and applied to the priced paths, so the
+            // price is not biased high by the regression's foresight
+            grid = exerciseGrid(request, timeToMaturity);
+            evaluator = exerciseEvaluator(request, parameters, grid, root.split(), cancelled);
+            numNormals = grid.size();
+        } else {
+            switch (parameters[0].getProductType()) {
+                case BARRIER_OPTION:
+                    grid = monitoringGrid(request, timeToMaturity);
+                    evaluator = new BarrierEvaluator(parameters, grid, continuousMonitoring(request));
+                    break;
+                case AUTOCALLABLE:
+                    grid = observationSchedule(request, timeToMaturity);
+                    List<AutocallableEvaluator> autocallables = new ArrayList<>(numInstruments);
+                    for (int k = 0; k < numInstruments; k++) {
+                        AutocallableEvaluator autocallable = autocallableEvaluator(group.get(k), parameters[k], grid);
+                        controlLevels[k] = autocallable.getControlLevel();
+                        controlTimes[k] = autocallable.getControlTime();
+                        autocallables.add(autocallable);
+                    }
+                    evaluator = PathGroupEvaluator.of(autocallables, GreekScenarios.COUNT);
+                    break;
+                default:
+                    grid = new TimeGrid(new double[] {timeToMaturity});
+                    evaluator = new TerminalEvaluator(parameters, gbmKernel);
+            }
+            numNormals = grid.size();
+        }
+        double[] expectedControls = new double[numInstruments];
+        if (controlVariate) {
+            for (int k = 0; k < numInstruments; k++) {
+                expectedControls[k] = digitalProbability(spot, controlLevels[k], volatility, riskFreeRate, controlTimes[k]);
+            }
+        }
         
-        // Delta (price sensitivity to underlying)
-        double deltaShift = 0.01;
-        PricingRequest deltaRequest = copyRequest(request);
-        deltaRequest.setSpotPrice(spot * (1 + deltaShift));
-        double priceUp = calculatePrice(deltaRequest).getPrice().doubleValue();
-        double delta = (priceUp - basePrice) / (spot * deltaShift);
+        BrownianBridge bridge = new BrownianBridge(grid.getTimes());
         
-        // Gamma (delta sensitivity to underlying)
-        deltaRequest.setSpotPrice(spot * (1 - deltaShift));
-        double priceDown = calculatePrice(deltaRequest).getPrice().doubleValue();
-        double gamma = (priceUp - 2 * basePrice + priceDown) / Math.pow(spot * deltaShift, 2);
+        // Pseudo-random runs are one replication; randomized QMC runs are independently scrambled
+        // replications whose spread gives the confidence interval
+        int replications;
+        NormalSequenceFactory[] normals;
+        switch (sequenceType) {
+            case "pseudo_random":
+                replications = 1;
+                normals = new NormalSequenceFactory[] {NormalSequenceFactory.pseudoRandom()};
+                break;
+            case "sobol":
+                replications = request.getNumRandomizations() != null ? request.getNumRandomizations() : 16;
+                if (replications < 2) {
+                    throw new IllegalArgumentException("At least 2 randomizations are needed for a confidence interval");
+                }
+                normals = new NormalSequenceFactory[replications];
+                for (int r = 0; r < replications; r++) {
+                    normals[r] = NormalSequenceFactory.sobol(new SobolSequence(bridge.size(), root.split()), bridge,
+                            gbmKernel);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown sequence type: " + request.getSequenceType());
+        }
         
-        // Vega (price sensitivity to volatility)
-        double vegaShift = 0.01;
-        PricingRequest vegaRequest = copyRequest(request);
-        vegaRequest.setVolatility(vol + vegaShift);
-        double vegaPrice = calculatePrice(vegaRequest).getPrice().doubleValue();
-        double vega = (vegaPrice - basePrice) / vegaShift;
+        // Adaptive mode (single requests only): simulate in batches until the standard error of the price
+        // meets the target (absolute, or relative to the price) or a path or time cap is reached
+        boolean adaptive = request.getTargetAbsoluteError() != null || request.getTargetRelativeError() != null;
+        long maxSamples = adaptive && request.getMaxSimulations() != null
+                ? Math.max(1, antithetic ? request.getMaxSimulations() / 2 : request.getMaxSimulations())
+                : adaptive ? MAX_ADAPTIVE_SAMPLES : numSamples;
+        long startTime = System.nanoTime();
+        long deadline = Long.MAX_VALUE;
+        if (request.getMaxTimeMillis() != null) {
+            // Caps too long to add to the clock in nanoseconds run without a deadline
+            long budget = request.getMaxTimeMillis() <= Long.MAX_VALUE / 1_000_000L
+                    ? request.getMaxTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+            deadline = startTime + budget;
+            if (deadline < startTime) {
+                deadline = Long.MAX_VALUE;
+            }
+        }
+        double discountFactor = Math.exp(-riskFreeRate * timeToMaturity);
         
-        // Theta (price sensitivity to time)
-        double thetaShift = 1.0 / 365.0; // 1 day
-        PricingRequest thetaRequest = copyRequest(request);
-        thetaRequest.setTimeToMaturity(time - thetaShift);
-        double thetaPrice = calculatePrice(thetaRequest).getPrice().doubleValue();
-        double theta = (thetaPrice - basePrice) / thetaShift;
+        PortfolioStats[] replicationStats = new PortfolioStats[replications];
+        for (int r = 0; r < replications; r++) {
+            replicationStats[r] = new PortfolioStats(numInstruments, numScenarios);
+        }
+        long samplesPerReplication = 0;
+        long initialSamples = adaptive && request.getNumSimulations() == null ? ADAPTIVE_INITIAL_SAMPLES : numSamples;
+        long fixedSamples = Math.max(1, Math.min(initialSamples, maxSamples) / replications);
+        long batch = fixedSamples;
+        if (progress != null && !adaptive) {
+            // Whole chunks per batch, so the chunk layout and random streams match an unobserved run
+            long chunks = (fixedSamples + MonteCarloEngine.CHUNK_SIZE - 1) / MonteCarloEngine.CHUNK_SIZE;
+            batch = Math.min(fixedSamples, (chunks + PROGRESS_BATCHES - 1) / PROGRESS_BATCHES * MonteCarloEngine.CHUNK_SIZE);
+        }
+        int scenariosPerInstrument = numScenarios;
+        boolean converged;
+        while (true) {
+            for (int r = 0; r < replications; r++) {
+                replicationStats[r].merge(monteCarloEngine.simulate(samplesPerReplication, batch, root,
+                        () -> new PortfolioStats(numInstruments, scenariosPerInstrument),
+                        greekScenarioSimulator(normals[r], numNormals, evaluator, numInstruments,
+                                scenariosPerInstrument, antithetic, controlVariate), cancelled));
+            }
+            samplesPerReplication += batch;
+            
+            double[] estimate = estimatePayoff(replicationStats, 0, controlVariate, expectedControls[0]);
+            if (progress != null) {
+                progress.update(estimate[0] * discountFactor, 1.96 * Math.sqrt(estimate[1]) * discountFactor,
+                        samplesPerReplication * replications * (antithetic ? 2 : 1));
+            }
+            if (!adaptive) {
+                converged = false;
+                if (samplesPerReplication >= fixedSamples) {
+                    break;
+                }
+                batch = Math.min(batch, fixedSamples - samplesPerReplication);
+                continue;
+            }
+            
+            double standardError = Math.sqrt(estimate[1]) * discountFactor;
+            double targetError = adaptiveTarget(request, estimate[0] * discountFactor);
+            converged = standardError <= targetError;
+            long remaining = maxSamples / replications - samplesPerReplication;
+            long now = System.nanoTime();
+            if (deadline != Long.MAX_VALUE) {
+                // Only start a batch that is expected to finish before the time cap
+                double nanosPerSample = (double) (now - startTime) / samplesPerReplication;
+                remaining = Math.min(remaining, (long) ((deadline - now) / nanosPerSample));
+            }
+            if (converged || remaining <= 0) {
+                break;
+            }
+            // Standard error scales with 1/sqrt(n): size the next batch from the current estimate,
+            // growing by at most 4x per batch so the time cap is checked regularly
+            double required = samplesPerReplication * (standardError / targetError) * (standardError / targetError);
+            double next = Math.min(required - samplesPerReplication, 4.0 * samplesPerReplication);
+            batch = (long) Math.min(remaining, Math.max(MonteCarloEngine.CHUNK_SIZE, next));
+        }
         
-        greeks.put("delta", BigDecimal.valueOf(delta).setScale(6, RoundingMode.HALF_UP));
-        greeks.put("gamma", BigDecimal.valueOf(gamma).setScale(6, RoundingMode.HALF_UP));
-        greeks.put("vega", BigDecimal.valueOf(vega).setScale(6, RoundingMode.HALF_UP));
-        greeks.put("theta", BigDecimal.valueOf(theta).setScale(6, RoundingMode.HALF_UP));
+        List<PricingResult> results = new ArrayList<>(numInstruments);
+        for (int k = 0; k < numInstruments; k++) {
+            double[] estimate = estimatePayoff(replicationStats, k, controlVariate, expectedControls[k]);
+            double expectedPayoff = estimate[0];
+            double estimatorVariance = estimate[1];
+            MonteCarloStats stats = new MonteCarloStats(numScenarios);
+            for (PortfolioStats replication : replicationStats) {
+                stats.merge(replication.get(k));
+            }
+            ScenarioStats scenarios = stats.getScenarios();
+            
+            double discountedPrice = expectedPayoff * discountFactor;
+            
+            // Calculate confidence intervals
+            double confidenceInterval = 1.96 * Math.sqrt(estimatorVariance) * discountFactor;
+            
+            // Variance of plain Monte Carlo with the same number of payoff evaluations,
+            // relative to the variance actually achieved
+            long numPayoffs = stats.getPathPayoffs().getCount();
+            double plainVariance = stats.getPathPayoffs().getVariance() / numPayoffs;
+            // (left empty when the control replicates the payoff exactly and no variance remains)
+            double varianceReductionFactor = Double.NaN;
+            if (estimatorVariance > 0) {
+                varianceReductionFactor = plainVariance / estimatorVariance;
+            } else if (plainVariance == 0) {
+                varianceReductionFactor = 1.0;
+            }
+            
+            // Finite differences across scenarios that share paths
+            // (the control variate adjusts the price only; it would cancel out of the differences)
+            double spotShift = GreekScenarios.SPOT_BUMP * spot;
+            double basePrice = scenarios.get(GreekScenarios.BASE).getMean() * discountFactor;
+            double priceUp = scenarios.get(GreekScenarios.SPOT_UP).getMean() * discountFactor;
+            double priceDown = scenarios.get(GreekScenarios.SPOT_DOWN).getMean() * discountFactor;
+            double gamma = (priceUp - 2 * basePrice + priceDown) / (spotShift * spotShift);
+            double delta;
+            double vega;
+            double theta;
+            double rho = Double.NaN;
+            double[] assetDeltas = new double[assetSpots.length];
+            double[] assetVegas = new double[assetSpots.length];
+            if (adjoint) {
+                // Discounted means of the pathwise gradient: delta per point of the basket level for a
+                // parallel move of every underlying, vega for a parallel move of every volatility
+                delta = 0.0;
+                vega = 0.0;
+                for (int a = 0; a < assetSpots.length; a++) {
+                    assetDeltas[a] = scenarios.get(AdjointEvaluator.GRADIENT + BasketPaths.spotSensitivity(a)).getMean() * discountFactor;
+                    assetVegas[a] = scenarios.get(AdjointEvaluator.GRADIENT + BasketPaths.volSensitivity(a)).getMean() * discountFactor;
+                    delta += assetSpots[a] * assetDeltas[a] / spot;
+                    vega += assetVegas[a];
+                }
+                double maturityDerivative = scenarios.get(AdjointEvaluator.GRADIENT + BasketPaths.MATURITY_SENSITIVITY).getMean();
+                double rateDerivative = scenarios.get(AdjointEvaluator.GRADIENT + BasketPaths.RATE_SENSITIVITY).getMean();
+                theta = riskFreeRate * basePrice - maturityDerivative * discountFactor;
+                rho = rateDerivative * discountFactor - timeToMaturity * basePrice;
+            } else {
+                // The time-down paths are shorter by what the evaluator could take off their first step,
+                // which is less than the bump when that step is
+                double timeReduction = evaluator.getTimeReduction();
+                double vegaPrice = scenarios.get(GreekScenarios.VOL_UP).getMean() * discountFactor;
+                double thetaPrice = scenarios.get(GreekScenarios.TIME_DOWN).getMean()
+                        * Math.exp(-riskFreeRate * (timeToMaturity - timeReduction));
+                delta = (priceUp - priceDown) / (2 * spotShift);
+                vega = (vegaPrice - basePrice) / GreekScenarios.VOL_BUMP;
+                theta = timeReduction > 0 ? (thetaPrice - basePrice) / timeReduction : 0.0;
+            }
+            
+            // Base and bumped scenarios are each valued once, on the same paths; an adjoint run values
+            // the base and two spot shifts and makes one reverse sweep
+            PricingResult result = new PricingResult(discountedPrice, delta, gamma, vega, theta,
+                    adjoint ? AdjointEvaluator.GRADIENT + 1 : GreekScenarios.COUNT,
+                    "sobol".equals(sequenceType) ? "quasi_monte_carlo" : "monte_carlo");
+            if (adjoint) {
+                result.setRho(rho);
+                if (isMultiAsset(request)) {
+                    result.setAssetDeltas(assetDeltas);
+                    result.setAssetVegas(assetVegas);
+                }
+            }
+            result.setConfidenceInterval(confidenceInterval);
+            result.setNumSimulations(numPayoffs);
+            if (adaptive) {
+                result.setConverged(converged);
+            }
+            result.setVarianceReduction(varianceReduction);
+            result.setVarianceReductionFactor(varianceReductionFactor);
+            results.add(result);
+        }
         
-        return greeks;
-    }
-    
-    private PricingRequest copyRequest(PricingRequest original) {
-        PricingRequest copy = new PricingRequest();
-        copy.setProductType(original.getProductType());
-        copy.setSpotPrice(original.getSpotPrice());
-        copy.setStrike(original.getStrike());
-        copy.setBarrier(original.getBarrier());
-        copy.setCoupon(original.getCoupon());
-        copy.setVolatility(original.getVolatility());
-        copy.setRiskFreeRate(original.getRiskFreeRate());
-        copy.setTimeToMaturity(original.getTimeToMaturity());
-        copy.setNumSimulations(original.getNumSimulations());
-        return copy;
+        return results;
+    }
+    
+    // Simulates the Greek scenarios of every instrument on every path, pairing each draw with its
+    // negation when antithetic. A chunk accumulates into flat moment blocks and hands them over at the end.
+    private ChunkSimulator<PortfolioStats> greekScenarioSimulator(NormalSequenceFactory normalsFactory, int numNormals,
+                                                                  PathGroupEvaluator evaluator, int numInstruments,
+                                                                  int numScenarios, boolean antithetic,
+                                                                  boolean controlVariate) {
+        int numPayoffs = numInstruments * numScenarios;
+        return (rng, firstPath, numPaths, accumulator) -> {
+            NormalSequence normals = normalsFactory.create(rng, firstPath);
+            // Paths are drawn and priced a block at a time, then accumulated one by one in path order
+            int blockSize = (int) Math.min((long) PATH_BLOCK, numPaths);
+            double[] z = new double[blockSize * numNormals];
+            double[] antitheticZ = new double[blockSize * numNormals];
+            double[] payoffs = new double[blockSize * numPayoffs];
+            double[] antitheticPayoffs = new double[blockSize * numPayoffs];
+            double[] controls = new double[blockSize * numInstruments];
+            double[] antitheticControls = new double[blockSize * numInstruments];
+            double[] scenarioPayoffs = new double[numPayoffs];
+            double[] pathControls = new double[numInstruments];
+            double[] basePayoffs = new double[numInstruments];
+            MomentBlock scenarios = new MomentBlock(numPayoffs);
+            MomentBlock pathPayoffs = new MomentBlock(numInstruments);
+            CovarianceBlock control = new CovarianceBlock(numInstruments);
+            for (long first = 0; first < numPaths; first += blockSize) {
+                int count = (int) Math.min(blockSize, numPaths - first);
+                if (count < blockSize) {
+                    // Short last block: the evaluator sees arrays of exactly count paths
+                    z = new double[count * numNormals];
+                    antitheticZ = new double[count * numNormals];
+                    payoffs = new double[count * numPayoffs];
+                    antitheticPayoffs = new double[count * numPayoffs];
+                    controls = new double[count * numInstruments];
+                    antitheticControls = new double[count * numInstruments];
+                }
+                normals.next(z, count, numNormals);
+                evaluator.evaluate(count, z, payoffs, controls);
+                if (antithetic) {
+                    for (int j = 0; j < z.length; j++) {
+                        antitheticZ[j] = -z[j];
+                    }
+                    evaluator.evaluate(count, antitheticZ, antitheticPayoffs, antitheticControls);
+                }
+                for (int p = 0; p < count; p++) {
+                    System.arraycopy(payoffs, p * numPayoffs, scenarioPayoffs, 0, numPayoffs);
+                    System.arraycopy(controls, p * numInstruments, pathControls, 0, numInstruments);
+                    for (int k = 0; k < numInstruments; k++) {
+                        basePayoffs[k] = scenarioPayoffs[k * numScenarios + GreekScenarios.BASE];
+                    }
+                    pathPayoffs.add(basePayoffs);
+                    if (antithetic) {
+                        int offset = p * numPayoffs;
+                        for (int k = 0; k < numInstruments; k++) {
+                            basePayoffs[k] = antitheticPayoffs[offset + k * numScenarios + GreekScenarios.BASE];
+                        }
+                        pathPayoffs.add(basePayoffs);
+                        for (int j = 0; j < numPayoffs; j++) {
+                            scenarioPayoffs[j] = 0.5 * (scenarioPayoffs[j] + antitheticPayoffs[offset + j]);
+                        }
+                        for (int k = 0; k < numInstruments; k++) {
+                            pathControls[k] = 0.5 * (pathControls[k] + antitheticControls[p * numInstruments + k]);
+                            basePayoffs[k] = scenarioPayoffs[k * numScenarios + GreekScenarios.BASE];
+                        }
+                    }
+                    scenarios.add(scenarioPayoffs);
+                    if (controlVariate) {
+                        control.add(pathControls, basePayoffs);
+                    }
+                }
+            }
+            for (int k = 0; k < numInstruments; k++) {
+                MonteCarloStats stats = accumulator.get(k);
+                for (int s = 0; s < numScenarios; s++) {
+                    stats.getScenarios().get(s).merge(scenarios.toRunningStats(k * numScenarios + s));
+                }
+                stats.getPathPayoffs().merge(pathPayoffs.toRunningStats(k));
+                if (controlVariate) {
+                    stats.getControl().merge(control.toCovarianceStats(k));
+                }
+            }
+        };
+    }
+    
+    // Vanilla options exercisable on every date of the grid, each by its Longstaff-Schwartz rule regressed
+    // on paths of its own
+    private PathGroupEvaluator exerciseEvaluator(PricingRequest request, PricingParameters[] group, TimeGrid grid,
+                                                 SplittableRandom regressionRandom, BooleanSupplier cancelled) {
+        int numInstruments = group.length;
+        double spot = group[0].getSpot();
+        double vol = group[0].getVolatility();
+        double rate = group[0].getRate();
+        int numSimulations = request.getNumSimulations() != null ? request.getNumSimulations() : 100000;
+        int regressionPaths = request.getRegressionPaths() != null
+                ? request.getRegressionPaths() : Math.min(numSimulations, DEFAULT_REGRESSION_PATHS);
+        double[] strikes = new double[numInstruments];
+        DoubleUnaryOperator[] exerciseValues = new DoubleUnaryOperator[numInstruments];
+        for (int k = 0; k < numInstruments; k++) {
+            double strike = group[k].getStrike();
+            double sign = group[k].isCall() ? 1.0 : -1.0;
+            strikes[k] = strike;
+            exerciseValues[k] = level -> Math.max(0.0, sign * (level - strike));
+        }
+        ExerciseRule[] rules = longstaffSchwartz.regress(grid, spot, rate, vol, regressionPaths, regressionRandom,
+                exerciseValues, strikes, cancelled);
+        return new ExerciseEvaluator(group, grid, rules);
+    }
+    
+    // Notional 100 with an annual coupon rate. Triggers are given per observation date (autocallTriggers, the
+    // maturity included) or as one flat level defaulting to 110% of strike; coupon and knock-in barriers
+    // default to the barrier level, the knock-in put strike to the strike; coupons have memory unless disabled.
+    private AutocallableEvaluator autocallableEvaluator(PricingRequest request, PricingParameters parameters,
+                                                        TimeGrid schedule) {
+        double strike = parameters.getStrike();
+        double barrier = parameters.getBarrier();
+        double[] triggers = new double[schedule.size()];
+        List<Double> stepTriggers = request.getAutocallTriggers();
+        if (stepTriggers == null || stepTriggers.isEmpty()) {
+            Arrays.fill(triggers, request.getAutocallTrigger() != null ? request.getAutocallTrigger() : strike * 1.1);
+        } else {
+            if (stepTriggers.size() != schedule.size() || stepTriggers.contains(null)) {
+                throw new IllegalArgumentException("autocallTriggers must have one level per observation date ("
+                        + schedule.size() + ", the maturity included)");
+            }
+            for (int i = 0; i < triggers.length; i++) {
+                triggers[i] = stepTriggers.get(i);
+            }
+        }
+        double couponBarrier = request.getCouponBarrier() != null ? request.getCouponBarrier() : barrier;
+        double knockIn = request.getKnockInBarrier() != null ? request.getKnockInBarrier() : barrier;
+        boolean memory = request.getMemoryCoupon() == null || request.getMemoryCoupon();
+        return new AutocallableEvaluator(schedule, parameters.getSpot(), parameters.getRate(), parameters.getVolatility(),
+                triggers, couponBarrier, knockIn, strike, parameters.getCoupon(), memory, continuousMonitoring(request),
+                GreekScenarios.SPOT_BUMP, GreekScenarios.VOL_BUMP, GreekScenarios.TIME_BUMP);
+    }
+    
+    // Products on a basket level (100 at the initial fixings, strikes and barriers in percent of them),
+    // or on a single underlying under Heston dynamics. Barriers and knock-ins are checked on the dates only.
+    private LogPathPayoff[] basketPayoffs(List<PricingRequest> group, PricingParameters[] parameters, TimeGrid grid,
+                                          double logStart) {
+        LogPathPayoff[] instruments = new LogPathPayoff[parameters.length];
+        for (int k = 0; k < parameters.length; k++) {
+            instruments[k] = basketPayoff(group.get(k), parameters[k], grid, logStart);
+        }
+        return instruments;
+    }
+    
+    // Payoff of one instrument on the basket level; autocallables observe on their own dates within the grid
+    private LogPathPayoff basketPayoff(PricingRequest request, PricingParameters instrument, TimeGrid grid,
+                                       double logStart) {
+        if (instrument.getProductType() != ProductType.AUTOCALLABLE) {
+            return LogPathPayoff.of(instrument, grid, logStart, false, 0.0);
+        }
+        TimeGrid schedule = observationSchedule(request, instrument.getTime());
+        int[] observationSteps = new int[schedule.size()];
+        for (int i = 0; i < schedule.size(); i++) {
+            observationSteps[i] = grid.indexOf(schedule.getTime(i));
+        }
+        AutocallableEvaluator autocallable = autocallableEvaluator(request, instrument, schedule);
+        return (start, logPath, shift) -> autocallable.valueOnPath(start, logPath, observationSteps, shift);
+    }
+    
+    // Pathwise (adjoint) Greeks, or finite differences over bumped scenarios (the default)
+    private boolean adjointSensitivities(PricingRequest request) {
+        String method = request.getSensitivityMethod() != null ? request.getSensitivityMethod().toLowerCase() : "bump";
+        if (!method.equals("bump") && !method.equals("adjoint")) {
+            throw new IllegalArgumentException("Unknown sensitivity method: " + request.getSensitivityMethod());
+        }
+        return method.equals("adjoint");
+    }
+    
+    // Exercise on the grid dates before maturity (bermudan or american) or at maturity only (european, the default)
+    private boolean earlyExercise(PricingRequest request) {
+        String style = request.getExerciseStyle() != null ? request.getExerciseStyle().toLowerCase() : "european";
+        if (!style.equals("european") && !style.equals("bermudan") && !style.equals("american")) {
+            throw new IllegalArgumentException("Unknown exercise style: " + request.getExerciseStyle());
+        }
+        return !style.equals("european");
+    }
+    
+    // Exercise dates: explicit monitoring times or numTimeSteps equal steps, by default monthly for Bermudan
+    // and 50 a year for American options (approximated by that many dates)
+    private TimeGrid exerciseGrid(PricingRequest request, double maturity) {
+        boolean explicit = (request.getMonitoringTimes() != null && !request.getMonitoringTimes().isEmpty())
+                || request.getNumTimeSteps() != null;
+        if (!explicit && "american".equalsIgnoreCase(request.getExerciseStyle())) {
+            return TimeGrid.uniform(maturity, Math.max(1, (int) Math.ceil(maturity * 50)));
+        }
+        return monitoringGrid(request, maturity);
+    }
+    
+    private boolean continuousMonitoring(PricingRequest request) {
+        String monitoring = request.getBarrierMonitoring() != null ? request.getBarrierMonitoring().toLowerCase() : "continuous";
+        if (!monitoring.equals("continuous") && !monitoring.equals("discrete")) {
+            throw new IllegalArgumentException("Unknown barrier monitoring: " + request.getBarrierMonitoring());
+        }
+        return monitoring.equals("continuous");
+    }
+    
+    // Simulation dates: explicit monitoring times, or numTimeSteps equal steps (monthly by default)
+    private TimeGrid monitoringGrid(PricingRequest request, double maturity) {
+        if (request.getMonitoringTimes() != null && !request.getMonitoringTimes().isEmpty()) {
+            return TimeGrid.of(request.getMonitoringTimes(), maturity);
+        }
+        int numSteps = request.getNumTimeSteps() != null
+                ? request.getNumTimeSteps() : Math.max(1, (int) Math.ceil(maturity * 12));
+        return TimeGrid.uniform(maturity, numSteps);
+    }
+    
+    // Autocall observation dates: explicit, or quarterly
+    private TimeGrid observationSchedule(PricingRequest request, double maturity) {
+        return request.getObservationTimes() != null && !request.getObservationTimes().isEmpty()
+                ? TimeGrid.of(request.getObservationTimes(), maturity)
+                : TimeGrid.uniform(maturity, Math.max(1, (int) Math.ceil(maturity * 4)));
+    }
+    
+    private boolean isMultiAsset(PricingRequest request) {
+        return request.getSpotPrices() != null && !request.getSpotPrices().isEmpty();
+    }
+    
+    // Heston dynamics when the request asks for them, null for Black-Scholes (the default). The initial
+    // variance defaults to the square of the request's volatility and the long-run variance to the initial one;
+    // mean reversion 2, vol of vol 0.5 and spot-vol correlation -0.7 otherwise.
+    private HestonModel hestonModel(PricingRequest request, PricingParameters parameters) {
+        String model = request.getModel() != null ? request.getModel().toLowerCase() : "black_scholes";
+        if (model.equals("black_scholes")) {
+            return null;
+        }
+        if (!model.equals("heston")) {
+            throw new IllegalArgumentException("Unknown model: " + request.getModel());
+        }
+        double initialVariance = request.getInitialVariance() != null
+                ? request.getInitialVariance() : parameters.getVolatility() * parameters.getVolatility();
+        return new HestonModel(initialVariance,
+                request.getLongRunVariance() != null ? request.getLongRunVariance() : initialVariance,
+                request.getMeanReversion() != null ? request.getMeanReversion() : 2.0,
+                request.getVolOfVol() != null ? request.getVolOfVol() : 0.5,
+                request.getSpotVolCorrelation() != null ? request.getSpotVolCorrelation() : -0.7);
+    }
+    
+    // Heston paths through the grid's dates in QE sub-steps, with volShift added to both volatilities
+    private HestonPaths hestonPaths(PricingParameters parameters, HestonModel model, TimeGrid grid, double volShift) {
+        return new HestonPaths(grid, parameters.getSpot(), parameters.getRate(), model.withVolShift(volShift),
+                HESTON_MAX_STEP, GreekScenarios.VOL_BUMP, GreekScenarios.timeReduction(grid.getStep(0)));
+    }
+    
+    // Basket simulation dates: maturity for terminal payoffs, the monitoring dates for barriers, and for
+    // autocallables the observation dates plus any requested knock-in monitoring dates
+    private TimeGrid basketGrid(PricingRequest request, ProductType productType, double maturity) {
+        switch (productType) {
+            case BARRIER_OPTION:
+                return monitoringGrid(request, maturity);
+            case AUTOCALLABLE:
+                TimeGrid schedule = observationSchedule(request, maturity);
+                boolean monitored = (request.getMonitoringTimes() != null && !request.getMonitoringTimes().isEmpty())
+                        || request.getNumTimeSteps() != null;
+                return monitored ? TimeGrid.union(schedule, monitoringGrid(request, maturity)) : schedule;
+            default:
+                return new TimeGrid(new double[] {maturity});
+        }
+    }
+    
+    // Underlyings of a multi-asset request, with volShift added to every volatility. Initial levels default
+    // to today's spots, dividends to zero, weights to an equal-weighted basket and the basket type to worst-of.
+    private BasketPaths basketPaths(PricingRequest request, TimeGrid grid, double rate, double volShift) {
+        int numAssets = request.getSpotPrices().size();
+        double[] spots = assetValues(request.getSpotPrices(), numAssets, "spotPrices", null);
+        double[] vols = assetValues(request.getVolatilities(), numAssets, "volatilities", null);
+        for (int a = 0; a < numAssets; a++) {
+            vols[a] += volShift;
+        }
+        double[] dividends = assetValues(request.getDividendYields(), numAssets, "dividendYields", 0.0);
+        double[] initialLevels = request.getInitialLevels() != null
+                ? assetValues(request.getInitialLevels(), numAssets, "initialLevels", null) : spots;
+        double[] weights = assetValues(request.getBasketWeights(), numAssets, "basketWeights", 1.0 / numAssets);
+        BasketType basketType = request.getBasketType() != null
+                ? BasketType.parse(request.getBasketType()) : BasketType.WORST_OF;
+        CholeskyFactor factor = choleskyFactor(request.getCorrelationMatrix(), numAssets);
+        return new BasketPaths(grid, basketType, spots, initialLevels, vols, dividends, weights, factor, rate,
+                GreekScenarios.VOL_BUMP, GreekScenarios.timeReduction(grid.getStep(0)));
+    }
+    
+    // One value per asset, or the default for every asset when the list is absent
+    private double[] assetValues(List<Double> values, int numAssets, String name, Double defaultValue) {
+        double[] result = new double[numAssets];
+        if (values == null) {
+            if (defaultValue == null) {
+                throw new IllegalArgumentException(name + " are required for multi-asset pricing");
+            }
+            Arrays.fill(result, defaultValue);
+            return result;
+        }
+        if (values.size() != numAssets) {
+            throw new IllegalArgumentException(name + " must have one value per asset");
+        }
+        for (int a = 0; a < numAssets; a++) {
+            Double value = values.get(a);
+            if (value == null) {
+                throw new IllegalArgumentException(name + " must have one value per asset");
+            }
+            result[a] = value;
+        }
+        return result;
+    }
+    
+    private CholeskyFactor choleskyFactor(List<List<Double>> correlation, int numAssets) {
+        if (correlation == null) {
+            if (numAssets > 1) {
+                throw new IllegalArgumentException("correlationMatrix is required for more than one asset");
+            }
+            correlation = List.of(List.of(1.0));
+        }
+        if (correlation.size() != numAssets) {
+            throw new IllegalArgumentException("correlationMatrix must have one row per asset");
+        }
+        double[][] matrix = new double[numAssets][];
+        List<List<Double>> key = new ArrayList<>(numAssets);
+        for (int a = 0; a < numAssets; a++) {
+            List<Double> row = correlation.get(a);
+            if (row == null) {
+                throw new IllegalArgumentException("correlationMatrix must have one row per asset");
+            }
+            matrix[a] = assetValues(row, numAssets, "correlationMatrix rows", null);
+            key.add(List.copyOf(row));
+        }
+        return choleskyFactors.get(key, k -> CholeskyFactor.of(matrix));
+    }
+    
+    private double adaptiveTarget(PricingRequest request, double price) {
+        double target = Double.POSITIVE_INFINITY;
+        if (request.getTargetAbsoluteError() != null) {
+            target = request.getTargetAbsoluteError();
+        }
+        if (request.getTargetRelativeError() != null) {
+            target = Math.min(target, request.getTargetRelativeError() * Math.abs(price));
+        }
+        return target;
+    }
+    
+    // Price estimate of one instrument and the variance of that estimate: from the paths of a single
+    // pseudo-random run, or from the spread of independent randomized QMC replications
+    private double[] estimatePayoff(PortfolioStats[] replicationStats, int instrument, boolean controlVariate,
+                                    double expectedControl) {
+        if (replicationStats.length == 1) {
+            MonteCarloStats single = replicationStats[0].get(instrument);
+            long samples = single.getScenarios().get(GreekScenarios.BASE).getCount();
+            double variance = controlVariate
+                    ? single.getControl().getControlledVariance()
+                    : single.getScenarios().get(GreekScenarios.BASE).getVariance();
+            return new double[] {estimatePayoff(single, controlVariate, expectedControl), variance / samples};
+        }
+        RunningStats estimates = new RunningStats();
+        for (PortfolioStats replication : replicationStats) {
+            estimates.add(estimatePayoff(replication.get(instrument), controlVariate, expectedControl));
+        }
+        return new double[] {estimates.getMean(), estimates.getVariance() / replicationStats.length};
+    }
+    
+    private double estimatePayoff(MonteCarloStats stats, boolean controlVariate, double expectedControl) {
+        return controlVariate
+                ? stats.getControl().getControlledMean(expectedControl)
+                : stats.getScenarios().get(GreekScenarios.BASE).getMean();
+    }
+    
+    // Risk-neutral probability of finishing above the strike, N(d2)
+    private double digitalProbability(double spot, double strike, double vol, double rate, double time) {
+        double d2 = (Math.log(spot / strike) + (rate - 0.5 * vol * vol) * time) / (vol * Math.sqrt(time));
+        return Gaussian.cdf(d2);
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.quantcrux.pricing.service;
+
+/**
+ * Unrounded scenario grid from {@link PricingService#scenarioGrid}: prices indexed {@code [spot][vol]}
+ * over relative spot shifts and absolute volatility shifts. Confidence intervals are null and the
+ * simulation count 0 for closed-form grids.
+ */
+public class ScenarioGridResult {
+    
+    private final double[] spotShifts;
+    private final double[] volShifts;
+    private final double[][] prices;
+    private final double[][] confidenceIntervals;
+    private final String pricingMethod;
+    private final long numSimulations;
+    
+    public ScenarioGridResult(double[] spotShifts, double[] volShifts, double[][] prices,
+                              double[][] confidenceIntervals, String pricingMethod, long numSimulations) {
+        this.spotShifts = spotShifts;
+        this.volShifts = volShifts;
+        this.prices = prices;
+        this.confidenceIntervals = confidenceIntervals;
+        this.pricingMethod = pricingMethod;
+        this.numSimulations = numSimulations;
+    }
+    
+    public double[] getSpotShifts() { return spotShifts; }
+    
+    public double[] getVolShifts() { return volShifts; }
+    
+    public double[][] getPrices() { return prices; }
+    
+    public double[][] getConfidenceIntervals() { return confidenceIntervals; }
+    
+    public String getPricingMethod() { return pricingMethod; }
+    
+    public long getNumSimulations() { return numSimulations; }
+}
\ No newline at end of file
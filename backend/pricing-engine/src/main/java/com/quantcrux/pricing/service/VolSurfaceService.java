@@ -0,0 +1,90 @@
+package com.quantcrux.pricing.service;
+
+import com.quantcrux.pricing.dto.VolSurfaceRequest;
+import com.quantcrux.pricing.engine.VolSurface;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implied volatility surfaces by underlying. Surfaces are immutable: new quotes build a complete new
+ * surface off to the side, which then replaces the old one in a single map write. Pricing threads read
+ * without locks and always see either the old or the new surface, never a mix of the two.
+ */
+public class VolSurfaceService {
+    
+    private final Map<String, VolSurface> surfaces = new ConcurrentHashMap<>();
+    
+    // Builds a surface from grid quotes ("grid", the default) or SVI slices ("svi") and swaps it in
+    public VolSurface update(String underlying, VolSurfaceRequest quotes) {
+        String model = quotes.getModel() != null ? quotes.getModel().toLowerCase() : "grid";
+        double[] maturities = values(quotes.getMaturities(), "maturities");
+        VolSurface surface;
+        switch (model) {
+            case "grid":
+                surface = VolSurface.grid(values(quotes.getStrikes(), "strikes"), maturities,
+                        rows(quotes.getVolatilities(), "volatilities"));
+                break;
+            case "svi":
+                if (quotes.getReferenceLevel() == null) {
+                    throw new IllegalArgumentException("referenceLevel is required for SVI surfaces");
+                }
+                surface = VolSurface.svi(quotes.getReferenceLevel(), maturities,
+                        rows(quotes.getSviParameters(), "sviParameters"));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown volatility surface model: " + quotes.getModel());
+        }
+        surfaces.put(underlying, surface);
+        return surface;
+    }
+    
+    // The current surface, or null when none has been loaded
+    public VolSurface get(String underlying) {
+        return surfaces.get(underlying);
+    }
+    
+    public boolean remove(String underlying) {
+        return surfaces.remove(underlying) != null;
+    }
+    
+    public Set<String> getUnderlyings() {
+        return new TreeSet<>(surfaces.keySet());
+    }
+    
+    public double volatility(String underlying, double strike, double maturity) {
+        VolSurface surface = surfaces.get(underlying);
+        if (surface == null) {
+            throw new IllegalArgumentException("No volatility surface for " + underlying);
+        }
+        return surface.volatility(strike, maturity);
+    }
+    
+    private static double[] values(List<Double> values, String name) {
+        if (values == null || values.isEmpty()) {
+            throw new IllegalArgumentException(name + " are required");
+        }
+        double[] result = new double[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            if (values.get(i) == null) {
+                throw new IllegalArgumentException(name + " must not contain nulls");
+            }
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+    
+    private static double[][] rows(List<List<Double>> rows, String name) {
+        if (rows == null) {
+            throw new IllegalArgumentException(name + " are required");
+        }
+        double[][] result = new double[rows.size()][];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values(rows.get(i), name);
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.quantcrux.pricing.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.function.DoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdjointPayoffsTest {
+    
+    private static final double SMOOTHING = 0.05;
+    private static final double H = 1e-6;
+    private static final TimeGrid GRID = TimeGrid.uniform(1.0, 12);
+    private static final double[] INITIAL_LEVELS = {100.0, 200.0, 50.0};
+    private static final double[] WEIGHTS = {0.5, 0.3, 0.2};
+    private static final CholeskyFactor CORRELATION =
+            CholeskyFactor.of(new double[][] {{1.0, 0.5, 0.2}, {0.5, 1.0, 0.3}, {0.2, 0.3, 1.0}});
+    
+    private static void assertClose(double expected, double actual, String what) {
+        assertEquals(expected, actual, 1e-5 * (1.0 + Math.abs(expected)), what);
+    }
+    
+    // A GBM path of log levels from log(100)
+    private static double[] logPath(SplittableRandom random, TimeGrid grid, double vol) {
+        double[] z = new double[grid.size()];
+        for (int i = 0; i < z.length; i++) {
+            z[i] = random.nextGaussian();
+        }
+        double[] logPath = new double[grid.size()];
+        GbmPaths.fillLogPath(Math.log(100.0), 0.03, vol, grid, 0.0, z, logPath);
+        return logPath;
+    }
+    
+    // Checks logPathBar against central differences of the returned payoff; true when any derivative is non-zero
+    private static boolean checkPathDerivatives(LogPathAdjoint adjoint, double[] logPath, int numSensitivities) {
+        int n = logPath.length;
+        double[] logPathBar = new double[n];
+        double[] scratch = new double[n];
+        adjoint.adjoint(logPath, logPathBar, new double[numSensitivities]);
+        boolean active = false;
+        for (int i = 0; i < n; i++) {
+            double[] bumped = logPath.clone();
+            bumped[i] = logPath[i] + H;
+            double up = adjoint.adjoint(bumped, scratch, new double[numSensitivities]);
+            bumped[i] = logPath[i] - H;
+            double down = adjoint.adjoint(bumped, scratch, new double[numSensitivities]);
+            assertClose((up - down) / (2 * H), logPathBar[i], "date " + i);
+            active |= logPathBar[i] != 0.0;
+        }
+        return active;
+    }
+    
+    @Test
+    void singleDatePayoffDerivativesMatchFiniteDifferences() {
+        SplittableRandom random = new SplittableRandom(1);
+        int n = GRID.size();
+        int active = 0;
+        for (int path = 0; path < 500; path++) {
+            double[] logPath = logPath(random, GRID, 0.2);
+            for (boolean call : new boolean[] {true, false}) {
+                checkPathDerivatives(AdjointPayoffs.vanilla(100.0, call, n), logPath, 4);
+                if (checkPathDerivatives(AdjointPayoffs.digital(100.0, call, 10.0, SMOOTHING, n), logPath, 4)) {
+                    active++;
+                }
+            }
+        }
+        // Enough paths end on the digital's ramp for the check to mean something
+        assertTrue(active > 20, active + " paths on the ramp");
+    }
+    
+    @Test
+    void discreteKnockOutDerivativesMatchFiniteDifferences() {
+        SplittableRandom random = new SplittableRandom(2);
+        double logStart = Math.log(100.0);
+        int active = 0;
+        for (int path = 0; path < 500; path++) {
+            double[] logPath = logPath(random, GRID, 0.2);
+            LogPathAdjoint down = AdjointPayoffs.knockOutDigital(logStart, 100.0, 90.0, true, 10.0, GRID, 0.2, false,
+                    SMOOTHING);
+            LogPathAdjoint up = AdjointPayoffs.knockOutDigital(logStart, 95.0, 110.0, false, 10.0, GRID, 0.2, false,
+                    SMOOTHING);
+            if (checkPathDerivatives(down, logPath, 4) | checkPathDerivatives(up, logPath, 4)) {
+                active++;
+            }
+        }
+        assertTrue(active > 50, active + " paths with non-zero derivatives");
+    }
+    
+    @Test
+    void continuousKnockOutDerivativesMatchFiniteDifferences() {
+        // The Brownian-bridge survival factors also depend on today's level, the volatility and the first step
+        SplittableRandom random = new SplittableRandom(3);
+        double spot = 100.0;
+        double vol = 0.2;
+        for (boolean downBarrier : new boolean[] {true, false}) {
+            double barrier = downBarrier ? 85.0 : 115.0;
+            DoubleFunction<LogPathAdjoint> bySpot = s -> AdjointPayoffs.knockOutDigital(Math.log(s), 100.0, barrier,
+                    downBarrier, 10.0, GRID, vol, true, SMOOTHING);
+            DoubleFunction<LogPathAdjoint> byVol = v -> AdjointPayoffs.knockOutDigital(Math.log(spot), 100.0, barrier,
+                    downBarrier, 10.0, GRID, v, true, SMOOTHING);
+            DoubleFunction<LogPathAdjoint> byFirstStep = h -> AdjointPayoffs.knockOutDigital(Math.log(spot), 100.0,
+                    barrier, downBarrier, 10.0, shifted(GRID, h), vol, true, SMOOTHING);
+            int active = 0;
+            for (int path = 0; path < 200; path++) {
+                double[] logPath = logPath(random, GRID, vol);
+                LogPathAdjoint adjoint = bySpot.apply(spot);
+                if (!checkPathDerivatives(adjoint, logPath, 4)) {
+                    continue;
+                }
+                active++;
+                double[] gradient = new double[4];
+                adjoint.adjoint(logPath, new double[GRID.size()], gradient);
+                assertClose(difference(bySpot, spot, logPath), gradient[BasketPaths.spotSensitivity(0)], "spot");
+                assertClose(difference(byVol, vol, logPath), gradient[BasketPaths.volSensitivity(0)], "vol");
+                assertClose(difference(byFirstStep, 0.0, logPath), gradient[BasketPaths.MATURITY_SENSITIVITY], "maturity");
+                assertEquals(0.0, gradient[BasketPaths.RATE_SENSITIVITY]);
+            }
+            assertTrue(active > 20, active + " surviving paths");
+        }
+    }
+    
+    @Test
+    void basketGradientsMatchFiniteDifferences() {
+        // Full per-path gradient through BasketPaths.backpropagate: rate, maturity, and each asset's spot and vol
+        double[] spots = {95.0, 210.0, 48.0};
+        double[] vols = {0.2, 0.3, 0.25};
+        double[] dividends = {0.01, 0.0, 0.02};
+        double rate = 0.03;
+        for (BasketType basketType : BasketType.values()) {
+            BasketPaths paths = new BasketPaths(GRID, basketType, spots, INITIAL_LEVELS, vols, dividends, WEIGHTS,
+                    CORRELATION, rate, 0.01, 0.0);
+            LogPathAdjoint[] adjoints = {
+                    AdjointPayoffs.vanilla(95.0, true, GRID.size()),
+                    AdjointPayoffs.digital(100.0, false, 10.0, SMOOTHING, GRID.size()),
+                    AdjointPayoffs.knockOutDigital(paths.getLogStart(), 95.0, 85.0, true, 10.0, GRID, 0.0, false,
+                            SMOOTHING)
+            };
+            SplittableRandom random = new SplittableRandom(4);
+            for (int path = 0; path < 100; path++) {
+                double[] z = new double[paths.getNumNormals()];
+                for (int i = 0; i < z.length; i++) {
+                    z[i] = random.nextGaussian();
+                }
+                for (int k = 0; k < adjoints.length; k++) {
+                    LogPathAdjoint adjoint = adjoints[k];
+                    double[] gradient = gradient(paths, adjoint, z);
+                    String what = basketType + " payoff " + k + ", path " + path;
+                    assertClose((payoff(GRID, spots, vols, dividends, rate + H, basketType, adjoint, z)
+                            - payoff(GRID, spots, vols, dividends, rate - H, basketType, adjoint, z)) / (2 * H),
+                            gradient[BasketPaths.RATE_SENSITIVITY], what + ": rate");
+                    assertClose((payoff(shifted(GRID, H), spots, vols, dividends, rate, basketType, adjoint, z)
+                            - payoff(shifted(GRID, -H), spots, vols, dividends, rate, basketType, adjoint, z)) / (2 * H),
+                            gradient[BasketPaths.MATURITY_SENSITIVITY], what + ": maturity");
+                    for (int a = 0; a < spots.length; a++) {
+                        assertClose((payoff(GRID, bumped(spots, a, H), vols, dividends, rate, basketType, adjoint, z)
+                                - payoff(GRID, bumped(spots, a, -H), vols, dividends, rate, basketType, adjoint, z))
+                                / (2 * H), gradient[BasketPaths.spotSensitivity(a)], what + ": spot " + a);
+                        assertClose((payoff(GRID, spots, bumped(vols, a, H), dividends, rate, basketType, adjoint, z)
+                                - payoff(GRID, spots, bumped(vols, a, -H), dividends, rate, basketType, adjoint, z))
+                                / (2 * H), gradient[BasketPaths.volSensitivity(a)], what + ": vol " + a);
+                    }
+                }
+            }
+        }
+    }
+    
+    private static double[] gradient(BasketPaths paths, LogPathAdjoint adjoint, double[] z) {
+        int n = GRID.size();
+        double[] w = new double[z.length];
+        double[] assetLogs = new double[z.length];
+        double[] logPath = new double[n];
+        double[] logPathBar = new double[n];
+        double[] gradient = new double[paths.getNumSensitivities()];
+        paths.correlate(z, w);
+        paths.fillBasketLogPath(BasketPaths.BASE, w, assetLogs, logPath);
+        adjoint.adjoint(logPath, logPathBar, gradient);
+        paths.backpropagate(w, logPathBar, assetLogs, new double[paths.getNumAssets()], gradient);
+        return gradient;
+    }
+    
+    // Smoothed payoff on the path the same normals give under the given (bumped) market
+    private static double payoff(TimeGrid grid, double[] spots, double[] vols, double[] dividends, double rate,
+                                 BasketType basketType, LogPathAdjoint adjoint, double[] z) {
+        BasketPaths paths = new BasketPaths(grid, basketType, spots, INITIAL_LEVELS, vols, dividends, WEIGHTS,
+                CORRELATION, rate, 0.01, 0.0);
+        double[] w = new double[z.length];
+        double[] assetLogs = new double[spots.length];
+        double[] logPath = new double[grid.size()];
+        paths.correlate(z, w);
+        paths.fillBasketLogPath(BasketPaths.BASE, w, assetLogs, logPath);
+        return adjoint.adjoint(logPath, new double[grid.size()], new double[paths.getNumSensitivities()]);
+    }
+    
+    private static double difference(DoubleFunction<LogPathAdjoint> adjoints, double x, double[] logPath) {
+        double up = adjoints.apply(x + H).adjoint(logPath, new double[logPath.length], new double[4]);
+        double down = adjoints.apply(x - H).adjoint(logPath, new double[logPath.length], new double[4]);
+        return (up - down) / (2 * H);
+    }
+    
+    // The grid with its first step lengthened by h (every later step unchanged)
+    private static TimeGrid shifted(TimeGrid grid, double h) {
+        double[] times = new double[grid.size()];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = grid.getTime(i) + h;
+        }
+        return new TimeGrid(times);
+    }
+    
+    private static double[] bumped(double[] values, int index, double h) {
+        double[] result = values.clone();
+        result[index] += h;
+        return result;
+    }
+}
\ No newline at end of file
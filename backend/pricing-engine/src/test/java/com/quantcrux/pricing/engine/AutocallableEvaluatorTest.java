@@ -0,0 +1,52 @@
+package com.quantcrux.pricing.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AutocallableEvaluatorTest {
+    
+    private static final TimeGrid SCHEDULE = TimeGrid.uniform(1.0, 4);
+    
+    @Test
+    void callsOnTheDateItsTriggerStepsDownTo() {
+        // Out of reach until the third date, then below any level: every path calls there with the
+        // three quarterly coupons, which it remembers as the coupon barrier is out of reach too
+        double rate = 0.03;
+        double coupon = 0.08;
+        AutocallableEvaluator note = note(new double[] {1e9, 1e9, 1e-9, 1e-9}, rate, coupon);
+        double expected = (100.0 + coupon * 100 * 0.75) * Math.exp(rate * 0.25);
+        SplittableRandom random = new SplittableRandom(3);
+        double[] z = new double[SCHEDULE.size()];
+        for (int n = 0; n < 100; n++) {
+            for (int i = 0; i < z.length; i++) {
+                z[i] = random.nextGaussian();
+            }
+            assertEquals(expected, note.value(z, 0.0, 0.2, 0.0), 1e-9);
+        }
+    }
+    
+    @Test
+    void stepDownCallsWhereAFlatTriggerDoesNot() {
+        // Between 100 and 105 on the second and third dates: the step-down note calls on the third,
+        // the flat one runs to maturity and repays par above the knock-in
+        double[] logPath = {Math.log(104.0), Math.log(103.0), Math.log(102.0), Math.log(90.0)};
+        AutocallableEvaluator stepDown = note(new double[] {110.0, 105.0, 100.0, 95.0}, 0.03, 0.08);
+        AutocallableEvaluator flat = note(new double[] {110.0, 110.0, 110.0, 110.0}, 0.03, 0.08);
+        assertEquals((100.0 + 0.08 * 100 * 0.75) * Math.exp(0.03 * 0.25), stepDown.valueOnPath(logPath, 0.0, 0.2), 1e-9);
+        assertEquals(100.0, flat.valueOnPath(logPath, 0.0, 0.2), 1e-9);
+    }
+    
+    @Test
+    void rejectsATriggerCountOtherThanTheDates() {
+        assertThrows(IllegalArgumentException.class, () -> note(new double[] {110.0, 100.0}, 0.03, 0.08));
+    }
+    
+    private static AutocallableEvaluator note(double[] triggers, double rate, double coupon) {
+        return new AutocallableEvaluator(SCHEDULE, 100.0, rate, 0.2, triggers, 1e9, 60.0, 100.0, coupon, true, false,
+                0.01, 0.01, 1.0 / 365);
+    }
+}
\ No newline at end of file
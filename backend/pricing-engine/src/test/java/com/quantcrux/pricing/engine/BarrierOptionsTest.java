@@ -0,0 +1,150 @@
+package com.quantcrux.pricing.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the Reiner-Rubinstein closed forms against an independent reference: the no-touch density of
+ * the log price (by reflection) and the first-passage density integrated by Simpson's rule, so every
+ * barrier type, strike side and rebate is priced by a different formula than the one under test.
+ */
+class BarrierOptionsTest {
+    
+    private static final double SPOT = 100.0;
+    private static final double RATE = 0.08;
+    private static final double VOL = 0.25;
+    private static final double TIME = 0.5;
+    private static final double DOWN_BARRIER = 95.0;
+    private static final double UP_BARRIER = 105.0;
+    private static final double[] STRIKES = {90.0, 100.0, 110.0};
+    private static final double[] REBATES = {0.0, 3.0};
+    
+    @Test
+    void matchesQuadratureForEveryTypeStrikeAndRebate() {
+        for (BarrierType type : BarrierType.values()) {
+            double barrier = type.isDown() ? DOWN_BARRIER : UP_BARRIER;
+            for (boolean call : new boolean[] {true, false}) {
+                for (double strike : STRIKES) {
+                    for (double rebate : REBATES) {
+                        double expected = referencePrice(type, call, strike, barrier, rebate);
+                        double actual = BarrierOptions.vanillaPrice(type, call, SPOT, strike, barrier, rebate,
+                                RATE, VOL, TIME);
+                        assertEquals(expected, actual, 1e-7,
+                                () -> type + (call ? " call" : " put") + " K=" + strike + " R=" + rebate);
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    void knockInAndKnockOutAddUpToTheVanilla() {
+        for (boolean down : new boolean[] {true, false}) {
+            BarrierType in = down ? BarrierType.DOWN_AND_IN : BarrierType.UP_AND_IN;
+            BarrierType out = down ? BarrierType.DOWN_AND_OUT : BarrierType.UP_AND_OUT;
+            double barrier = down ? DOWN_BARRIER : UP_BARRIER;
+            for (boolean call : new boolean[] {true, false}) {
+                for (double strike : STRIKES) {
+                    double vanilla = BlackScholes.vanillaPrice(call, SPOT, strike, RATE, VOL, TIME);
+                    double sum = BarrierOptions.vanillaPrice(in, call, SPOT, strike, barrier, 0.0, RATE, VOL, TIME)
+                            + BarrierOptions.vanillaPrice(out, call, SPOT, strike, barrier, 0.0, RATE, VOL, TIME);
+                    assertEquals(vanilla, sum, 1e-12);
+                }
+            }
+        }
+    }
+    
+    @Test
+    void touchedBarriersPayTheRebateOrTheVanilla() {
+        double vanilla = BlackScholes.vanillaPrice(true, 90.0, 100.0, RATE, VOL, TIME);
+        assertEquals(3.0, BarrierOptions.vanillaPrice(BarrierType.DOWN_AND_OUT, true, 90.0, 100.0, DOWN_BARRIER, 3.0,
+                RATE, VOL, TIME));
+        assertEquals(vanilla, BarrierOptions.vanillaPrice(BarrierType.DOWN_AND_IN, true, 90.0, 100.0, DOWN_BARRIER, 3.0,
+                RATE, VOL, TIME));
+    }
+    
+    @Test
+    void knockOutDigitalMatchesQuadrature() {
+        for (boolean down : new boolean[] {true, false}) {
+            double barrier = down ? DOWN_BARRIER : UP_BARRIER;
+            for (double strike : new double[] {90.0, 100.0, 104.0}) {
+                // Probability of finishing above the strike without a touch
+                double logBarrier = Math.log(barrier / SPOT);
+                double logStrike = Math.log(strike / SPOT);
+                double probability = down
+                        ? simpson(noTouchDensity(logBarrier), Math.max(logStrike, logBarrier), farEnd(logBarrier))
+                        : simpson(noTouchDensity(logBarrier), logStrike, logBarrier);
+                double expected = 10.0 * Math.exp(-RATE * TIME) * probability;
+                assertEquals(expected, BarrierOptions.knockOutDigitalPrice(down, 10.0, SPOT, strike, barrier, RATE,
+                        VOL, TIME), 1e-8);
+            }
+        }
+    }
+    
+    // Price from the no-touch density for knock-outs, vanilla minus knock-out for knock-ins, plus the rebate:
+    // at the hit for knock-outs, at expiry when never knocked in for knock-ins
+    private static double referencePrice(BarrierType type, boolean call, double strike, double barrier,
+                                         double rebate) {
+        double logBarrier = Math.log(barrier / SPOT);
+        DoubleUnaryOperator payoff = x -> Math.max(0.0, (call ? 1 : -1) * (SPOT * Math.exp(x) - strike));
+        double knockOut = Math.exp(-RATE * TIME) * noTouchIntegral(logBarrier, Math.log(strike / SPOT), payoff);
+        if (type.isKnockOut()) {
+            return knockOut + rebate * firstPassage(logBarrier, RATE);
+        }
+        double vanilla = BlackScholes.vanillaPrice(call, SPOT, strike, RATE, VOL, TIME);
+        return vanilla - knockOut + rebate * Math.exp(-RATE * TIME) * (1.0 - firstPassage(logBarrier, 0.0));
+    }
+    
+    // Integral of f(x) times the no-touch density over x beyond the barrier (above a down barrier, below
+    // an up one); kink is where f has no derivative
+    private static double noTouchIntegral(double logBarrier, double kink, DoubleUnaryOperator f) {
+        DoubleUnaryOperator density = noTouchDensity(logBarrier);
+        DoubleUnaryOperator integrand = x -> f.applyAsDouble(x) * density.applyAsDouble(x);
+        double low = Math.min(logBarrier, farEnd(logBarrier));
+        double high = Math.max(logBarrier, farEnd(logBarrier));
+        if (kink <= low || kink >= high) {
+            return simpson(integrand, low, high);
+        }
+        return simpson(integrand, low, kink) + simpson(integrand, kink, high);
+    }
+    
+    // Density of x = ln(S_T / S) on paths that never touch the barrier, by reflection
+    private static DoubleUnaryOperator noTouchDensity(double logBarrier) {
+        double drift = RATE - 0.5 * VOL * VOL;
+        double variance = VOL * VOL * TIME;
+        double reflection = Math.exp(2 * drift * logBarrier / (VOL * VOL));
+        return x -> normal(x - drift * TIME, variance) - reflection * normal(x - 2 * logBarrier - drift * TIME, variance);
+    }
+    
+    // Twelve standard deviations past the barrier, away from it
+    private static double farEnd(double logBarrier) {
+        return logBarrier + (logBarrier < 0 ? 1 : -1) * 12 * VOL * Math.sqrt(TIME);
+    }
+    
+    // E[exp(-discountRate tau); tau <= T] for the first passage tau of the log price to the barrier
+    private static double firstPassage(double logBarrier, double discountRate) {
+        double drift = RATE - 0.5 * VOL * VOL;
+        double distance = Math.abs(logBarrier);
+        DoubleUnaryOperator density = t -> t <= 0 ? 0.0 : Math.exp(-discountRate * t) * distance
+                / (VOL * Math.sqrt(2 * Math.PI * t * t * t))
+                * Math.exp(-(logBarrier - drift * t) * (logBarrier - drift * t) / (2 * VOL * VOL * t));
+        return simpson(density, 0.0, TIME);
+    }
+    
+    private static double normal(double x, double variance) {
+        return Math.exp(-x * x / (2 * variance)) / Math.sqrt(2 * Math.PI * variance);
+    }
+    
+    private static double simpson(DoubleUnaryOperator f, double a, double b) {
+        int n = 20_000;
+        double h = (b - a) / n;
+        double sum = f.applyAsDouble(a) + f.applyAsDouble(b);
+        for (int i = 1; i < n; i++) {
+            sum += (i % 2 == 1 ? 4 : 2) * f.applyAsDouble(a + i * h);
+        }
+        return sum * h / 3;
+    }
+}
\ No newline at end of file
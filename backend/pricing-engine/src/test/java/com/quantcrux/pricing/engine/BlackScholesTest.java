@@ -0,0 +1,59 @@
+package com.quantcrux.pricing.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BlackScholesTest {
+    
+    private static final double RATE = 0.05;
+    private static final double VOL = 0.2;
+    private static final double TIME = 0.75;
+    
+    @Test
+    void cashOrNothingGreeksMatchCentralDifferences() {
+        for (boolean call : new boolean[] {true, false}) {
+            for (double spot : new double[] {80.0, 100.0, 125.0}) {
+                AnalyticResult result = BlackScholes.cashOrNothing(call, 10.0, spot, 100.0, RATE, VOL, TIME);
+                assertEquals(BlackScholes.cashOrNothingPrice(call, 10.0, spot, 100.0, RATE, VOL, TIME), result.getPrice(),
+                        1e-12);
+                
+                double h = 1e-4 * spot;
+                double up = BlackScholes.cashOrNothingPrice(call, 10.0, spot + h, 100.0, RATE, VOL, TIME);
+                double down = BlackScholes.cashOrNothingPrice(call, 10.0, spot - h, 100.0, RATE, VOL, TIME);
+                assertEquals((up - down) / (2 * h), result.getDelta(), 1e-7);
+                assertEquals((up - 2 * result.getPrice() + down) / (h * h), result.getGamma(), 1e-6);
+                
+                double volUp = BlackScholes.cashOrNothingPrice(call, 10.0, spot, 100.0, RATE, VOL + 1e-5, TIME);
+                double volDown = BlackScholes.cashOrNothingPrice(call, 10.0, spot, 100.0, RATE, VOL - 1e-5, TIME);
+                assertEquals((volUp - volDown) / 2e-5, result.getVega(), 1e-6);
+                
+                // Theta is the change per year of calendar time, minus the maturity derivative
+                double longer = BlackScholes.cashOrNothingPrice(call, 10.0, spot, 100.0, RATE, VOL, TIME + 1e-5);
+                double shorter = BlackScholes.cashOrNothingPrice(call, 10.0, spot, 100.0, RATE, VOL, TIME - 1e-5);
+                assertEquals(-(longer - shorter) / 2e-5, result.getTheta(), 1e-6);
+            }
+        }
+    }
+    
+    @Test
+    void cashOrNothingCallAndPutAddUpToDiscountedCash() {
+        for (double spot : new double[] {80.0, 100.0, 125.0}) {
+            double sum = BlackScholes.cashOrNothingPrice(true, 10.0, spot, 100.0, RATE, VOL, TIME)
+                    + BlackScholes.cashOrNothingPrice(false, 10.0, spot, 100.0, RATE, VOL, TIME);
+            assertEquals(10.0 * Math.exp(-RATE * TIME), sum, 1e-12);
+        }
+    }
+    
+    @Test
+    void vanillaMatchesReferenceAndParity() {
+        // Hull, Options, Futures and Other Derivatives, Example 15.6: S=42, K=40, r=10%, vol=20%, T=0.5
+        assertEquals(4.76, BlackScholes.vanillaPrice(true, 42.0, 40.0, 0.10, 0.2, 0.5), 5e-3);
+        assertEquals(0.81, BlackScholes.vanillaPrice(false, 42.0, 40.0, 0.10, 0.2, 0.5), 5e-3);
+        
+        AnalyticResult call = BlackScholes.vanilla(true, 100.0, 110.0, RATE, VOL, TIME);
+        AnalyticResult put = BlackScholes.vanilla(false, 100.0, 110.0, RATE, VOL, TIME);
+        assertEquals(100.0 - 110.0 * Math.exp(-RATE * TIME), call.getPrice() - put.getPrice(), 1e-12);
+        assertEquals(1.0, call.getDelta() - put.getDelta(), 1e-12);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.quantcrux.pricing.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BrownianBridgeTest {
+    
+    private static final double[] TIMES = {0.05, 0.1, 0.25, 0.3, 0.5, 0.8, 0.9, 1.0, 1.5, 2.0, 2.1};
+    
+    // Column i: the step normals produced by the i-th unit input
+    private static double[][] matrix(BrownianBridge bridge) {
+        int n = bridge.size();
+        double[][] columns = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            double[] input = new double[n];
+            input[i] = 1.0;
+            bridge.toStepNormals(input, columns[i]);
+        }
+        return columns;
+    }
+    
+    @Test
+    void stepNormalsAreIndependentStandardNormals() {
+        // The map is linear, so independent standard inputs give independent standard outputs iff it is orthogonal
+        double[][] columns = matrix(new BrownianBridge(TIMES));
+        int n = TIMES.length;
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                double covariance = 0.0;
+                for (int i = 0; i < n; i++) {
+                    covariance += columns[i][a] * columns[i][b];
+                }
+                assertEquals(a == b ? 1.0 : 0.0, covariance, 1e-12, "steps " + a + ", " + b);
+            }
+        }
+    }
+    
+    @Test
+    void firstInputFixesTheTerminalValue() {
+        double[][] columns = matrix(new BrownianBridge(TIMES));
+        int n = TIMES.length;
+        for (int i = 0; i < n; i++) {
+            double terminal = 0.0;
+            for (int step = 0; step < n; step++) {
+                terminal += columns[i][step] * Math.sqrt(TIMES[step] - (step > 0 ? TIMES[step - 1] : 0.0));
+            }
+            assertEquals(i == 0 ? Math.sqrt(TIMES[n - 1]) : 0.0, terminal, 1e-12, "input " + i);
+        }
+    }
+    
+    @Test
+    void rejectsTimesOutOfOrder() {
+        assertThrows(IllegalArgumentException.class, () -> new BrownianBridge(new double[] {0.5, 0.5}));
+        assertThrows(IllegalArgumentException.class, () -> new BrownianBridge(new double[] {0.0, 1.0}));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.quantcrux.pricing.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HestonPricerTest {
+    
+    private static PricingParameters call(ProductType productType, double strike, double rate, double time) {
+        return new PricingParameters(productType, 100.0, strike, 0.0, 0.0, 0.2, rate, time, true, null, 0.0);
+    }
+    
+    @Test
+    void matchesLewisReferencePrices() {
+        // Lewis (2000), Option Valuation under Stochastic Volatility: v0 = 0.04, kappa = 4, theta = 0.25,
+        // sigma = 1, rho = -0.5, r = 1%, dividend yield 2%, T = 1, S = 100. The pricer has no dividends; the
+        // law of ln(S_T / F) does not depend on the drift, so the spot discounted by the yield gives the same price.
+        HestonModel model = new HestonModel(0.04, 0.25, 4.0, 1.0, -0.5);
+        double spot = 100.0 * Math.exp(-0.02);
+        double[] strikes = {80, 90, 100, 110, 120};
+        double[] expected = {26.774758743998854, 20.933349000596710, 16.070154917028834, 12.132211516709844,
+                9.024913483457835};
+        for (int i = 0; i < strikes.length; i++) {
+            PricingParameters p = call(ProductType.VANILLA_OPTION, strikes[i], 0.01, 1.0);
+            assertEquals(expected[i], HestonPricer.price(p, model, spot, 1.0), 1e-8, "K=" + strikes[i]);
+        }
+    }
+    
+    @Test
+    void reducesToBlackScholesWithoutVolOfVol() {
+        // Almost no vol of vol and theta = v0: a constant 20% volatility (the price moves by O(sigma^2))
+        HestonModel model = new HestonModel(0.04, 0.04, 1.0, 1e-4, 0.0);
+        for (double strike : new double[] {80.0, 100.0, 120.0}) {
+            PricingParameters vanilla = call(ProductType.VANILLA_OPTION, strike, 0.03, 2.0);
+            assertEquals(BlackScholes.vanillaPrice(true, 100.0, strike, 0.03, 0.2, 2.0),
+                    HestonPricer.price(vanilla, model, 100.0, 2.0), 1e-6);
+            PricingParameters digital = call(ProductType.DIGITAL_OPTION, strike, 0.03, 2.0);
+            assertEquals(BlackScholes.cashOrNothingPrice(true, 100.0, 100.0, strike, 0.03, 0.2, 2.0),
+                    HestonPricer.price(digital, model, 100.0, 2.0), 1e-6);
+        }
+    }
+    
+    @Test
+    void quadraticExponentialPathsConvergeToTheSemiAnalyticPrice() {
+        HestonModel model = new HestonModel(0.04, 0.06, 1.5, 0.6, -0.7);
+        double rate = 0.02;
+        double time = 1.0;
+        // Monthly steps: QE is accurate without a fine grid
+        HestonPaths paths = new HestonPaths(new TimeGrid(new double[] {time}), 100.0, rate, model, 1.0 / 12, 0.0, 0.0);
+        double[] z = new double[paths.getNumNormals()];
+        double[] logPath = new double[1];
+        double[] strikes = {80.0, 100.0, 120.0};
+        double[] sums = new double[strikes.length];
+        double[] squares = new double[strikes.length];
+        SplittableRandom random = new SplittableRandom(42);
+        int numPaths = 400_000;
+        for (int n = 0; n < numPaths; n++) {
+            for (int i = 0; i < z.length; i++) {
+                z[i] = random.nextGaussian();
+            }
+            paths.fillLogPath(HestonPaths.BASE, z, logPath);
+            double terminal = Math.exp(logPath[0]);
+            for (int k = 0; k < strikes.length; k++) {
+                double payoff = Math.max(0.0, terminal - strikes[k]);
+                sums[k] += payoff;
+                squares[k] += payoff * payoff;
+            }
+        }
+        double discount = Math.exp(-rate * time);
+        for (int k = 0; k < strikes.length; k++) {
+            double mean = sums[k] / numPaths;
+            double standardError = Math.sqrt((squares[k] / numPaths - mean * mean) / numPaths) * discount;
+            double expected = HestonPricer.price(call(ProductType.VANILLA_OPTION, strikes[k], rate, time), model,
+                    100.0, time);
+            double error = Math.abs(mean * discount - expected);
+            assertTrue(error < 4 * standardError, "K=" + strikes[k] + ": " + mean * discount + " vs " + expected
+                    + " (standard error " + standardError + ")");
+        }
+    }
+    
+    @Test
+    void timeDownPathsReportTheReductionOfTheirFirstSubStep() {
+        HestonModel model = new HestonModel(0.04, 0.06, 1.5, 0.6, -0.7);
+        double bump = 1.0 / 365;
+        // One year in monthly sub-steps: the whole bump comes off the first one
+        HestonPaths monthly = new HestonPaths(new TimeGrid(new double[] {1.0}), 100.0, 0.03, model, 1.0 / 12, 0.0, bump);
+        assertEquals(bump, monthly.getTimeReduction(), 1e-15);
+        // A first date half a day out caps the reduction at that sub-step
+        double halfDay = 0.5 / 365;
+        HestonPaths shortFirst = new HestonPaths(new TimeGrid(new double[] {halfDay, 1.0}), 100.0, 0.03, model,
+                1.0 / 12, 0.0, bump);
+        assertEquals(halfDay, shortFirst.getTimeReduction(), 1e-15);
+    }
+}
\ No newline at end of file
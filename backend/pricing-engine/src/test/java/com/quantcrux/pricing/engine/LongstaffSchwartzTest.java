@@ -0,0 +1,81 @@
+package com.quantcrux.pricing.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongstaffSchwartzTest {
+    
+    private static final double SPOT = 36.0;
+    private static final double STRIKE = 40.0;
+    private static final double RATE = 0.06;
+    private static final double VOL = 0.2;
+    
+    @Test
+    void pricesTheReferenceAmericanPut() {
+        // Longstaff and Schwartz (2001), table 1: S = 36, K = 40, r = 6%, sigma = 20%, T = 1, exercisable
+        // 50 times a year. The finite difference value of the American put is 4.478.
+        TimeGrid grid = TimeGrid.uniform(1.0, 50);
+        DoubleUnaryOperator put = level -> Math.max(0.0, STRIKE - level);
+        ExerciseRule rule;
+        try (MonteCarloEngine engine = new MonteCarloEngine(4)) {
+            LongstaffSchwartz regression = new LongstaffSchwartz(engine, 25_000_000L, 3);
+            rule = regression.regress(grid, SPOT, RATE, VOL, 100_000, new SplittableRandom(7),
+                    new DoubleUnaryOperator[] {put}, new double[] {STRIKE}, () -> false)[0];
+        }
+        assertEquals(4.478, rule.getInSamplePrice(), 0.03);
+        
+        // Applied to independent paths the rule is suboptimal, so the price is biased low, but only slightly
+        int numPaths = 100_000;
+        int n = grid.size();
+        NormalSequence normals = NormalSequenceFactory.pseudoRandom().create(new SplittableRandom(11), 0);
+        double[] z = new double[n];
+        double[] logPath = new double[n];
+        double sum = 0.0;
+        double sumSquares = 0.0;
+        for (int p = 0; p < numPaths; p++) {
+            normals.next(z);
+            GbmPaths.fillLogPath(Math.log(SPOT), RATE, VOL, grid, 0.0, z, logPath);
+            double cashFlow = 0.0;
+            for (int i = 0; i < n; i++) {
+                double level = Math.exp(logPath[i]);
+                double value = put.applyAsDouble(level);
+                if (i == n - 1 || rule.exercise(i, level, value)) {
+                    cashFlow = value * Math.exp(-RATE * grid.getTime(i));
+                    break;
+                }
+            }
+            sum += cashFlow;
+            sumSquares += cashFlow * cashFlow;
+        }
+        double price = sum / numPaths;
+        double standardError = Math.sqrt((sumSquares / numPaths - price * price) / numPaths);
+        assertTrue(standardError < 0.02, "standard error " + standardError);
+        assertEquals(4.478, price, 0.03);
+        // Early exercise is worth something: the European put is 3.844
+        assertTrue(price > BlackScholes.vanillaPrice(false, SPOT, STRIKE, RATE, VOL, 1.0) + 0.5);
+    }
+    
+    @Test
+    void stopsTheRegressionWhenCancelled() {
+        TimeGrid grid = TimeGrid.uniform(1.0, 50);
+        DoubleUnaryOperator put = level -> Math.max(0.0, STRIKE - level);
+        // Cancelled after the path simulation, part way through the backward passes
+        AtomicInteger checks = new AtomicInteger();
+        try (MonteCarloEngine engine = new MonteCarloEngine(1)) {
+            LongstaffSchwartz regression = new LongstaffSchwartz(engine, 25_000_000L, 3);
+            assertThrows(CancellationException.class, () -> regression.regress(grid, SPOT, RATE, VOL, 20_000,
+                    new SplittableRandom(7), new DoubleUnaryOperator[] {put}, new double[] {STRIKE},
+                    () -> checks.incrementAndGet() > 20));
+        }
+        // Two chunks per pass: 102 checks for an uncancelled run
+        assertTrue(checks.get() < 30, checks.get() + " checks");
+    }
+}
\ No newline at end of file
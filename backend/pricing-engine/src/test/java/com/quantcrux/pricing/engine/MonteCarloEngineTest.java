@@ -0,0 +1,88 @@
+package com.quantcrux.pricing.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MonteCarloEngineTest {
+    
+    // Discounted payoff of a call and of the same call on a bumped spot, on 12 monthly steps
+    private static MonteCarloStats price(MonteCarloEngine engine, long firstPath, long numPaths, long seed) {
+        TimeGrid grid = TimeGrid.uniform(1.0, 12);
+        double discount = Math.exp(-0.05);
+        return engine.simulate(firstPath, numPaths, new SplittableRandom(seed), () -> new MonteCarloStats(2),
+                (rng, first, count, stats) -> {
+                    NormalSequence normals = NormalSequenceFactory.pseudoRandom().create(rng, first);
+                    double[] z = new double[grid.size()];
+                    double[] logPath = new double[grid.size()];
+                    for (int p = 0; p < count; p++) {
+                        normals.next(z);
+                        GbmPaths.fillLogPath(Math.log(100.0), 0.05, 0.2, grid, 0.0, z, logPath);
+                        double payoff = Math.max(0.0, Math.exp(logPath[grid.size() - 1]) - 100.0) * discount;
+                        double bumped = Math.max(0.0, 1.01 * Math.exp(logPath[grid.size() - 1]) - 100.0) * discount;
+                        stats.getPathPayoffs().add(payoff);
+                        stats.getScenarios().add(0, payoff);
+                        stats.getScenarios().add(1, bumped);
+                        stats.getControl().add(Math.exp(logPath[grid.size() - 1]), payoff);
+                    }
+                });
+    }
+    
+    private static void assertIdentical(RunningStats expected, RunningStats actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        // assertEquals on doubles compares the bits: no tolerance
+        assertEquals(expected.getMean(), actual.getMean());
+        assertEquals(expected.getVariance(), actual.getVariance());
+    }
+    
+    private static void assertIdentical(MonteCarloStats expected, MonteCarloStats actual) {
+        assertIdentical(expected.getPathPayoffs(), actual.getPathPayoffs());
+        for (int s = 0; s < 2; s++) {
+            assertIdentical(expected.getScenarios().get(s), actual.getScenarios().get(s));
+        }
+        assertEquals(expected.getControl().getCount(), actual.getControl().getCount());
+        assertEquals(expected.getControl().getBeta(), actual.getControl().getBeta());
+        assertEquals(expected.getControl().getControlledMean(100.0), actual.getControl().getControlledMean(100.0));
+        assertEquals(expected.getControl().getControlledVariance(), actual.getControl().getControlledVariance());
+    }
+    
+    @Test
+    void seededRunsAreBitIdenticalOnAnyNumberOfThreads() {
+        // 200,001 paths: 13 chunks, the last one partial
+        try (MonteCarloEngine single = new MonteCarloEngine(1); MonteCarloEngine parallel = new MonteCarloEngine(4)) {
+            MonteCarloStats expected = price(single, 0, 200_001, 42);
+            assertIdentical(expected, price(parallel, 0, 200_001, 42));
+            assertIdentical(expected, price(parallel, 0, 200_001, 42));
+            // A later batch of an adaptive run
+            assertIdentical(price(single, 200_001, 50_000, 43), price(parallel, 200_001, 50_000, 43));
+        }
+    }
+    
+    @Test
+    void reductionsAreBitIdenticalOnAnyNumberOfThreads() {
+        double[] values = new double[100_000];
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian());
+        }
+        try (MonteCarloEngine single = new MonteCarloEngine(1); MonteCarloEngine parallel = new MonteCarloEngine(4)) {
+            ChunkSimulator<RunningStats> sum = (rng, first, count, stats) -> {
+                for (int i = (int) first; i < first + count; i++) {
+                    stats.add(values[i]);
+                }
+            };
+            assertIdentical(single.reduce(values.length, RunningStats::new, sum),
+                    parallel.reduce(values.length, RunningStats::new, sum));
+        }
+    }
+    
+    @Test
+    void rejectsEmptyRuns() {
+        try (MonteCarloEngine engine = new MonteCarloEngine(1)) {
+            assertThrows(IllegalArgumentException.class, () -> price(engine, 0, 0, 1));
+        }
+    }
+}
\ No newline at end of file
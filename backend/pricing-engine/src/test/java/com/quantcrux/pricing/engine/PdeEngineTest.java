@@ -0,0 +1,73 @@
+package com.quantcrux.pricing.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Crank-Nicolson prices and Greeks at the default 400 x 200 grid against the closed forms of
+ * {@link AnalyticPricer}, for every product the PDE engine supports.
+ */
+class PdeEngineTest {
+    
+    private static final PdeEngine ENGINE = new PdeEngine(400, 200);
+    private static final RiskEngine RISK_ENGINE = new RiskEngine(1e-4, 1e-4, 1e-4);
+    
+    private static PricingParameters parameters(ProductType productType, double strike, double barrier, boolean call,
+                                                BarrierType barrierType, double rebate) {
+        return new PricingParameters(productType, 100.0, strike, barrier, 0.1, 0.25, 0.05, 1.0, call, barrierType,
+                rebate);
+    }
+    
+    private static void assertMatchesClosedForm(PricingParameters p, String label) {
+        AnalyticResult expected = AnalyticPricer.evaluate(p, RISK_ENGINE);
+        AnalyticResult actual = ENGINE.evaluate(p);
+        double scale = Math.max(1.0, Math.abs(expected.getPrice()));
+        assertEquals(expected.getPrice(), actual.getPrice(), 1e-3 * scale, () -> label + " price");
+        assertEquals(expected.getDelta(), actual.getDelta(), 1e-3 * scale, () -> label + " delta");
+        assertEquals(expected.getGamma(), actual.getGamma(), 1e-3 * scale, () -> label + " gamma");
+        assertEquals(expected.getVega(), actual.getVega(), 1e-2 * scale, () -> label + " vega");
+        assertEquals(expected.getTheta(), actual.getTheta(), 1e-2 * scale, () -> label + " theta");
+    }
+    
+    @Test
+    void vanillaMatchesBlackScholes() {
+        for (boolean call : new boolean[] {true, false}) {
+            for (double strike : new double[] {80.0, 100.0, 120.0}) {
+                assertMatchesClosedForm(parameters(ProductType.VANILLA_OPTION, strike, 0.0, call, null, 0.0),
+                        (call ? "call K=" : "put K=") + strike);
+            }
+        }
+    }
+    
+    @Test
+    void digitalMatchesCashOrNothing() {
+        for (boolean call : new boolean[] {true, false}) {
+            for (double strike : new double[] {90.0, 100.0, 110.0}) {
+                assertMatchesClosedForm(parameters(ProductType.DIGITAL_OPTION, strike, 0.0, call, null, 0.0),
+                        (call ? "digital call K=" : "digital put K=") + strike);
+            }
+        }
+    }
+    
+    @Test
+    void everyBarrierTypeMatchesReinerRubinstein() {
+        for (BarrierType type : BarrierType.values()) {
+            double barrier = type.isDown() ? 85.0 : 115.0;
+            for (boolean call : new boolean[] {true, false}) {
+                for (double strike : new double[] {90.0, 100.0, 110.0}) {
+                    for (double rebate : new double[] {0.0, 3.0}) {
+                        assertMatchesClosedForm(parameters(ProductType.BARRIER_OPTION, strike, barrier, call, type, rebate),
+                                type + (call ? " call K=" : " put K=") + strike + " R=" + rebate);
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    void knockOutDigitalMatchesReflection() {
+        assertMatchesClosedForm(parameters(ProductType.BARRIER_OPTION, 100.0, 80.0, true, null, 0.0), "down digital");
+        assertMatchesClosedForm(parameters(ProductType.BARRIER_OPTION, 100.0, 120.0, true, null, 0.0), "up digital");
+    }
+}
\ No newline at end of file
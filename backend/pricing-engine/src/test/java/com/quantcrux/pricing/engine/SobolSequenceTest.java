@@ -0,0 +1,154 @@
+package com.quantcrux.pricing.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SobolSequenceTest {
+    
+    // Lines of new-joe-kuo-6.21201 for dimensions 2-21: d, s, a, m_1 .. m_s
+    private static final String[] JOE_KUO = {
+            "2 1 0 1",
+            "3 2 1 1 3",
+            "4 3 1 1 3 1",
+            "5 3 2 1 1 1",
+            "6 4 1 1 1 3 3",
+            "7 4 4 1 3 5 13",
+            "8 5 2 1 1 5 5 17",
+            "9 5 4 1 1 5 5 5",
+            "10 5 7 1 1 7 11 19",
+            "11 5 11 1 1 5 1 1",
+            "12 5 13 1 1 1 3 11",
+            "13 5 14 1 3 5 5 31",
+            "14 6 1 1 3 3 9 7 49",
+            "15 6 13 1 1 1 15 21 21",
+            "16 6 16 1 3 1 13 27 49",
+            "17 6 19 1 1 1 15 7 5",
+            "18 6 22 1 3 1 15 13 25",
+            "19 6 25 1 1 5 5 19 61",
+            "20 7 1 1 3 7 11 23 15 103",
+            "21 7 4 1 3 7 13 13 15 69"
+    };
+    
+    // Points 0 .. numPoints - 1 scaled to 2^32, generated as in Joe and Kuo's reference implementation
+    private static long[][] joeKuoPoints(int numPoints) {
+        int dimension = JOE_KUO.length + 1;
+        long[][] v = new long[dimension][33];
+        for (int i = 1; i <= 32; i++) {
+            v[0][i] = 1L << (32 - i);
+        }
+        for (int j = 1; j < dimension; j++) {
+            String[] fields = JOE_KUO[j - 1].trim().split("\\s+");
+            int s = Integer.parseInt(fields[1]);
+            int a = Integer.parseInt(fields[2]);
+            for (int i = 1; i <= s; i++) {
+                v[j][i] = Long.parseLong(fields[2 + i]) << (32 - i);
+            }
+            for (int i = s + 1; i <= 32; i++) {
+                v[j][i] = v[j][i - s] ^ (v[j][i - s] >> s);
+                for (int k = 1; k < s; k++) {
+                    v[j][i] ^= ((a >> (s - 1 - k)) & 1) * v[j][i - k];
+                }
+            }
+        }
+        long[][] points = new long[numPoints][dimension];
+        for (int i = 1; i < numPoints; i++) {
+            // Index (from 1) of the rightmost zero bit of i - 1
+            int c = Long.numberOfTrailingZeros(~(long) (i - 1)) + 1;
+            for (int j = 0; j < dimension; j++) {
+                points[i][j] = points[i - 1][j] ^ v[j][c];
+            }
+        }
+        return points;
+    }
+    
+    @Test
+    void firstPointsMatchThePublishedSequence() {
+        double[][] expected = {
+                {0.0, 0.0, 0.0},
+                {0.5, 0.5, 0.5},
+                {0.75, 0.25, 0.25},
+                {0.25, 0.75, 0.75},
+                {0.375, 0.375, 0.625},
+                {0.875, 0.875, 0.125},
+                {0.625, 0.125, 0.875},
+                {0.125, 0.625, 0.375}
+        };
+        SobolSequence.Cursor cursor = SobolSequence.unscrambled(3).cursor(0);
+        double[] point = new double[3];
+        for (double[] row : expected) {
+            cursor.next(point);
+            // Points are centred in their 2^-32 cell
+            assertArrayEquals(row, point, 1e-9);
+        }
+    }
+    
+    @Test
+    void directionNumbersMatchJoeKuo() {
+        int numPoints = 4096;
+        long[][] expected = joeKuoPoints(numPoints);
+        int dimension = expected[0].length;
+        SobolSequence.Cursor cursor = SobolSequence.unscrambled(dimension).cursor(0);
+        double[] point = new double[dimension];
+        for (int i = 0; i < numPoints; i++) {
+            cursor.next(point);
+            for (int d = 0; d < dimension; d++) {
+                assertEquals((expected[i][d] + 0.5) * 0x1.0p-32, point[d], 0.0, "point " + i + ", dimension " + (d + 1));
+            }
+        }
+    }
+    
+    @Test
+    void cursorStartsMidSequence() {
+        SobolSequence sequence = new SobolSequence(50, new SplittableRandom(3));
+        SobolSequence.Cursor sequential = sequence.cursor(0);
+        double[] expected = new double[50];
+        double[] actual = new double[50];
+        for (int i = 0; i < 1000; i++) {
+            sequential.next(expected);
+        }
+        sequence.cursor(1000).next(actual);
+        sequential.next(expected);
+        assertArrayEquals(expected, actual, 0.0);
+        assertThrows(IllegalArgumentException.class, () -> sequence.cursor(-1));
+    }
+    
+    @Test
+    void scrambledPointsStayInTheUnitIntervalAndStratify() {
+        // The scramble is a bijection on each 2^-m cell level, so the first 2^m points still hit every cell
+        // of every dimension exactly once, and no point lands on 0 or 1
+        int m = 12;
+        int numPoints = 1 << m;
+        for (long seed = 1; seed <= 3; seed++) {
+            SobolSequence sequence = new SobolSequence(SobolSequence.MAX_DIMENSION, new SplittableRandom(seed));
+            SobolSequence.Cursor cursor = sequence.cursor(0);
+            double[] point = new double[SobolSequence.MAX_DIMENSION];
+            boolean[][] hit = new boolean[SobolSequence.MAX_DIMENSION][numPoints];
+            for (int i = 0; i < numPoints; i++) {
+                cursor.next(point);
+                for (int d = 0; d < point.length; d++) {
+                    assertTrue(point[d] > 0.0 && point[d] < 1.0, "point " + i + ", dimension " + (d + 1));
+                    int cell = (int) (point[d] * numPoints);
+                    assertTrue(!hit[d][cell], "cell hit twice in dimension " + (d + 1));
+                    hit[d][cell] = true;
+                }
+            }
+        }
+    }
+    
+    @Test
+    void scramblesDifferBySeed() {
+        double[] first = new double[4];
+        double[] second = new double[4];
+        new SobolSequence(4, new SplittableRandom(1)).cursor(5).next(first);
+        new SobolSequence(4, new SplittableRandom(2)).cursor(5).next(second);
+        for (int d = 0; d < 4; d++) {
+            assertTrue(first[d] != second[d]);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.quantcrux.pricing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantcrux.pricing.dto.PricingRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PricingCacheTest {
+    
+    private final PricingCache cache = new PricingCache(new ObjectMapper(), 100, Duration.ofMinutes(1), 0.01, 0.0001);
+    
+    @Test
+    void pricesTheRequestAsSent() {
+        // 0.004 rounds to a spot of 0 in the key; the pricer must still see the positive spot
+        List<Double> priced = new ArrayList<>();
+        cache.get("calculate", request(0.004, 0.2), r -> {
+            priced.add(r.getSpotPrice());
+            return new PricingResult(r.getSpotPrice(), 0, 0, 0, 0, 1, "analytical");
+        });
+        assertEquals(List.of(0.004), priced);
+    }
+    
+    @Test
+    void requestsWithinHalfATickShareAnEntry() {
+        List<Double> priced = new ArrayList<>();
+        PricingResult first = cache.get("calculate", request(100.001, 0.20001), r -> {
+            priced.add(r.getSpotPrice());
+            return new PricingResult(r.getSpotPrice(), 0, 0, 0, 0, 1, "analytical");
+        });
+        PricingResult second = cache.get("calculate", request(99.999, 0.19999), r -> {
+            priced.add(r.getSpotPrice());
+            return new PricingResult(r.getSpotPrice(), 0, 0, 0, 0, 1, "analytical");
+        });
+        assertSame(first, second);
+        assertEquals(List.of(100.001), priced);
+    }
+    
+    private static PricingRequest request(double spot, double vol) {
+        PricingRequest request = new PricingRequest();
+        request.setProductType("vanilla_option");
+        request.setSpotPrice(spot);
+        request.setVolatility(vol);
+        return request;
+    }
+}
\ No newline at end of file